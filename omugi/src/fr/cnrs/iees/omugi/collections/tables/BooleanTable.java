@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -62,6 +63,7 @@ public class BooleanTable extends TableAdapter {
 
 	@Override
 	public void setByInt(boolean value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -72,6 +74,7 @@ public class BooleanTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(boolean value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -84,9 +87,43 @@ public class BooleanTable extends TableAdapter {
 	// not tested because not used
 	@Override
 	public void set(boolean value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public boolean get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(boolean value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public boolean get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(boolean value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public boolean get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(boolean value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public BooleanTable clone() {
 		BooleanTable result = cloneStructure();
@@ -114,6 +151,7 @@ public class BooleanTable extends TableAdapter {
 	
 	@Override
 	public BooleanTable fillWith(boolean value) {
+		modified();
 		for (int i=0; i<data.length; i++)
 			data[i] = value;
 		return this;
@@ -124,6 +162,34 @@ public class BooleanTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'Z';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return 1;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		for (int i = from; i < to; i++)
+			out.put(data[i] ? (byte) 1 : (byte) 0);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		for (int i = from; i < to; i++)
+			data[i] = in.get()!=0;
+	}
+
 	@Override
 	public BooleanTable clear() {
 		return fillWith(false);		
@@ -137,6 +203,7 @@ public class BooleanTable extends TableAdapter {
 
 	@Override
 	public BooleanTable copy(Table from) {
+		modified();
 		if (from.getClass().equals(getClass())) {
 			BooleanTable bt = (BooleanTable)from;
 			for (int i=0; i<data.length; i++)
@@ -170,19 +237,12 @@ public class BooleanTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static BooleanTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1);
-		BooleanTable result = new BooleanTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = Boolean.valueOf(s);
-			i++;
-		}
-		result.data[i] = Boolean.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		BooleanTable result = new BooleanTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextBoolean();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
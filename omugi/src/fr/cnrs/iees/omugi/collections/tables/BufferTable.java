@@ -0,0 +1,264 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * <p>Abstract ancestor of tables which data are not stored in a java array but in
+ * {@link ByteBuffer}s, i.e. outside of the java heap. The buffers are either <em>direct</em>
+ * buffers (allocated by the constructors of descendants) or memory-mapped files (obtained with
+ * the {@code map(...)} and {@code open(...)} static methods of descendants).</p>
+ * 
+ * <p>Large tables stored this way do not weigh on garbage collection. A memory-mapped table
+ * is saved to its file as it is modified, and can be reopened later without any parsing.
+ * The file starts with a small header (a magic number, the element type, the number of
+ * dimensions and their sizes) followed by the table values in little-endian order. 
+ * Dimension names are not saved.</p>
+ * 
+ * <p>As a {@link ByteBuffer} cannot hold more than 2<sup>31</sup>-1 bytes, the values are 
+ * split into <em>segments</em> of 2<sup>30</sup> bytes, each stored in its own buffer. Hence a
+ * table can hold as many values as its heap counterpart (2<sup>31</sup>-1).</p>
+ */
+public abstract class BufferTable extends TableAdapter {
+
+	// "OMTB" in ASCII - used to recognize table files
+	private static final int MAGIC = 0x4F4D5442;
+	// log2 of the size of a segment, in bytes
+	private static final int SEGMENT_BYTES_SHIFT = 30;
+
+	/** the buffers holding the table values, one per segment */
+	protected ByteBuffer[] buffers;
+	/** log2 of the number of values in a segment (the last segment may hold less) */
+	protected final int segmentShift;
+	/** the mask giving the index of a value in its segment from its flat index */
+	protected final int segmentMask;
+	// true if buffers are memory-mapped files (a direct buffer is also a MappedByteBuffer)
+	private boolean mapped = false;
+	
+	/**
+	 * Constructor with dimensioners. Allocates direct buffers.
+	 * 
+	 * @param elementBytes the size in bytes of a table element (a power of 2)
+	 * @param dimensioners dimensioners
+	 */
+	protected BufferTable(int elementBytes, Dimensioner... dimensioners) {
+		this(elementBytes, segmentShift(elementBytes), dimensioners);
+	}
+
+	// constructor with a given segment size (for tests)
+	BufferTable(int elementBytes, int segmentShift, Dimensioner... dimensioners) {
+		super(dimensioners);
+		this.segmentShift = segmentShift;
+		segmentMask = (1<<segmentShift)-1;
+		buffers = new ByteBuffer[nSegments(flatSize,segmentShift)];
+		for (int s=0; s<buffers.length; s++)
+			buffers[s] = ByteBuffer.allocateDirect(segmentLength(flatSize,segmentShift,s)*elementBytes)
+				.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Constructor with a memory-mapped file
+	 * 
+	 * @param buffers the mapped buffers, as returned by 
+	 * {@link BufferTable#mapData(FileChannel, int, Dimensioner...) mapData(...)}
+	 * @param elementBytes the size in bytes of a table element (a power of 2)
+	 * @param dimensioners dimensioners
+	 */
+	protected BufferTable(MappedByteBuffer[] buffers, int elementBytes, Dimensioner... dimensioners) {
+		super(dimensioners);
+		segmentShift = segmentShift(elementBytes);
+		segmentMask = (1<<segmentShift)-1;
+		this.buffers = buffers;
+		mapped = true;
+	}
+
+	/**
+	 * 
+	 * @return true if this table is stored in a memory-mapped file
+	 */
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * Forces any change made to this table to be written to its file. Does nothing
+	 * if the table is not memory-mapped.
+	 */
+	public void force() {
+		if (mapped)
+			for (ByteBuffer b:buffers)
+				((MappedByteBuffer)b).force();
+	}
+
+	// helpers for descendants
+
+	// log2 of the number of elements in a segment
+	private static int segmentShift(int elementBytes) {
+		return SEGMENT_BYTES_SHIFT-Integer.numberOfTrailingZeros(elementBytes);
+	}
+
+	// the number of segments needed for a table
+	private static int nSegments(long nElements, int segmentShift) {
+		return (int) ((nElements+(1L<<segmentShift)-1)>>>segmentShift);
+	}
+
+	// the number of elements in a segment
+	private static int segmentLength(long nElements, int segmentShift, int segment) {
+		return (int) Math.min(1L<<segmentShift, nElements-((long)segment<<segmentShift));
+	}
+
+	// the number of elements of a table
+	private static long nElements(Dimensioner... dimensioners) {
+		long n = 1;
+		for (Dimensioner dim:dimensioners)
+			n *= dim.getLength();
+		return n;
+	}
+	
+	// size of the file header, rounded up to a multiple of 8 bytes so that data are aligned
+	private static int headerSize(int ndim) {
+		return (((3+ndim)*Integer.BYTES+7)/8)*8;
+	}
+	
+	/**
+	 * Opens (or creates) a file for memory-mapping a new table.
+	 * 
+	 * @param file the file
+	 * @return the open channel
+	 * @throws IOException if the file cannot be opened
+	 */
+	protected static FileChannel createFile(Path file) throws IOException {
+		return FileChannel.open(file,CREATE,TRUNCATE_EXISTING,READ,WRITE);
+	}
+	
+	/**
+	 * Opens an existing table file for memory-mapping.
+	 * 
+	 * @param file the file
+	 * @return the open channel
+	 * @throws IOException if the file cannot be opened
+	 */
+	protected static FileChannel openFile(Path file) throws IOException {
+		return FileChannel.open(file,READ,WRITE);
+	}
+
+	/**
+	 * Writes the table file header.
+	 * 
+	 * @param channel the channel to write to
+	 * @param type the element type code (as in JVM type descriptors, e.g. 'D' for double)
+	 * @param dimensioners the table dimensioners
+	 * @throws IOException if writing fails
+	 */
+	protected static void writeHeader(FileChannel channel, char type, Dimensioner... dimensioners) 
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(headerSize(dimensioners.length))
+			.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(type).putInt(dimensioners.length);
+		for (Dimensioner dim:dimensioners)
+			header.putInt(dim.getLength());
+		header.rewind();
+		channel.write(header,0);
+	}
+
+	/**
+	 * Reads the table file header and checks it matches the expected element type and the
+	 * file size.
+	 * 
+	 * @param channel the channel to read from
+	 * @param type the expected element type code
+	 * @param elementBytes the size in bytes of a table element
+	 * @return the table dimensioners
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if the file is not a table file of the expected type, 
+	 * or is too short for the table dimensions
+	 */
+	protected static Dimensioner[] readHeader(FileChannel channel, char type, int elementBytes) 
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(3*Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		channel.read(header,0);
+		header.flip();
+		if ((header.remaining()<3*Integer.BYTES)||(header.getInt()!=MAGIC))
+			throw new IllegalArgumentException("BufferTable: not a table file");
+		char t = (char) header.getInt();
+		if (t!=type)
+			throw new IllegalArgumentException("BufferTable: wrong table element type (expected '"
+				+type+"', found '"+t+"')");
+		int ndim = header.getInt();
+		header = ByteBuffer.allocate(ndim*Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		channel.read(header,3*Integer.BYTES);
+		header.flip();
+		if (header.remaining()<ndim*Integer.BYTES)
+			throw new IllegalArgumentException("BufferTable: truncated table file header");
+		Dimensioner[] result = new Dimensioner[ndim];
+		for (int i=0; i<ndim; i++)
+			result[i] = new Dimensioner(header.getInt());
+		long expected = headerSize(ndim)+nElements(result)*elementBytes;
+		if (channel.size()<expected)
+			throw new IllegalArgumentException("BufferTable: truncated table file (expected "
+				+expected+" bytes, found "+channel.size()+")");
+		return result;
+	}
+	
+	/**
+	 * Maps the data part of a table file into memory, one buffer per segment. The file is 
+	 * extended if needed.
+	 * 
+	 * @param channel the channel to map
+	 * @param elementBytes the size in bytes of a table element (a power of 2)
+	 * @param dimensioners the table dimensioners
+	 * @return the mapped buffers
+	 * @throws IOException if mapping fails
+	 */
+	protected static MappedByteBuffer[] mapData(FileChannel channel, int elementBytes, Dimensioner... dimensioners)
+			throws IOException {
+		long n = nElements(dimensioners);
+		int shift = segmentShift(elementBytes);
+		MappedByteBuffer[] result = new MappedByteBuffer[nSegments(n,shift)];
+		long position = headerSize(dimensioners.length);
+		for (int s=0; s<result.length; s++) {
+			long size = (long)segmentLength(n,shift,s)*elementBytes;
+			result[s] = channel.map(FileChannel.MapMode.READ_WRITE,position,size);
+			result[s].order(ByteOrder.LITTLE_ENDIAN);
+			position += size;
+		}
+		return result;
+	}
+
+}
@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -62,6 +63,7 @@ public class ByteTable extends TableAdapter {
 
 	@Override
 	public void setByInt(byte value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -72,6 +74,7 @@ public class ByteTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(byte value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -82,9 +85,43 @@ public class ByteTable extends TableAdapter {
 
 	@Override
 	public void set(byte value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public byte get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(byte value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public byte get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(byte value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public byte get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(byte value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public ByteTable clone() {
 		ByteTable result = cloneStructure();
@@ -112,6 +149,7 @@ public class ByteTable extends TableAdapter {
 	
 	@Override
 	public ByteTable fillWith(byte value) {
+		modified();
 		for (int i=0; i<data.length; i++)
 			data[i] = value;
 		return this;
@@ -122,6 +160,32 @@ public class ByteTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'B';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Byte.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.put(data, from, to - from);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.get(data, from, to - from);
+	}
+
 	@Override
 	public ByteTable clear() {
 		byte b = 00;
@@ -136,6 +200,7 @@ public class ByteTable extends TableAdapter {
 
 	@Override
 	public ByteTable copy(Table from) {
+		modified();
 		if (Byte.class.isAssignableFrom(from.contentType())) {
 			ByteTable bt = (ByteTable)from;
 			for (int i=0; i<data.length; i++)
@@ -182,19 +247,12 @@ public class ByteTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static ByteTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		ByteTable result = new ByteTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1);
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = Byte.valueOf(s);
-			i++;
-		}
-		result.data[i] = Byte.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		ByteTable result = new ByteTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextByte();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
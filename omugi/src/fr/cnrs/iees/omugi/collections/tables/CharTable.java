@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -63,6 +64,7 @@ public class CharTable extends TableAdapter {
 
 	@Override
 	public void setByInt(char value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -73,6 +75,7 @@ public class CharTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(char value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -83,9 +86,43 @@ public class CharTable extends TableAdapter {
 
 	@Override
 	public void set(char value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public char get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(char value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public char get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(char value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public char get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(char value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public CharTable clone() {
 		CharTable result = cloneStructure();
@@ -113,6 +150,7 @@ public class CharTable extends TableAdapter {
 	
 	@Override
 	public CharTable fillWith(char value) {
+		modified();
 		for (int i=0; i<data.length; i++)
 			data[i] = value;
 		return this;
@@ -123,6 +161,34 @@ public class CharTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'C';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Character.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.asCharBuffer().put(data, from, to - from);
+		out.position(out.position() + (to - from) * Character.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.asCharBuffer().get(data, from, to - from);
+		in.position(in.position() + (to - from) * Character.BYTES);
+	}
+
 	@Override
 	public CharTable clear() {
 		return fillWith('\0');
@@ -135,6 +201,7 @@ public class CharTable extends TableAdapter {
 
 	@Override
 	public CharTable copy(Table from) {
+		modified();
 		if (from.getClass().equals(getClass())) {
 			CharTable ct = (CharTable)from;
 			for (int i=0; i<data.length; i++)
@@ -181,19 +248,12 @@ public class CharTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static CharTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		CharTable result = new CharTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = s.charAt(0);
-			i++;
-		}
-		result.data[i] = ss.charAt(0);
+		TextReader reader = new TextReader(value, bdel, isep);
+		CharTable result = new CharTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextChar();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
@@ -88,6 +88,14 @@ public class Dimensioner {
 		return last + 1;
 	}
 	
+	/**
+	 * 
+	 * @return true if this instance has names associated to its indexes
+	 */
+	public boolean hasNames() {
+		return (names!=null) && (names.length>0);
+	}
+	
 	/**
 	 * Accessor to the name associated with an integer index. Throws an {@code Exception} if this
 	 * instance has no names.
@@ -0,0 +1,422 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A multidimensional table of {@code double}-precision floating point numbers stored outside of the java heap, either in direct 
+ * buffers or in a memory-mapped file (cf. {@link BufferTable}).
+ * 
+ * @see DoubleTable
+ */
+public class DoubleBufferTable extends BufferTable {
+
+	// type code used in table files
+	private static final char TYPE = 'D';
+	
+	/** the table values, one buffer per segment */
+	protected DoubleBuffer[] data;
+
+	/**
+	 * Constructor with dimensioners. The table is stored in direct buffers.
+	 * 
+	 * @param dimensions dimensioners
+	 */
+	public DoubleBufferTable(Dimensioner... dimensions) {
+		super(Double.BYTES, dimensions);
+		setupData();
+	}
+
+	// constructor with 2^segmentShift values per segment (for tests)
+	DoubleBufferTable(int segmentShift, Dimensioner... dimensions) {
+		super(Double.BYTES, segmentShift, dimensions);
+		setupData();
+	}
+
+	/**
+	 * Constructor with a memory-mapped file.
+	 * 
+	 * @param buffers the mapped buffers to store the table values in
+	 * @param dimensions dimensioners
+	 */
+	protected DoubleBufferTable(MappedByteBuffer[] buffers, Dimensioner... dimensions) {
+		super(buffers, Double.BYTES, dimensions);
+		setupData();
+	}
+
+	private void setupData() {
+		data = new DoubleBuffer[buffers.length];
+		for (int s = 0; s < buffers.length; s++)
+			data[s] = buffers[s].asDoubleBuffer();
+	}
+
+	// read a cell
+	private double value(int flatIndex) {
+		return data[flatIndex >>> segmentShift].get(flatIndex & segmentMask);
+	}
+
+	// write a cell
+	private void store(int flatIndex, double value) {
+		data[flatIndex >>> segmentShift].put(flatIndex & segmentMask, value);
+	}
+
+	/**
+	 * Creates a new table stored in a memory-mapped file. If the file already exists, it is
+	 * overwritten.
+	 * 
+	 * @param file the file to store the table into
+	 * @param dimensions dimensioners
+	 * @return the new table, filled with zeros
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static DoubleBufferTable map(Path file, Dimensioner... dimensions) throws IOException {
+		try (FileChannel channel = createFile(file)) {
+			writeHeader(channel, TYPE, dimensions);
+			return new DoubleBufferTable(mapData(channel, Double.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/**
+	 * Reopens a table previously created with {@link DoubleBufferTable#map(Path, Dimensioner...) map(...)}.
+	 * 
+	 * @param file the file where the table is stored
+	 * @return the table, with the values found in the file
+	 * @throws IOException if the file cannot be read or mapped
+	 * @throws IllegalArgumentException if the file is not a table file of the right type, or
+	 * is too short for the dimensions found in its header
+	 */
+	public static DoubleBufferTable open(Path file) throws IOException {
+		try (FileChannel channel = openFile(file)) {
+			Dimensioner[] dimensions = readHeader(channel, TYPE, Double.BYTES);
+			return new DoubleBufferTable(mapData(channel, Double.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public double getByInt(int... indexes) {
+		return value(getFlatIndexByInt(indexes));
+	}
+
+	@Override
+	public void setByInt(double value, int... indexes) {
+		modified();
+		store(getFlatIndexByInt(indexes), value);
+	}
+
+	/** get the value stored at flat <em>index</em>*/
+	public double getWithFlatIndex(int index) {
+		return value(index);
+	}
+
+	@Override
+	public void setWithFlatIndex(double value, int index) {
+		modified();
+		store(index, value);
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public double get(Object... indexes) {
+		return value(getFlatIndex(indexes));
+	}
+
+	@Override
+	public void set(double value, Object... indexes) {
+		modified();
+		store(getFlatIndex(indexes), value);
+	}
+
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public double get(int i) {
+		return value(getFlatIndexByInt(i));
+	}
+
+	@Override
+	public void set(double value, int i) {
+		modified();
+		store(getFlatIndexByInt(i), value);
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public double get(int i, int j) {
+		return value(getFlatIndexByInt(i,j));
+	}
+
+	@Override
+	public void set(double value, int i, int j) {
+		modified();
+		store(getFlatIndexByInt(i,j), value);
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public double get(int i, int j, int k) {
+		return value(getFlatIndexByInt(i,j,k));
+	}
+
+	@Override
+	public void set(double value, int i, int j, int k) {
+		modified();
+		store(getFlatIndexByInt(i,j,k), value);
+	}
+
+	/**
+	 * Copies the values of this table into a dense array
+	 * 
+	 * @param values the array to fill, of size at least {@link Table#size() size()}
+	 */
+	void copyInto(double[] values) {
+		for (int s = 0; s < data.length; s++)
+			data[s].duplicate().get(values, s << segmentShift, data[s].capacity());
+	}
+
+	/**
+	 * Copies this table into a new table stored in direct buffers (even if this table is
+	 * memory-mapped).
+	 */
+	@Override
+	public DoubleBufferTable clone() {
+		DoubleBufferTable result = cloneStructure();
+		result.copy(this);
+		return result;
+	}
+
+	@Override
+	public DoubleBufferTable cloneStructure() {
+		DoubleBufferTable result = new DoubleBufferTable(getDimensioners());
+		return result;
+	}
+
+	/**
+	 * Clone this table and fills it with its argument
+	 * 
+	 * @param initialValue the value to fill the table with
+	 * @return the new table
+	 */
+	public DoubleBufferTable cloneStructure(double initialValue) {
+		DoubleBufferTable result = cloneStructure();
+		result.fillWith(initialValue);
+		return result;
+	}
+
+	@Override
+	public DoubleBufferTable fillWith(double value) {
+		modified();
+		for (DoubleBuffer segment:data)
+			for (int i = 0; i < segment.capacity(); i++)
+				segment.put(i, value);
+		return this;
+	}
+
+	@Override
+	public String elementToString(int flatIndex) {
+		return String.valueOf(value(flatIndex));
+	}
+
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(value(flatIndex));
+	}
+
+	@Override
+	protected char binaryType() {
+		return TYPE;
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Double.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		DoubleBuffer values = out.asDoubleBuffer();
+		for (int i = from; i < to; ) {
+			DoubleBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			segment.limit(start + n).position(start);
+			values.put(segment);
+			i += n;
+		}
+		out.position(out.position() + (to - from) * Double.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		DoubleBuffer values = in.asDoubleBuffer();
+		for (int i = from; i < to; ) {
+			DoubleBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			values.limit(values.position() + n);
+			segment.position(start);
+			segment.put(values);
+			i += n;
+		}
+		in.position(in.position() + (to - from) * Double.BYTES);
+	}
+
+	@Override
+	public DoubleBufferTable clear() {
+		return fillWith(0.0);
+	}
+
+	@Override
+	public DoubleBufferTable fillWith(Object value) {
+		return fillWith(((Double) value).doubleValue());
+	}
+
+	/**
+	 * Copies the values of another table into this one.
+	 * 
+	 * @param from a {@link DoubleTable}, {@code DoubleBufferTable} or {@code DoubleSparseTable} with the same dimensions
+	 * as this table
+	 * @return this table
+	 * @throws IllegalArgumentException if the argument is of another type or has different
+	 * dimensions
+	 */
+	@Override
+	public DoubleBufferTable copy(Table from) {
+		checkSameDimensions(from);
+		if (from instanceof DoubleTable) {
+			double[] values = ((DoubleTable) from).data;
+			for (int s = 0; s < data.length; s++)
+				data[s].duplicate().put(values, s << segmentShift, data[s].capacity());
+		}
+		else if (from instanceof DoubleBufferTable) {
+			DoubleBufferTable bt = (DoubleBufferTable) from;
+			if (bt.segmentShift == segmentShift)
+				for (int s = 0; s < data.length; s++)
+					data[s].duplicate().put(bt.data[s].duplicate());
+			else
+				for (int i = 0; i < flatSize; i++)
+					store(i, bt.value(i));
+		}
+		else if (from instanceof DoubleSparseTable) {
+			DoubleSparseTable st = (DoubleSparseTable) from;
+			for (int i = 0; i < flatSize; i++)
+				store(i, st.getWithFlatIndex(i));
+		}
+		else
+			throw new IllegalArgumentException("DoubleBufferTable: cannot copy a "
+				+ from.getClass().getSimpleName());
+		modified();
+		return this;
+	}
+
+	@Override
+	public String elementClassName() {
+		return Double.class.getName();
+	}
+
+	@Override
+	public String elementSimpleClassName() {
+		return Double.class.getSimpleName();
+	}
+
+	@Override
+	public Class<?> contentType() {
+		return Double.class;
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
+	 * and item separators defined in {@link Table#getDefaultDelimiters()} 
+	 * and {@link Table#getDefaultSeparators()}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static DoubleBufferTable valueOf(String value) {
+		return DoubleBufferTable.valueOf(value, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString toSaveableString(...)}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static DoubleBufferTable valueOf(String value, char[][] bdel, char[] isep) {
+		TextReader reader = new TextReader(value, bdel, isep);
+		DoubleBufferTable result = new DoubleBufferTable(reader.dimensioners());
+		for (int i = 0; i < result.flatSize; i++)
+			result.store(i, reader.nextDouble());
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) {
+			final int prime = 31;
+			hash = super.hashCode();
+			int h = 1;
+			for (int i = 0; i < flatSize; i++)
+				h = prime * h + Double.hashCode(value(i));
+			hash = prime * hash + h;
+		}
+		return hash;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (!(obj instanceof DoubleBufferTable))
+			return false;
+		DoubleBufferTable other = (DoubleBufferTable) obj;
+		for (int i = 0; i < flatSize; i++)
+			if (Double.compare(value(i), other.value(i)) != 0)
+				return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,387 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.nio.ByteBuffer;
+import java.util.PrimitiveIterator;
+
+/**
+ * A multidimensional table of {@code double}-precision floating point numbers where only non-zero
+ * values are stored (cf. {@link SparseTable}). Negative zeros ({@code -0.0}) are stored, so
+ * that all values round-trip exactly. Saves to the same text format as {@link DoubleTable}.
+ * 
+ * @see DoubleTable
+ */
+public class DoubleSparseTable extends SparseTable {
+
+	// values of occupied cells, indexed by slot
+	protected double[] data;
+
+	/**
+	 * Constructor with dimensioners. The table is initially filled with zeros.
+	 * 
+	 * @param dimensions dimensioners
+	 */
+	public DoubleSparseTable(Dimensioner... dimensions) {
+		super(dimensions);
+		data = new double[capacity()];
+	}
+
+	@Override
+	protected void moveValue(int from, int to) {
+		data[to] = data[from];
+	}
+
+	@Override
+	protected void rehashValues(int[] slots, int capacity) {
+		double[] values = new double[capacity];
+		for (int i = 0; i < slots.length; i++)
+			if (slots[i] >= 0)
+				values[slots[i]] = data[i];
+		data = values;
+	}
+
+	// read a cell
+	private double read(int flatIndex) {
+		int slot = slotOf(flatIndex);
+		return slot < 0 ? 0.0 : data[slot];
+	}
+
+	// true for the default value, i.e. +0.0 (-0.0 is stored, so that values round-trip exactly)
+	private static boolean isDefault(double value) {
+		return Double.doubleToRawLongBits(value) == 0L;
+	}
+
+	// write a cell - zero values are not stored
+	private void write(int flatIndex, double value) {
+		modified();
+		if (isDefault(value)) {
+			int slot = slotOf(flatIndex);
+			if (slot >= 0)
+				free(slot);
+		}
+		else
+			put(flatIndex, value);
+	}
+
+	// store a non-zero value (NB occupy() may reallocate data)
+	private void put(int flatIndex, double value) {
+		int slot = occupy(flatIndex);
+		data[slot] = value;
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public double getByInt(int... indexes) {
+		return read(getFlatIndexByInt(indexes));
+	}
+
+	@Override
+	public void setByInt(double value, int... indexes) {
+		write(getFlatIndexByInt(indexes), value);
+	}
+
+	/** get the value stored at flat <em>index</em>*/
+	public double getWithFlatIndex(int index) {
+		return read(index);
+	}
+
+	@Override
+	public void setWithFlatIndex(double value, int index) {
+		write(index, value);
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public double get(Object... indexes) {
+		return read(getFlatIndex(indexes));
+	}
+
+	@Override
+	public void set(double value, Object... indexes) {
+		write(getFlatIndex(indexes), value);
+	}
+
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public double get(int i) {
+		return read(getFlatIndexByInt(i));
+	}
+
+	@Override
+	public void set(double value, int i) {
+		write(getFlatIndexByInt(i), value);
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public double get(int i, int j) {
+		return read(getFlatIndexByInt(i,j));
+	}
+
+	@Override
+	public void set(double value, int i, int j) {
+		write(getFlatIndexByInt(i,j), value);
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public double get(int i, int j, int k) {
+		return read(getFlatIndexByInt(i,j,k));
+	}
+
+	@Override
+	public void set(double value, int i, int j, int k) {
+		write(getFlatIndexByInt(i,j,k), value);
+	}
+
+	/**
+	 * Copies the values of this table into a dense array
+	 * 
+	 * @param values the array to fill, of size at least {@link Table#size() size()}
+	 */
+	void copyInto(double[] values) {
+		for (int i = 0; i < flatSize; i++)
+			values[i] = 0.0;
+		for (int slot = 0; slot < capacity(); slot++)
+			if (keyAt(slot) >= 0)
+				values[keyAt(slot)] = data[slot];
+	}
+
+	@Override
+	public DoubleSparseTable clone() {
+		DoubleSparseTable result = cloneStructure();
+		result.copy(this);
+		return result;
+	}
+
+	@Override
+	public DoubleSparseTable cloneStructure() {
+		DoubleSparseTable result = new DoubleSparseTable(getDimensioners());
+		return result;
+	}
+
+	/**
+	 * Clone this table and fills it with its argument
+	 * 
+	 * @param initialValue the value to fill the table with
+	 * @return the new table
+	 */
+	public DoubleSparseTable cloneStructure(double initialValue) {
+		DoubleSparseTable result = cloneStructure();
+		result.fillWith(initialValue);
+		return result;
+	}
+
+	/**
+	 * Fills the table with a value. Beware that a non-zero value occupies all cells, making
+	 * this table less memory-efficient than a {@link DoubleTable}.
+	 */
+	@Override
+	public DoubleSparseTable fillWith(double value) {
+		modified();
+		freeAll();
+		if (!isDefault(value))
+			for (int i = 0; i < flatSize; i++)
+				put(i, value);
+		return this;
+	}
+
+	@Override
+	public String elementToString(int flatIndex) {
+		return String.valueOf(read(flatIndex));
+	}
+
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(read(flatIndex));
+	}
+
+	// the binary form is the dense one, i.e. that of a DoubleTable
+	@Override
+	protected char binaryType() {
+		return 'D';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Double.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		for (int i = from; i < to; i++)
+			out.putDouble(read(i));
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		for (int i = from; i < to; i++)
+			write(i, in.getDouble());
+	}
+
+	@Override
+	public DoubleSparseTable clear() {
+		return fillWith(0.0);
+	}
+
+	@Override
+	public DoubleSparseTable fillWith(Object value) {
+		return fillWith(((Double) value).doubleValue());
+	}
+
+	/**
+	 * Copies the values of another table into this one.
+	 * 
+	 * @param from a {@link DoubleTable}, {@code DoubleBufferTable} or {@code DoubleSparseTable} with the
+	 * same dimensions as this table
+	 * @return this table
+	 * @throws IllegalArgumentException if the argument is of another type or has different
+	 * dimensions
+	 */
+	@Override
+	public DoubleSparseTable copy(Table from) {
+		checkSameDimensions(from);
+		if (from instanceof DoubleSparseTable) {
+			DoubleSparseTable st = (DoubleSparseTable) from;
+			freeAll();
+			for (int i = 0; i < st.capacity(); i++)
+				if (st.keyAt(i) >= 0)
+					put(st.keyAt(i), st.data[i]);
+		}
+		else if (from instanceof DoubleTable) {
+			DoubleTable dt = (DoubleTable) from;
+			freeAll();
+			for (int i = 0; i < flatSize; i++)
+				if (!isDefault(dt.data[i]))
+					put(i, dt.data[i]);
+		}
+		else if (from instanceof DoubleBufferTable) {
+			DoubleBufferTable bt = (DoubleBufferTable) from;
+			freeAll();
+			for (int i = 0; i < flatSize; i++)
+				if (!isDefault(bt.getWithFlatIndex(i)))
+					put(i, bt.getWithFlatIndex(i));
+		}
+		else
+			throw new IllegalArgumentException("DoubleSparseTable: cannot copy a "
+				+ from.getClass().getSimpleName());
+		modified();
+		return this;
+	}
+
+	@Override
+	public String elementClassName() {
+		return Double.class.getName();
+	}
+
+	@Override
+	public String elementSimpleClassName() {
+		return Double.class.getSimpleName();
+	}
+
+	@Override
+	public Class<?> contentType() {
+		return Double.class;
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
+	 * and item separators defined in {@link Table#getDefaultDelimiters()} 
+	 * and {@link Table#getDefaultSeparators()}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @return the new instance
+	 */
+	public static DoubleSparseTable valueOf(String value) {
+		return DoubleSparseTable.valueOf(value, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString toSaveableString(...)}. Only non-zero values are stored.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @return the new instance
+	 */
+	public static DoubleSparseTable valueOf(String value, char[][] bdel, char[] isep) {
+		TextReader reader = new TextReader(value, bdel, isep);
+		DoubleSparseTable result = new DoubleSparseTable(reader.dimensioners());
+		for (int i = 0; i < result.flatSize; i++) {
+			double d = reader.nextDouble();
+			if (!isDefault(d))
+				result.put(i, d);
+		}
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) {
+			final int prime = 31;
+			hash = super.hashCode();
+			// must not depend on the order of slots
+			int h = 0;
+			for (int slot = 0; slot < capacity(); slot++)
+				if (keyAt(slot) >= 0)
+					h += keyAt(slot) ^ Double.hashCode(data[slot]);
+			hash = prime * hash + h;
+		}
+		return hash;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (!(obj instanceof DoubleSparseTable))
+			return false;
+		DoubleSparseTable other = (DoubleSparseTable) obj;
+		if (occupiedCells() != other.occupiedCells())
+			return false;
+		for (PrimitiveIterator.OfInt it = occupiedIndexes(); it.hasNext(); ) {
+			int i = it.nextInt();
+			if (Double.compare(read(i), other.read(i)) != 0)
+				return false;
+		}
+		return true;
+	}
+
+}
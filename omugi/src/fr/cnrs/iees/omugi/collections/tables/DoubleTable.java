@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -63,6 +64,7 @@ public class DoubleTable extends TableAdapter {
 
 	@Override
 	public void setByInt(double value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -73,6 +75,7 @@ public class DoubleTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(double value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -83,9 +86,43 @@ public class DoubleTable extends TableAdapter {
 
 	@Override
 	public void set(double value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public double get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(double value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public double get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(double value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public double get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(double value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public DoubleTable clone() {
 		DoubleTable result = cloneStructure();
@@ -113,6 +150,7 @@ public class DoubleTable extends TableAdapter {
 
 	@Override
 	public DoubleTable fillWith(double value) {
+		modified();
 		for (int i = 0; i < data.length; i++)
 			data[i] = value;
 		return this;
@@ -123,6 +161,34 @@ public class DoubleTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'D';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Double.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.asDoubleBuffer().put(data, from, to - from);
+		out.position(out.position() + (to - from) * Double.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.asDoubleBuffer().get(data, from, to - from);
+		in.position(in.position() + (to - from) * Double.BYTES);
+	}
+
 	@Override
 	public DoubleTable clear() {
 		return fillWith(0.0);
@@ -135,7 +201,12 @@ public class DoubleTable extends TableAdapter {
 
 	@Override
 	public DoubleTable copy(Table from) {
-		if (Double.class.isAssignableFrom(from.contentType())) {
+		modified();
+		if (from instanceof DoubleBufferTable)
+			((DoubleBufferTable) from).copyInto(data);
+		else if (from instanceof DoubleSparseTable)
+			((DoubleSparseTable) from).copyInto(data);
+		else if (Double.class.isAssignableFrom(from.contentType())) {
 			DoubleTable dt = (DoubleTable) from;
 			for (int i = 0; i < data.length; i++)
 				data[i] = dt.data[i];
@@ -158,6 +229,216 @@ public class DoubleTable extends TableAdapter {
 		return Double.class;
 	}
 
+	// Bulk operations
+	// NB: these are plain loops over the data array, which the JIT compiler turns
+	// into SIMD instructions when possible.
+
+	/**
+	 * Adds another table to this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable add(DoubleTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] += other.data[i];
+		return this;
+	}
+
+	/**
+	 * Subtracts another table from this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable subtract(DoubleTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] -= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Multiplies this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable multiply(DoubleTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] *= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Divides this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable divide(DoubleTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] /= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Adds a value to all elements of this table.
+	 * 
+	 * @param value the value to add
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable add(double value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] += value;
+		return this;
+	}
+
+	/**
+	 * Multiplies all elements of this table by a value.
+	 * 
+	 * @param value the multiplier
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable multiply(double value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] *= value;
+		return this;
+	}
+
+	/**
+	 * Adds <em>a.x</em> to this table, element-wise (the BLAS <em>axpy</em> operation).
+	 * 
+	 * @param a the multiplier of <em>x</em>
+	 * @param x a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public DoubleTable axpy(double a, DoubleTable x) {
+		modified();
+		checkSameDimensions(x);
+		for (int i = 0; i < data.length; i++)
+			data[i] += a * x.data[i];
+		return this;
+	}
+
+	/**
+	 * @return the sum of all elements of this table
+	 */
+	public double sum() {
+		double result = 0;
+		for (int i = 0; i < data.length; i++)
+			result += data[i];
+		return result;
+	}
+
+	/**
+	 * @return the mean of all elements of this table
+	 */
+	public double mean() {
+		return sum() / data.length;
+	}
+
+	/**
+	 * @return the smallest element of this table
+	 */
+	public double min() {
+		double result = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < data.length; i++)
+			result = Math.min(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * @return the largest element of this table
+	 */
+	public double max() {
+		double result = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < data.length; i++)
+			result = Math.max(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * Sums this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to sum over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable sum(int dim) {
+		DoubleTable result = new DoubleTable(reducedDimensioners(dim));
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] += data[from + i];
+			}
+		return result;
+	}
+
+	/**
+	 * Averages this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to average over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable mean(int dim) {
+		return sum(dim).multiply(1.0 / size(dim));
+	}
+
+	/**
+	 * Computes the minimum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable min(int dim) {
+		DoubleTable result = new DoubleTable(reducedDimensioners(dim));
+		result.fillWith(Double.POSITIVE_INFINITY);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.min(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
+
+	/**
+	 * Computes the maximum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable max(int dim) {
+		DoubleTable result = new DoubleTable(reducedDimensioners(dim));
+		result.fillWith(Double.NEGATIVE_INFINITY);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.max(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
+
 	/**
 	 * Construct an instance from a {@code String} previously produced with 
 	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
@@ -181,19 +462,12 @@ public class DoubleTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static DoubleTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value, bdel[TABLEix]);
-		String d = ss.substring(0, ss.indexOf(bdel[DIMix][BLOCK_CLOSE]) + 1);
-		DoubleTable result = new DoubleTable(readDimensioners(d, bdel[DIMix], isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE]) + 1);
-		String s = null;
-		int i = 0;
-		while (ss.indexOf(isep[TABLEix]) > 0) {
-			s = ss.substring(0, ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix]) + 1);
-			result.data[i] = Double.valueOf(s);
-			i++;
-		}
-		result.data[i] = Double.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		DoubleTable result = new DoubleTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextDouble();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
@@ -0,0 +1,417 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A multidimensional table of {@code float}ing point numbers stored outside of the java heap, either in direct 
+ * buffers or in a memory-mapped file (cf. {@link BufferTable}).
+ * 
+ * @see FloatTable
+ */
+public class FloatBufferTable extends BufferTable {
+
+	// type code used in table files
+	private static final char TYPE = 'F';
+	
+	/** the table values, one buffer per segment */
+	protected FloatBuffer[] data;
+
+	/**
+	 * Constructor with dimensioners. The table is stored in direct buffers.
+	 * 
+	 * @param dimensions dimensioners
+	 */
+	public FloatBufferTable(Dimensioner... dimensions) {
+		super(Float.BYTES, dimensions);
+		setupData();
+	}
+
+	// constructor with 2^segmentShift values per segment (for tests)
+	FloatBufferTable(int segmentShift, Dimensioner... dimensions) {
+		super(Float.BYTES, segmentShift, dimensions);
+		setupData();
+	}
+
+	/**
+	 * Constructor with a memory-mapped file.
+	 * 
+	 * @param buffers the mapped buffers to store the table values in
+	 * @param dimensions dimensioners
+	 */
+	protected FloatBufferTable(MappedByteBuffer[] buffers, Dimensioner... dimensions) {
+		super(buffers, Float.BYTES, dimensions);
+		setupData();
+	}
+
+	private void setupData() {
+		data = new FloatBuffer[buffers.length];
+		for (int s = 0; s < buffers.length; s++)
+			data[s] = buffers[s].asFloatBuffer();
+	}
+
+	// read a cell
+	private float value(int flatIndex) {
+		return data[flatIndex >>> segmentShift].get(flatIndex & segmentMask);
+	}
+
+	// write a cell
+	private void store(int flatIndex, float value) {
+		data[flatIndex >>> segmentShift].put(flatIndex & segmentMask, value);
+	}
+
+	/**
+	 * Creates a new table stored in a memory-mapped file. If the file already exists, it is
+	 * overwritten.
+	 * 
+	 * @param file the file to store the table into
+	 * @param dimensions dimensioners
+	 * @return the new table, filled with zeros
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static FloatBufferTable map(Path file, Dimensioner... dimensions) throws IOException {
+		try (FileChannel channel = createFile(file)) {
+			writeHeader(channel, TYPE, dimensions);
+			return new FloatBufferTable(mapData(channel, Float.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/**
+	 * Reopens a table previously created with {@link FloatBufferTable#map(Path, Dimensioner...) map(...)}.
+	 * 
+	 * @param file the file where the table is stored
+	 * @return the table, with the values found in the file
+	 * @throws IOException if the file cannot be read or mapped
+	 * @throws IllegalArgumentException if the file is not a table file of the right type, or
+	 * is too short for the dimensions found in its header
+	 */
+	public static FloatBufferTable open(Path file) throws IOException {
+		try (FileChannel channel = openFile(file)) {
+			Dimensioner[] dimensions = readHeader(channel, TYPE, Float.BYTES);
+			return new FloatBufferTable(mapData(channel, Float.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public float getByInt(int... indexes) {
+		return value(getFlatIndexByInt(indexes));
+	}
+
+	@Override
+	public void setByInt(float value, int... indexes) {
+		modified();
+		store(getFlatIndexByInt(indexes), value);
+	}
+
+	/** get the value stored at flat <em>index</em>*/
+	public float getWithFlatIndex(int index) {
+		return value(index);
+	}
+
+	@Override
+	public void setWithFlatIndex(float value, int index) {
+		modified();
+		store(index, value);
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public float get(Object... indexes) {
+		return value(getFlatIndex(indexes));
+	}
+
+	@Override
+	public void set(float value, Object... indexes) {
+		modified();
+		store(getFlatIndex(indexes), value);
+	}
+
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public float get(int i) {
+		return value(getFlatIndexByInt(i));
+	}
+
+	@Override
+	public void set(float value, int i) {
+		modified();
+		store(getFlatIndexByInt(i), value);
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public float get(int i, int j) {
+		return value(getFlatIndexByInt(i,j));
+	}
+
+	@Override
+	public void set(float value, int i, int j) {
+		modified();
+		store(getFlatIndexByInt(i,j), value);
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public float get(int i, int j, int k) {
+		return value(getFlatIndexByInt(i,j,k));
+	}
+
+	@Override
+	public void set(float value, int i, int j, int k) {
+		modified();
+		store(getFlatIndexByInt(i,j,k), value);
+	}
+
+	/**
+	 * Copies the values of this table into a dense array
+	 * 
+	 * @param values the array to fill, of size at least {@link Table#size() size()}
+	 */
+	void copyInto(float[] values) {
+		for (int s = 0; s < data.length; s++)
+			data[s].duplicate().get(values, s << segmentShift, data[s].capacity());
+	}
+
+	/**
+	 * Copies this table into a new table stored in direct buffers (even if this table is
+	 * memory-mapped).
+	 */
+	@Override
+	public FloatBufferTable clone() {
+		FloatBufferTable result = cloneStructure();
+		result.copy(this);
+		return result;
+	}
+
+	@Override
+	public FloatBufferTable cloneStructure() {
+		FloatBufferTable result = new FloatBufferTable(getDimensioners());
+		return result;
+	}
+
+	/**
+	 * Clone this table and fills it with its argument
+	 * 
+	 * @param initialValue the value to fill the table with
+	 * @return the new table
+	 */
+	public FloatBufferTable cloneStructure(float initialValue) {
+		FloatBufferTable result = cloneStructure();
+		result.fillWith(initialValue);
+		return result;
+	}
+
+	@Override
+	public FloatBufferTable fillWith(float value) {
+		modified();
+		for (FloatBuffer segment:data)
+			for (int i = 0; i < segment.capacity(); i++)
+				segment.put(i, value);
+		return this;
+	}
+
+	@Override
+	public String elementToString(int flatIndex) {
+		return String.valueOf(value(flatIndex));
+	}
+
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(value(flatIndex));
+	}
+
+	@Override
+	protected char binaryType() {
+		return TYPE;
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Float.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		FloatBuffer values = out.asFloatBuffer();
+		for (int i = from; i < to; ) {
+			FloatBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			segment.limit(start + n).position(start);
+			values.put(segment);
+			i += n;
+		}
+		out.position(out.position() + (to - from) * Float.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		FloatBuffer values = in.asFloatBuffer();
+		for (int i = from; i < to; ) {
+			FloatBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			values.limit(values.position() + n);
+			segment.position(start);
+			segment.put(values);
+			i += n;
+		}
+		in.position(in.position() + (to - from) * Float.BYTES);
+	}
+
+	@Override
+	public FloatBufferTable clear() {
+		return fillWith(0.0f);
+	}
+
+	@Override
+	public FloatBufferTable fillWith(Object value) {
+		return fillWith(((Float) value).floatValue());
+	}
+
+	/**
+	 * Copies the values of another table into this one.
+	 * 
+	 * @param from a {@link FloatTable} or {@code FloatBufferTable} with the same dimensions
+	 * as this table
+	 * @return this table
+	 * @throws IllegalArgumentException if the argument is of another type or has different
+	 * dimensions
+	 */
+	@Override
+	public FloatBufferTable copy(Table from) {
+		checkSameDimensions(from);
+		if (from instanceof FloatTable) {
+			float[] values = ((FloatTable) from).data;
+			for (int s = 0; s < data.length; s++)
+				data[s].duplicate().put(values, s << segmentShift, data[s].capacity());
+		}
+		else if (from instanceof FloatBufferTable) {
+			FloatBufferTable bt = (FloatBufferTable) from;
+			if (bt.segmentShift == segmentShift)
+				for (int s = 0; s < data.length; s++)
+					data[s].duplicate().put(bt.data[s].duplicate());
+			else
+				for (int i = 0; i < flatSize; i++)
+					store(i, bt.value(i));
+		}
+		else
+			throw new IllegalArgumentException("FloatBufferTable: cannot copy a "
+				+ from.getClass().getSimpleName());
+		modified();
+		return this;
+	}
+
+	@Override
+	public String elementClassName() {
+		return Float.class.getName();
+	}
+
+	@Override
+	public String elementSimpleClassName() {
+		return Float.class.getSimpleName();
+	}
+
+	@Override
+	public Class<?> contentType() {
+		return Float.class;
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
+	 * and item separators defined in {@link Table#getDefaultDelimiters()} 
+	 * and {@link Table#getDefaultSeparators()}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static FloatBufferTable valueOf(String value) {
+		return FloatBufferTable.valueOf(value, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString toSaveableString(...)}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static FloatBufferTable valueOf(String value, char[][] bdel, char[] isep) {
+		TextReader reader = new TextReader(value, bdel, isep);
+		FloatBufferTable result = new FloatBufferTable(reader.dimensioners());
+		for (int i = 0; i < result.flatSize; i++)
+			result.store(i, reader.nextFloat());
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) {
+			final int prime = 31;
+			hash = super.hashCode();
+			int h = 1;
+			for (int i = 0; i < flatSize; i++)
+				h = prime * h + Float.hashCode(value(i));
+			hash = prime * hash + h;
+		}
+		return hash;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (!(obj instanceof FloatBufferTable))
+			return false;
+		FloatBufferTable other = (FloatBufferTable) obj;
+		for (int i = 0; i < flatSize; i++)
+			if (Float.compare(value(i), other.value(i)) != 0)
+				return false;
+		return true;
+	}
+
+}
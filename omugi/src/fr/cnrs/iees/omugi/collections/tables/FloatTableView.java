@@ -0,0 +1,97 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import au.edu.anu.omhtk.util.IntegerRange;
+
+/**
+ * <p>A {@link TableView} on a {@link FloatTable} with typed accessors. View indexes are translated 
+ * into flat indexes of the backing table, so values are read and written in place, e.g.:</p>
+ * <pre>
+ * FloatTableView view = new FloatTableView(table,"[1:3||0]");
+ * float x = view.getByInt(0,2,0);
+ * view.fillWith(0f);
+ * </pre>
+ */
+public class FloatTableView extends TableView<FloatTable> {
+
+	/**
+	 * Constructor from an index string (cf. {@link IndexString} for the syntax).
+	 * 
+	 * @param table the backing table
+	 * @param indexString the cells to select - e.g. {@code "[0;2:3||-1]"}
+	 */
+	public FloatTableView(FloatTable table, String indexString) {
+		super(table,indexString);
+	}
+
+	/**
+	 * Constructor from index ranges (bounds included).
+	 * 
+	 * @param table the backing table
+	 * @param ranges the range of indexes to select in every dimension
+	 */
+	public FloatTableView(FloatTable table, IntegerRange... ranges) {
+		super(table,ranges);
+	}
+
+	/** get the value stored at view <em>indexes</em> */
+	public float getByInt(int... indexes) {
+		return table().getWithFlatIndex(getFlatIndexByInt(indexes));
+	}
+
+	/** set <em>value</em> at view <em>indexes</em> */
+	public void setByInt(float value, int... indexes) {
+		table().setWithFlatIndex(value,getFlatIndexByInt(indexes));
+	}
+
+	/** get the value stored at flat index <em>viewIndex</em> of the view */
+	public float getWithViewIndex(int viewIndex) {
+		return table().getWithFlatIndex(getTableFlatIndex(viewIndex));
+	}
+
+	/** set <em>value</em> at flat index <em>viewIndex</em> of the view */
+	public void setWithViewIndex(float value, int viewIndex) {
+		table().setWithFlatIndex(value,getTableFlatIndex(viewIndex));
+	}
+
+	/**
+	 * Sets all the selected cells of the backing table to the same value.
+	 * 
+	 * @param value the value to set
+	 * @return this view
+	 */
+	public FloatTableView fillWith(float value) {
+		forEachFlatIndex(i->table().setWithFlatIndex(value,i));
+		return this;
+	}
+
+}
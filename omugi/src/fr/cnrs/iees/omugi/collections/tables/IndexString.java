@@ -203,6 +203,35 @@ public class IndexString {
 		return result;
 	}
 	
+	/**
+	 * Given a string index, returns the indices selected in each dimension. Contrary to 
+	 * {@link IndexString#stringToIndex(String, int...) stringToIndex(...)}, the size of the 
+	 * result is proportional to the sum, not the product, of the dimensions (cf. {@link TableView}).
+	 * 
+	 * @param indexString a String describing an index - e.g. {@code "[0;2:3|0;2|-1]"}
+	 * @param dim the dimensions of the table this string applies to  - e.g. {@code 4,4,2}
+	 * @return the sorted indices selected in every dimension - e.g. {@code [[0,2,3] [0,2] [0]]}
+	 */
+	public static int[][] dimensionIndices(String indexString, int...dim) {
+		int[][] result = new int[dim.length][];
+		if ((indexString==null)||(indexString.isEmpty())||(indexString.isBlank())) {
+			for (int i=0; i<dim.length; i++)
+				result[i] = extractDimIndices(i,"",dim[i]);
+		}
+		else {
+			String s = indexString.strip();
+			if (s.length() > 1)
+				s = s.substring(1,s.length()-1);
+			String[] ds = s.split(Pattern.quote(dimSep),-1);
+			if (ds.length != dim.length)
+				throw new IllegalArgumentException("Index string " + indexString
+					+ " has "+ ds.length +" dimensions but was expecting "+dim.length);
+			for (int i=0; i<ds.length; i++)
+				result[i] = extractDimIndices(i,ds[i],dim[i]);
+		}
+		return result;
+	}
+	
 	/**
 	 * This method converts a string describing an index range to a list of indices
 	 * usable by the {@linkplain Table} class and its descendants.
@@ -0,0 +1,422 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A multidimensional table of {@code int}egers stored outside of the java heap, either in direct 
+ * buffers or in a memory-mapped file (cf. {@link BufferTable}).
+ * 
+ * @see IntTable
+ */
+public class IntBufferTable extends BufferTable {
+
+	// type code used in table files
+	private static final char TYPE = 'I';
+	
+	/** the table values, one buffer per segment */
+	protected IntBuffer[] data;
+
+	/**
+	 * Constructor with dimensioners. The table is stored in direct buffers.
+	 * 
+	 * @param dimensions dimensioners
+	 */
+	public IntBufferTable(Dimensioner... dimensions) {
+		super(Integer.BYTES, dimensions);
+		setupData();
+	}
+
+	// constructor with 2^segmentShift values per segment (for tests)
+	IntBufferTable(int segmentShift, Dimensioner... dimensions) {
+		super(Integer.BYTES, segmentShift, dimensions);
+		setupData();
+	}
+
+	/**
+	 * Constructor with a memory-mapped file.
+	 * 
+	 * @param buffers the mapped buffers to store the table values in
+	 * @param dimensions dimensioners
+	 */
+	protected IntBufferTable(MappedByteBuffer[] buffers, Dimensioner... dimensions) {
+		super(buffers, Integer.BYTES, dimensions);
+		setupData();
+	}
+
+	private void setupData() {
+		data = new IntBuffer[buffers.length];
+		for (int s = 0; s < buffers.length; s++)
+			data[s] = buffers[s].asIntBuffer();
+	}
+
+	// read a cell
+	private int value(int flatIndex) {
+		return data[flatIndex >>> segmentShift].get(flatIndex & segmentMask);
+	}
+
+	// write a cell
+	private void store(int flatIndex, int value) {
+		data[flatIndex >>> segmentShift].put(flatIndex & segmentMask, value);
+	}
+
+	/**
+	 * Creates a new table stored in a memory-mapped file. If the file already exists, it is
+	 * overwritten.
+	 * 
+	 * @param file the file to store the table into
+	 * @param dimensions dimensioners
+	 * @return the new table, filled with zeros
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static IntBufferTable map(Path file, Dimensioner... dimensions) throws IOException {
+		try (FileChannel channel = createFile(file)) {
+			writeHeader(channel, TYPE, dimensions);
+			return new IntBufferTable(mapData(channel, Integer.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/**
+	 * Reopens a table previously created with {@link IntBufferTable#map(Path, Dimensioner...) map(...)}.
+	 * 
+	 * @param file the file where the table is stored
+	 * @return the table, with the values found in the file
+	 * @throws IOException if the file cannot be read or mapped
+	 * @throws IllegalArgumentException if the file is not a table file of the right type, or
+	 * is too short for the dimensions found in its header
+	 */
+	public static IntBufferTable open(Path file) throws IOException {
+		try (FileChannel channel = openFile(file)) {
+			Dimensioner[] dimensions = readHeader(channel, TYPE, Integer.BYTES);
+			return new IntBufferTable(mapData(channel, Integer.BYTES, dimensions), dimensions);
+		}
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public int getByInt(int... indexes) {
+		return value(getFlatIndexByInt(indexes));
+	}
+
+	@Override
+	public void setByInt(int value, int... indexes) {
+		modified();
+		store(getFlatIndexByInt(indexes), value);
+	}
+
+	/** get the value stored at flat <em>index</em>*/
+	public int getWithFlatIndex(int index) {
+		return value(index);
+	}
+
+	@Override
+	public void setWithFlatIndex(int value, int index) {
+		modified();
+		store(index, value);
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public int get(Object... indexes) {
+		return value(getFlatIndex(indexes));
+	}
+
+	@Override
+	public void set(int value, Object... indexes) {
+		modified();
+		store(getFlatIndex(indexes), value);
+	}
+
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public int get(int i) {
+		return value(getFlatIndexByInt(i));
+	}
+
+	@Override
+	public void set(int value, int i) {
+		modified();
+		store(getFlatIndexByInt(i), value);
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public int get(int i, int j) {
+		return value(getFlatIndexByInt(i,j));
+	}
+
+	@Override
+	public void set(int value, int i, int j) {
+		modified();
+		store(getFlatIndexByInt(i,j), value);
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public int get(int i, int j, int k) {
+		return value(getFlatIndexByInt(i,j,k));
+	}
+
+	@Override
+	public void set(int value, int i, int j, int k) {
+		modified();
+		store(getFlatIndexByInt(i,j,k), value);
+	}
+
+	/**
+	 * Copies the values of this table into a dense array
+	 * 
+	 * @param values the array to fill, of size at least {@link Table#size() size()}
+	 */
+	void copyInto(int[] values) {
+		for (int s = 0; s < data.length; s++)
+			data[s].duplicate().get(values, s << segmentShift, data[s].capacity());
+	}
+
+	/**
+	 * Copies this table into a new table stored in direct buffers (even if this table is
+	 * memory-mapped).
+	 */
+	@Override
+	public IntBufferTable clone() {
+		IntBufferTable result = cloneStructure();
+		result.copy(this);
+		return result;
+	}
+
+	@Override
+	public IntBufferTable cloneStructure() {
+		IntBufferTable result = new IntBufferTable(getDimensioners());
+		return result;
+	}
+
+	/**
+	 * Clone this table and fills it with its argument
+	 * 
+	 * @param initialValue the value to fill the table with
+	 * @return the new table
+	 */
+	public IntBufferTable cloneStructure(int initialValue) {
+		IntBufferTable result = cloneStructure();
+		result.fillWith(initialValue);
+		return result;
+	}
+
+	@Override
+	public IntBufferTable fillWith(int value) {
+		modified();
+		for (IntBuffer segment:data)
+			for (int i = 0; i < segment.capacity(); i++)
+				segment.put(i, value);
+		return this;
+	}
+
+	@Override
+	public String elementToString(int flatIndex) {
+		return String.valueOf(value(flatIndex));
+	}
+
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(value(flatIndex));
+	}
+
+	@Override
+	protected char binaryType() {
+		return TYPE;
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Integer.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		IntBuffer values = out.asIntBuffer();
+		for (int i = from; i < to; ) {
+			IntBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			segment.limit(start + n).position(start);
+			values.put(segment);
+			i += n;
+		}
+		out.position(out.position() + (to - from) * Integer.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		IntBuffer values = in.asIntBuffer();
+		for (int i = from; i < to; ) {
+			IntBuffer segment = data[i >>> segmentShift].duplicate();
+			int start = i & segmentMask;
+			int n = Math.min(to - i, segment.capacity() - start);
+			values.limit(values.position() + n);
+			segment.position(start);
+			segment.put(values);
+			i += n;
+		}
+		in.position(in.position() + (to - from) * Integer.BYTES);
+	}
+
+	@Override
+	public IntBufferTable clear() {
+		return fillWith(0);
+	}
+
+	@Override
+	public IntBufferTable fillWith(Object value) {
+		return fillWith(((Integer) value).intValue());
+	}
+
+	/**
+	 * Copies the values of another table into this one.
+	 * 
+	 * @param from a {@link IntTable}, {@code IntBufferTable} or {@code IntSparseTable} with the same dimensions
+	 * as this table
+	 * @return this table
+	 * @throws IllegalArgumentException if the argument is of another type or has different
+	 * dimensions
+	 */
+	@Override
+	public IntBufferTable copy(Table from) {
+		checkSameDimensions(from);
+		if (from instanceof IntTable) {
+			int[] values = ((IntTable) from).data;
+			for (int s = 0; s < data.length; s++)
+				data[s].duplicate().put(values, s << segmentShift, data[s].capacity());
+		}
+		else if (from instanceof IntBufferTable) {
+			IntBufferTable bt = (IntBufferTable) from;
+			if (bt.segmentShift == segmentShift)
+				for (int s = 0; s < data.length; s++)
+					data[s].duplicate().put(bt.data[s].duplicate());
+			else
+				for (int i = 0; i < flatSize; i++)
+					store(i, bt.value(i));
+		}
+		else if (from instanceof IntSparseTable) {
+			IntSparseTable st = (IntSparseTable) from;
+			for (int i = 0; i < flatSize; i++)
+				store(i, st.getWithFlatIndex(i));
+		}
+		else
+			throw new IllegalArgumentException("IntBufferTable: cannot copy a "
+				+ from.getClass().getSimpleName());
+		modified();
+		return this;
+	}
+
+	@Override
+	public String elementClassName() {
+		return Integer.class.getName();
+	}
+
+	@Override
+	public String elementSimpleClassName() {
+		return Integer.class.getSimpleName();
+	}
+
+	@Override
+	public Class<?> contentType() {
+		return Integer.class;
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
+	 * and item separators defined in {@link Table#getDefaultDelimiters()} 
+	 * and {@link Table#getDefaultSeparators()}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static IntBufferTable valueOf(String value) {
+		return IntBufferTable.valueOf(value, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString toSaveableString(...)}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @return the new instance, stored in direct buffers
+	 */
+	public static IntBufferTable valueOf(String value, char[][] bdel, char[] isep) {
+		TextReader reader = new TextReader(value, bdel, isep);
+		IntBufferTable result = new IntBufferTable(reader.dimensioners());
+		for (int i = 0; i < result.flatSize; i++)
+			result.store(i, reader.nextInt());
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) {
+			final int prime = 31;
+			hash = super.hashCode();
+			int h = 1;
+			for (int i = 0; i < flatSize; i++)
+				h = prime * h + value(i);
+			hash = prime * hash + h;
+		}
+		return hash;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (!(obj instanceof IntBufferTable))
+			return false;
+		IntBufferTable other = (IntBufferTable) obj;
+		for (int i = 0; i < flatSize; i++)
+			if (value(i) != other.value(i))
+				return false;
+		return true;
+	}
+
+}
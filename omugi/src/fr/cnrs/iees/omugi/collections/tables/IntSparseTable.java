@@ -0,0 +1,381 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.nio.ByteBuffer;
+import java.util.PrimitiveIterator;
+
+/**
+ * A multidimensional table of {@code int} integers where only non-zero
+ * values are stored (cf. {@link SparseTable}). Saves to the same text format as {@link IntTable}.
+ * 
+ * @see IntTable
+ */
+public class IntSparseTable extends SparseTable {
+
+	// values of occupied cells, indexed by slot
+	protected int[] data;
+
+	/**
+	 * Constructor with dimensioners. The table is initially filled with zeros.
+	 * 
+	 * @param dimensions dimensioners
+	 */
+	public IntSparseTable(Dimensioner... dimensions) {
+		super(dimensions);
+		data = new int[capacity()];
+	}
+
+	@Override
+	protected void moveValue(int from, int to) {
+		data[to] = data[from];
+	}
+
+	@Override
+	protected void rehashValues(int[] slots, int capacity) {
+		int[] values = new int[capacity];
+		for (int i = 0; i < slots.length; i++)
+			if (slots[i] >= 0)
+				values[slots[i]] = data[i];
+		data = values;
+	}
+
+	// read a cell
+	private int read(int flatIndex) {
+		int slot = slotOf(flatIndex);
+		return slot < 0 ? 0 : data[slot];
+	}
+
+	// write a cell - zero values are not stored
+	private void write(int flatIndex, int value) {
+		modified();
+		if (value == 0) {
+			int slot = slotOf(flatIndex);
+			if (slot >= 0)
+				free(slot);
+		}
+		else
+			put(flatIndex, value);
+	}
+
+	// store a non-zero value (NB occupy() may reallocate data)
+	private void put(int flatIndex, int value) {
+		int slot = occupy(flatIndex);
+		data[slot] = value;
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public int getByInt(int... indexes) {
+		return read(getFlatIndexByInt(indexes));
+	}
+
+	@Override
+	public void setByInt(int value, int... indexes) {
+		write(getFlatIndexByInt(indexes), value);
+	}
+
+	/** get the value stored at flat <em>index</em>*/
+	public int getWithFlatIndex(int index) {
+		return read(index);
+	}
+
+	@Override
+	public void setWithFlatIndex(int value, int index) {
+		write(index, value);
+	}
+
+	/** get the value stored at <em>indexes</em>*/
+	public int get(Object... indexes) {
+		return read(getFlatIndex(indexes));
+	}
+
+	@Override
+	public void set(int value, Object... indexes) {
+		write(getFlatIndex(indexes), value);
+	}
+
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public int get(int i) {
+		return read(getFlatIndexByInt(i));
+	}
+
+	@Override
+	public void set(int value, int i) {
+		write(getFlatIndexByInt(i), value);
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public int get(int i, int j) {
+		return read(getFlatIndexByInt(i,j));
+	}
+
+	@Override
+	public void set(int value, int i, int j) {
+		write(getFlatIndexByInt(i,j), value);
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public int get(int i, int j, int k) {
+		return read(getFlatIndexByInt(i,j,k));
+	}
+
+	@Override
+	public void set(int value, int i, int j, int k) {
+		write(getFlatIndexByInt(i,j,k), value);
+	}
+
+	/**
+	 * Copies the values of this table into a dense array
+	 * 
+	 * @param values the array to fill, of size at least {@link Table#size() size()}
+	 */
+	void copyInto(int[] values) {
+		for (int i = 0; i < flatSize; i++)
+			values[i] = 0;
+		for (int slot = 0; slot < capacity(); slot++)
+			if (keyAt(slot) >= 0)
+				values[keyAt(slot)] = data[slot];
+	}
+
+	@Override
+	public IntSparseTable clone() {
+		IntSparseTable result = cloneStructure();
+		result.copy(this);
+		return result;
+	}
+
+	@Override
+	public IntSparseTable cloneStructure() {
+		IntSparseTable result = new IntSparseTable(getDimensioners());
+		return result;
+	}
+
+	/**
+	 * Clone this table and fills it with its argument
+	 * 
+	 * @param initialValue the value to fill the table with
+	 * @return the new table
+	 */
+	public IntSparseTable cloneStructure(int initialValue) {
+		IntSparseTable result = cloneStructure();
+		result.fillWith(initialValue);
+		return result;
+	}
+
+	/**
+	 * Fills the table with a value. Beware that a non-zero value occupies all cells, making
+	 * this table less memory-efficient than a {@link IntTable}.
+	 */
+	@Override
+	public IntSparseTable fillWith(int value) {
+		modified();
+		freeAll();
+		if (value != 0)
+			for (int i = 0; i < flatSize; i++)
+				put(i, value);
+		return this;
+	}
+
+	@Override
+	public String elementToString(int flatIndex) {
+		return String.valueOf(read(flatIndex));
+	}
+
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(read(flatIndex));
+	}
+
+	// the binary form is the dense one, i.e. that of a IntTable
+	@Override
+	protected char binaryType() {
+		return 'I';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Integer.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		for (int i = from; i < to; i++)
+			out.putInt(read(i));
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		for (int i = from; i < to; i++)
+			write(i, in.getInt());
+	}
+
+	@Override
+	public IntSparseTable clear() {
+		return fillWith(0);
+	}
+
+	@Override
+	public IntSparseTable fillWith(Object value) {
+		return fillWith(((Integer) value).intValue());
+	}
+
+	/**
+	 * Copies the values of another table into this one.
+	 * 
+	 * @param from a {@link IntTable}, {@code IntBufferTable} or {@code IntSparseTable} with the
+	 * same dimensions as this table
+	 * @return this table
+	 * @throws IllegalArgumentException if the argument is of another type or has different
+	 * dimensions
+	 */
+	@Override
+	public IntSparseTable copy(Table from) {
+		checkSameDimensions(from);
+		if (from instanceof IntSparseTable) {
+			IntSparseTable st = (IntSparseTable) from;
+			freeAll();
+			for (int i = 0; i < st.capacity(); i++)
+				if (st.keyAt(i) >= 0)
+					put(st.keyAt(i), st.data[i]);
+		}
+		else if (from instanceof IntTable) {
+			IntTable dt = (IntTable) from;
+			freeAll();
+			for (int i = 0; i < flatSize; i++)
+				if (dt.data[i] != 0)
+					put(i, dt.data[i]);
+		}
+		else if (from instanceof IntBufferTable) {
+			IntBufferTable bt = (IntBufferTable) from;
+			freeAll();
+			for (int i = 0; i < flatSize; i++)
+				if (bt.getWithFlatIndex(i) != 0)
+					put(i, bt.getWithFlatIndex(i));
+		}
+		else
+			throw new IllegalArgumentException("IntSparseTable: cannot copy a "
+				+ from.getClass().getSimpleName());
+		modified();
+		return this;
+	}
+
+	@Override
+	public String elementClassName() {
+		return Integer.class.getName();
+	}
+
+	@Override
+	public String elementSimpleClassName() {
+		return Integer.class.getSimpleName();
+	}
+
+	@Override
+	public Class<?> contentType() {
+		return Integer.class;
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
+	 * and item separators defined in {@link Table#getDefaultDelimiters()} 
+	 * and {@link Table#getDefaultSeparators()}.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @return the new instance
+	 */
+	public static IntSparseTable valueOf(String value) {
+		return IntSparseTable.valueOf(value, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+	}
+
+	/**
+	 * Construct an instance from a {@code String} previously produced with 
+	 * {@link TableAdapter#toSaveableString toSaveableString(...)}. Only non-zero values are stored.
+	 * 
+	 * @param value the {@code String} to read data from
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @return the new instance
+	 */
+	public static IntSparseTable valueOf(String value, char[][] bdel, char[] isep) {
+		TextReader reader = new TextReader(value, bdel, isep);
+		IntSparseTable result = new IntSparseTable(reader.dimensioners());
+		for (int i = 0; i < result.flatSize; i++) {
+			int d = reader.nextInt();
+			if (d != 0)
+				result.put(i, d);
+		}
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) {
+			final int prime = 31;
+			hash = super.hashCode();
+			// must not depend on the order of slots
+			int h = 0;
+			for (int slot = 0; slot < capacity(); slot++)
+				if (keyAt(slot) >= 0)
+					h += keyAt(slot) ^ Integer.hashCode(data[slot]);
+			hash = prime * hash + h;
+		}
+		return hash;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (!(obj instanceof IntSparseTable))
+			return false;
+		IntSparseTable other = (IntSparseTable) obj;
+		if (occupiedCells() != other.occupiedCells())
+			return false;
+		for (PrimitiveIterator.OfInt it = occupiedIndexes(); it.hasNext(); ) {
+			int i = it.nextInt();
+			if (Integer.compare(read(i), other.read(i)) != 0)
+				return false;
+		}
+		return true;
+	}
+
+}
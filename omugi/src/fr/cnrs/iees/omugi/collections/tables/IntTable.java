@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -62,6 +63,7 @@ public class IntTable extends TableAdapter {
 
 	@Override
 	public void setByInt(int value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -72,6 +74,7 @@ public class IntTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(int value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -82,9 +85,43 @@ public class IntTable extends TableAdapter {
 
 	@Override
 	public void set(int value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public int get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(int value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public int get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(int value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public int get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(int value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public IntTable clone() {
 		IntTable result = cloneStructure();
@@ -112,6 +149,7 @@ public class IntTable extends TableAdapter {
 	
 	@Override
 	public IntTable fillWith(int value) {
+		modified();
 		Arrays.fill(data, value);
 		return this;
 	}
@@ -121,6 +159,34 @@ public class IntTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'I';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Integer.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.asIntBuffer().put(data, from, to - from);
+		out.position(out.position() + (to - from) * Integer.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.asIntBuffer().get(data, from, to - from);
+		in.position(in.position() + (to - from) * Integer.BYTES);
+	}
+
 	@Override
 	public IntTable clear() {
 		return fillWith(0);
@@ -133,7 +199,12 @@ public class IntTable extends TableAdapter {
 
 	@Override
 	public IntTable copy(Table from) {
-		if (Integer.class.isAssignableFrom(from.contentType())) {
+		modified();
+		if (from instanceof IntBufferTable)
+			((IntBufferTable) from).copyInto(data);
+		else if (from instanceof IntSparseTable)
+			((IntSparseTable) from).copyInto(data);
+		else if (Integer.class.isAssignableFrom(from.contentType())) {
 			IntTable it = (IntTable)from;
 			for (int i=0; i<data.length; i++)
 				data[i] = it.data[i];
@@ -155,6 +226,228 @@ public class IntTable extends TableAdapter {
 	public Class<?> contentType() {
 		return Integer.class;
 	}
+
+	// Bulk operations
+	// NB: these are plain loops over the data array, which the JIT compiler turns
+	// into SIMD instructions when possible.
+
+	/**
+	 * Adds another table to this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public IntTable add(IntTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] += other.data[i];
+		return this;
+	}
+
+	/**
+	 * Subtracts another table from this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public IntTable subtract(IntTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] -= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Multiplies this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public IntTable multiply(IntTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] *= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Divides this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public IntTable divide(IntTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] /= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Adds a value to all elements of this table.
+	 * 
+	 * @param value the value to add
+	 * @return this instance for agile programming
+	 */
+	public IntTable add(int value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] += value;
+		return this;
+	}
+
+	/**
+	 * Multiplies all elements of this table by a value.
+	 * 
+	 * @param value the multiplier
+	 * @return this instance for agile programming
+	 */
+	public IntTable multiply(int value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] *= value;
+		return this;
+	}
+
+	/**
+	 * Adds <em>a.x</em> to this table, element-wise (the BLAS <em>axpy</em> operation).
+	 * 
+	 * @param a the multiplier of <em>x</em>
+	 * @param x a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public IntTable axpy(int a, IntTable x) {
+		modified();
+		checkSameDimensions(x);
+		for (int i = 0; i < data.length; i++)
+			data[i] += a * x.data[i];
+		return this;
+	}
+
+	/**
+	 * @return the sum of all elements of this table
+	 */
+	public long sum() {
+		long result = 0;
+		for (int i = 0; i < data.length; i++)
+			result += data[i];
+		return result;
+	}
+
+	/**
+	 * @return the mean of all elements of this table
+	 */
+	public double mean() {
+		return sum() / data.length;
+	}
+
+	/**
+	 * @return the smallest element of this table
+	 */
+	public int min() {
+		int result = Integer.MAX_VALUE;
+		for (int i = 0; i < data.length; i++)
+			result = Math.min(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * @return the largest element of this table
+	 */
+	public int max() {
+		int result = Integer.MIN_VALUE;
+		for (int i = 0; i < data.length; i++)
+			result = Math.max(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * Sums this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to sum over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public LongTable sum(int dim) {
+		LongTable result = new LongTable(reducedDimensioners(dim));
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] += data[from + i];
+			}
+		return result;
+	}
+
+	/**
+	 * Averages this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to average over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable mean(int dim) {
+		DoubleTable result = new DoubleTable(reducedDimensioners(dim));
+		if (data.length == 0) { // some dimension is empty: the mean is undefined, as in mean()
+			result.fillWith(Double.NaN);
+			return result;
+		}
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] += data[from + i];
+			}
+		return result.multiply(1.0 / n);
+	}
+
+	/**
+	 * Computes the minimum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public IntTable min(int dim) {
+		IntTable result = new IntTable(reducedDimensioners(dim));
+		result.fillWith(Integer.MAX_VALUE);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.min(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
+
+	/**
+	 * Computes the maximum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public IntTable max(int dim) {
+		IntTable result = new IntTable(reducedDimensioners(dim));
+		result.fillWith(Integer.MIN_VALUE);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.max(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
 	
 	/**
 	 * Construct an instance from a {@code String} previously produced with 
@@ -179,19 +472,12 @@ public class IntTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static IntTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1);
-		IntTable result = new IntTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = Integer.valueOf(s);
-			i++;
-		}
-		result.data[i] = Integer.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		IntTable result = new IntTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextInt();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -62,6 +63,7 @@ public class LongTable extends TableAdapter {
 
 	@Override
 	public void setByInt(long value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -72,6 +74,7 @@ public class LongTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(long value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -82,9 +85,43 @@ public class LongTable extends TableAdapter {
 
 	@Override
 	public void set(long value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public long get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(long value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public long get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(long value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public long get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(long value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public LongTable clone() {
 		LongTable result = cloneStructure();
@@ -112,6 +149,7 @@ public class LongTable extends TableAdapter {
 	
 	@Override
 	public LongTable fillWith(long value) {
+		modified();
 		for (int i=0; i<data.length; i++)
 			data[i] = value;
 		return this;
@@ -122,6 +160,34 @@ public class LongTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'J';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Long.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.asLongBuffer().put(data, from, to - from);
+		out.position(out.position() + (to - from) * Long.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.asLongBuffer().get(data, from, to - from);
+		in.position(in.position() + (to - from) * Long.BYTES);
+	}
+
 	@Override
 	public LongTable clear() {
 		return fillWith(0L);
@@ -134,7 +200,10 @@ public class LongTable extends TableAdapter {
 
 	@Override
 	public LongTable copy(Table from) {
-		if (Long.class.isAssignableFrom(from.contentType())) {
+		modified();
+		if (from instanceof LongBufferTable)
+			((LongBufferTable) from).copyInto(data);
+		else if (Long.class.isAssignableFrom(from.contentType())) {
 			LongTable lt = (LongTable)from;
 			for (int i=0; i<data.length; i++)
 				data[i] = lt.data[i];
@@ -157,6 +226,228 @@ public class LongTable extends TableAdapter {
 		return Long.class;
 	}
 
+	// Bulk operations
+	// NB: these are plain loops over the data array, which the JIT compiler turns
+	// into SIMD instructions when possible.
+
+	/**
+	 * Adds another table to this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public LongTable add(LongTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] += other.data[i];
+		return this;
+	}
+
+	/**
+	 * Subtracts another table from this one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public LongTable subtract(LongTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] -= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Multiplies this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public LongTable multiply(LongTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] *= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Divides this table by another one, element-wise.
+	 * 
+	 * @param other a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public LongTable divide(LongTable other) {
+		modified();
+		checkSameDimensions(other);
+		for (int i = 0; i < data.length; i++)
+			data[i] /= other.data[i];
+		return this;
+	}
+
+	/**
+	 * Adds a value to all elements of this table.
+	 * 
+	 * @param value the value to add
+	 * @return this instance for agile programming
+	 */
+	public LongTable add(long value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] += value;
+		return this;
+	}
+
+	/**
+	 * Multiplies all elements of this table by a value.
+	 * 
+	 * @param value the multiplier
+	 * @return this instance for agile programming
+	 */
+	public LongTable multiply(long value) {
+		modified();
+		for (int i = 0; i < data.length; i++)
+			data[i] *= value;
+		return this;
+	}
+
+	/**
+	 * Adds <em>a.x</em> to this table, element-wise (the BLAS <em>axpy</em> operation).
+	 * 
+	 * @param a the multiplier of <em>x</em>
+	 * @param x a table with the same dimensions as this one
+	 * @return this instance for agile programming
+	 */
+	public LongTable axpy(long a, LongTable x) {
+		modified();
+		checkSameDimensions(x);
+		for (int i = 0; i < data.length; i++)
+			data[i] += a * x.data[i];
+		return this;
+	}
+
+	/**
+	 * @return the sum of all elements of this table
+	 */
+	public long sum() {
+		long result = 0;
+		for (int i = 0; i < data.length; i++)
+			result += data[i];
+		return result;
+	}
+
+	/**
+	 * @return the mean of all elements of this table
+	 */
+	public double mean() {
+		return sum() / data.length;
+	}
+
+	/**
+	 * @return the smallest element of this table
+	 */
+	public long min() {
+		long result = Long.MAX_VALUE;
+		for (int i = 0; i < data.length; i++)
+			result = Math.min(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * @return the largest element of this table
+	 */
+	public long max() {
+		long result = Long.MIN_VALUE;
+		for (int i = 0; i < data.length; i++)
+			result = Math.max(result, data[i]);
+		return result;
+	}
+
+	/**
+	 * Sums this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to sum over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public LongTable sum(int dim) {
+		LongTable result = new LongTable(reducedDimensioners(dim));
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] += data[from + i];
+			}
+		return result;
+	}
+
+	/**
+	 * Averages this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to average over
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public DoubleTable mean(int dim) {
+		DoubleTable result = new DoubleTable(reducedDimensioners(dim));
+		if (data.length == 0) { // some dimension is empty: the mean is undefined, as in mean()
+			result.fillWith(Double.NaN);
+			return result;
+		}
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] += data[from + i];
+			}
+		return result.multiply(1.0 / n);
+	}
+
+	/**
+	 * Computes the minimum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public LongTable min(int dim) {
+		LongTable result = new LongTable(reducedDimensioners(dim));
+		result.fillWith(Long.MAX_VALUE);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.min(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
+
+	/**
+	 * Computes the maximum of this table along one dimension.
+	 * 
+	 * @param dim the index of the dimension to search
+	 * @return a table with all the dimensions of this one except <em>dim</em>
+	 */
+	public LongTable max(int dim) {
+		LongTable result = new LongTable(reducedDimensioners(dim));
+		result.fillWith(Long.MIN_VALUE);
+		if (data.length == 0) // some dimension is empty, nothing to reduce
+			return result;
+		int n = size(dim), inner = stride(dim), outer = data.length / (n * inner);
+		for (int o = 0; o < outer; o++)
+			for (int k = 0; k < n; k++) {
+				int from = (o * n + k) * inner, to = o * inner;
+				for (int i = 0; i < inner; i++)
+					result.data[to + i] = Math.max(result.data[to + i], data[from + i]);
+			}
+		return result;
+	}
+
 	/**
 	 * Construct an instance from a {@code String} previously produced with 
 	 * {@link TableAdapter#toSaveableString() toSaveableString()}. Uses the default block delimiters
@@ -180,19 +471,12 @@ public class LongTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static LongTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1);
-		LongTable result = new LongTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = Long.valueOf(s);
-			i++;
-		}
-		result.data[i] = Long.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		LongTable result = new LongTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextLong();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
@@ -70,6 +70,7 @@ public class ObjectTable<T> extends TableAdapter {
 
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public void setByInt(T value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -80,6 +81,7 @@ public class ObjectTable<T> extends TableAdapter {
 
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public void set(T value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
@@ -90,6 +92,7 @@ public class ObjectTable<T> extends TableAdapter {
 
 	/** set <em>value</em> at cell specified by flat <em>index</em> */
 	public void setWithFlatIndex(T value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -121,6 +124,7 @@ public class ObjectTable<T> extends TableAdapter {
 	@SuppressWarnings("unchecked")
 	@Override
 	public ObjectTable<T> fillWith(Object value) {
+		modified();
 		Arrays.fill(data, (T)value);
 		return this;
 	}
@@ -141,6 +145,7 @@ public class ObjectTable<T> extends TableAdapter {
 	@SuppressWarnings("unchecked")
 	@Override
 	public ObjectTable<T> copy(Table from) {
+		modified();
 		if (contentType()==null || contentType().isAssignableFrom(from.contentType())) {
 			ObjectTable<T> ot = (ObjectTable<T>)from;
 			for (int i=0; i<data.length; i++)
@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -63,6 +64,7 @@ public class ShortTable extends TableAdapter {
 
 	@Override
 	public void setByInt(short value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -73,6 +75,7 @@ public class ShortTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(short value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -83,9 +86,43 @@ public class ShortTable extends TableAdapter {
 
 	@Override
 	public void set(short value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
+	/** get the value stored at <em>i</em> (1-dimensional tables only)*/
+	public short get(int i) {
+		return data[getFlatIndexByInt(i)];
+	}
+
+	@Override
+	public void set(short value, int i) {
+		modified();
+		data[getFlatIndexByInt(i)] = value;
+	}
+
+	/** get the value stored at <em>i,j</em> (2-dimensional tables only)*/
+	public short get(int i, int j) {
+		return data[getFlatIndexByInt(i,j)];
+	}
+
+	@Override
+	public void set(short value, int i, int j) {
+		modified();
+		data[getFlatIndexByInt(i,j)] = value;
+	}
+
+	/** get the value stored at <em>i,j,k</em> (3-dimensional tables only)*/
+	public short get(int i, int j, int k) {
+		return data[getFlatIndexByInt(i,j,k)];
+	}
+
+	@Override
+	public void set(short value, int i, int j, int k) {
+		modified();
+		data[getFlatIndexByInt(i,j,k)] = value;
+	}
+
 	@Override
 	public ShortTable clone() {
 		ShortTable result = cloneStructure();
@@ -118,6 +155,7 @@ public class ShortTable extends TableAdapter {
 
 	@Override
 	public ShortTable fillWith(short value) {
+		modified();
 		Arrays.fill(data, value);
 		return this;
 	}
@@ -127,6 +165,34 @@ public class ShortTable extends TableAdapter {
 		return String.valueOf(data[flatIndex]);
 	}
 
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(data[flatIndex]);
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'S';
+	}
+
+	@Override
+	protected int binaryElementSize() {
+		return Short.BYTES;
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		out.asShortBuffer().put(data, from, to - from);
+		out.position(out.position() + (to - from) * Short.BYTES);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		in.asShortBuffer().get(data, from, to - from);
+		in.position(in.position() + (to - from) * Short.BYTES);
+	}
+
 	@Override
 	public ShortTable clear() {
 		short s = 0;
@@ -136,6 +202,7 @@ public class ShortTable extends TableAdapter {
 
 	@Override
 	public ShortTable copy(Table from) {
+		modified();
 		if (Short.class.isAssignableFrom(from.contentType())) {
 			ShortTable st = (ShortTable) from;
 			for (int i=0; i<data.length; i++)
@@ -182,19 +249,12 @@ public class ShortTable extends TableAdapter {
 	 * @return the new instance
 	 */
 	public static ShortTable valueOf(String value, char[][] bdel, char[] isep) {
-		String ss = TableAdapter.getBlockContent(value,bdel[TABLEix]);
-		String d = ss.substring(0,ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1);
-		ShortTable result = new ShortTable(readDimensioners(d,bdel[DIMix],isep[DIMix]));
-		ss = ss.substring(ss.indexOf(bdel[DIMix][BLOCK_CLOSE])+1); 
-		String s = null;
-		int i=0;
-		while (ss.indexOf(isep[TABLEix])>0) {
-			s = ss.substring(0,ss.indexOf(isep[TABLEix]));
-			ss = ss.substring(ss.indexOf(isep[TABLEix])+1);
-			result.data[i] = Short.valueOf(s);
-			i++;
-		}
-		result.data[i] = Short.valueOf(ss);
+		TextReader reader = new TextReader(value, bdel, isep);
+		ShortTable result = new ShortTable(reader.dimensioners());
+		for (int i = 0; i < result.data.length; i++)
+			result.data[i] = reader.nextShort();
+		if (reader.hasNext())
+			throw new IllegalArgumentException("valueOf: too many values in input String");
 		return result;
 	}
 
@@ -0,0 +1,238 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>Abstract ancestor of <em>sparse</em> tables, i.e. tables which only store the cells which
+ * do not contain the default value (zero). Memory use is proportional to the number of 
+ * such <em>occupied</em> cells, not to the size of the table.</p>
+ * 
+ * <p>Occupied cells are found through an open-addressing hash table of their flat indexes
+ * (no boxing). Descendants store the cell values in a primitive array parallel to the
+ * array of flat indexes, and must move them as requested by this class.</p>
+ * 
+ * <p>Apart from that, sparse tables behave exactly as their dense counterparts: they 
+ * accept the same accessors and save to the same text format.</p>
+ */
+public abstract class SparseTable extends TableAdapter {
+
+	// marks an empty slot in keys
+	private static final int EMPTY = -1;
+	private static final int INITIAL_CAPACITY = 16;
+
+	// the flat indexes of occupied cells (or EMPTY), indexed by slot
+	private int[] keys;
+	// the number of occupied cells
+	private int occupied = 0;
+	
+	/**
+	 * Constructor with dimensioners
+	 * 
+	 * @param dimensioners dimensioners
+	 */
+	protected SparseTable(Dimensioner... dimensioners) {
+		super(dimensioners);
+		keys = emptyKeys(INITIAL_CAPACITY);
+	}
+	
+	private static int[] emptyKeys(int capacity) {
+		int[] result = new int[capacity];
+		Arrays.fill(result,EMPTY);
+		return result;
+	}
+	
+	// the preferred slot of a flat index
+	private int home(int flatIndex) {
+		int h = flatIndex * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (keys.length-1);
+	}
+
+	/**
+	 * @return the current number of slots (= size of the value array needed by descendants)
+	 */
+	protected final int capacity() {
+		return keys.length;
+	}
+	
+	/**
+	 * Searches the slot of a cell.
+	 * 
+	 * @param flatIndex the flat index of the cell
+	 * @return the slot where the cell value is stored, -1 if the cell is not occupied
+	 */
+	protected final int slotOf(int flatIndex) {
+		int mask = keys.length-1;
+		for (int slot = home(flatIndex); keys[slot]!=EMPTY; slot = (slot+1) & mask)
+			if (keys[slot]==flatIndex)
+				return slot;
+		return -1;
+	}
+	
+	/**
+	 * Searches the slot of a cell, and occupies it if it was not.
+	 * 
+	 * @param flatIndex the flat index of the cell
+	 * @return the slot where the cell value is stored
+	 */
+	protected final int occupy(int flatIndex) {
+		if (flatIndex<0 || flatIndex>=flatSize)
+			throw new ArrayIndexOutOfBoundsException(flatIndex);
+		// keep the load factor under 3/4
+		if (4*(occupied+1)>3*keys.length)
+			rehash(2*keys.length);
+		int mask = keys.length-1;
+		int slot = home(flatIndex);
+		for (; keys[slot]!=EMPTY; slot = (slot+1) & mask)
+			if (keys[slot]==flatIndex)
+				return slot;
+		keys[slot] = flatIndex;
+		occupied++;
+		return slot;
+	}
+	
+	/**
+	 * Frees a slot, i.e. resets the matching cell to the default value. Other cells may be
+	 * moved to another slot (cf. {@link SparseTable#moveValue(int, int) moveValue(...)}).
+	 * 
+	 * @param slot the slot to free
+	 */
+	protected final void free(int slot) {
+		int mask = keys.length-1;
+		int hole = slot;
+		// backward shift of the following cells, so that no search is broken
+		for (int next = (hole+1) & mask; keys[next]!=EMPTY; next = (next+1) & mask) {
+			int home = home(keys[next]);
+			if (((next-home) & mask) >= ((next-hole) & mask)) {
+				keys[hole] = keys[next];
+				moveValue(next,hole);
+				hole = next;
+			}
+		}
+		keys[hole] = EMPTY;
+		occupied--;
+	}
+	
+	/**
+	 * Frees all slots.
+	 */
+	protected final void freeAll() {
+		keys = emptyKeys(INITIAL_CAPACITY);
+		occupied = 0;
+		rehashValues(new int[0],INITIAL_CAPACITY);
+	}
+	
+	// resizes the hash table
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		keys = emptyKeys(capacity);
+		int mask = capacity-1;
+		int[] slots = new int[oldKeys.length];
+		for (int i=0; i<oldKeys.length; i++)
+			if (oldKeys[i]==EMPTY)
+				slots[i] = -1;
+			else {
+				int slot = home(oldKeys[i]);
+				while (keys[slot]!=EMPTY)
+					slot = (slot+1) & mask;
+				keys[slot] = oldKeys[i];
+				slots[i] = slot;
+			}
+		rehashValues(slots,capacity);
+	}
+
+	/**
+	 * Moves a value from one slot to another one.
+	 * 
+	 * @param from the slot to read the value from
+	 * @param to the slot to write the value to
+	 */
+	protected abstract void moveValue(int from, int to);
+	
+	/**
+	 * Replaces the value array with a new one, the value in slot <em>i</em> of the old array
+	 * going to slot <em>slots[i]</em> of the new one (if slots[i]&ge;0).
+	 * 
+	 * @param slots the new slot of each old slot 
+	 * @param capacity the size of the new value array
+	 */
+	protected abstract void rehashValues(int[] slots, int capacity);
+
+	/**
+	 * @return the number of cells which do not contain the default value
+	 */
+	public final int occupiedCells() {
+		return occupied;
+	}
+	
+	/**
+	 * Iterates over the flat indexes of the cells which do not contain the default value, in 
+	 * no particular order. Do not modify the table while iterating.
+	 * 
+	 * @return an iterator over flat indexes
+	 */
+	public final PrimitiveIterator.OfInt occupiedIndexes() {
+		return new PrimitiveIterator.OfInt() {
+			private int slot = nextSlot(0);
+			private int nextSlot(int from) {
+				while ((from<keys.length) && (keys[from]==EMPTY))
+					from++;
+				return from;
+			}
+			@Override
+			public boolean hasNext() {
+				return slot<keys.length;
+			}
+			@Override
+			public int nextInt() {
+				if (slot>=keys.length)
+					throw new NoSuchElementException();
+				int result = keys[slot];
+				slot = nextSlot(slot+1);
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Utility for descendants: the flat index of the cell stored in a slot
+	 * 
+	 * @param slot the slot
+	 * @return the flat index, -1 if the slot is empty
+	 */
+	protected final int keyAt(int slot) {
+		return keys[slot];
+	}
+
+}
@@ -30,6 +30,7 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.google.common.base.Strings;
@@ -88,6 +89,43 @@ public class StringTable extends TableAdapter {
 		return data[flatIndex];
 	}
 
+	// strings are quoted so that they can contain separators
+	@Override
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append('"').append(Strings.nullToEmpty(data[flatIndex])).append('"');
+	}
+
+	@Override
+	protected char binaryType() {
+		return 'T';
+	}
+
+	@Override
+	protected long binaryDataSize() {
+		long size = 0;
+		for (int i = 0; i < data.length; i++)
+			size += binaryElementSize(i);
+		return size;
+	}
+
+	@Override
+	protected int binaryElementSize(int flatIndex) {
+		return binaryStringSize(data[flatIndex]);
+	}
+
+	@Override
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		for (int i = from; i < to; i++)
+			putBinaryString(out, data[i]);
+	}
+
+	@Override
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		modified();
+		for (int i = from; i < to; i++)
+			data[i] = getBinaryString(in);
+	}
+
 	@Override
 	public String elementClassName() {
 		return String.class.getName();
@@ -106,6 +144,7 @@ public class StringTable extends TableAdapter {
 
 	/** fills this container with a single {@code String} value */
 	public StringTable fillWith(String value) {
+		modified();
 		for (int i = 0; i < data.length; i++)
 			data[i] = value;
 		return this;
@@ -118,6 +157,7 @@ public class StringTable extends TableAdapter {
 
 	@Override
 	public TableAdapter copy(Table from) {
+		modified();
 		if (String.class.isAssignableFrom(from.contentType())) {
 			StringTable st = (StringTable) from;
 			for (int i = 0; i < data.length; i++)
@@ -138,6 +178,7 @@ public class StringTable extends TableAdapter {
 
 	@Override
 	public void setByInt(String value, int... indexes) {
+		modified();
 		data[getFlatIndexByInt(indexes)] = value;
 	}
 
@@ -148,6 +189,7 @@ public class StringTable extends TableAdapter {
 
 	@Override
 	public void setWithFlatIndex(String value, int index) {
+		modified();
 		data[index] = value;
 	}
 
@@ -158,6 +200,7 @@ public class StringTable extends TableAdapter {
 
 	@Override
 	public void set(String value, Object... indexes) {
+		modified();
 		data[getFlatIndex(indexes)] = value;
 	}
 
@@ -295,23 +338,6 @@ public class StringTable extends TableAdapter {
 		return result;
 	}
 
-	@Override
-	public String toSaveableString(char[][] bdel, char[] isep) {
-		StringBuilder sb = new StringBuilder(1024);
-		sb.append(bdel[TABLEix][BLOCK_OPEN]).append(bdel[DIMix][BLOCK_OPEN]).append(dimensioners[0].getLength());
-		for (int i = 1; i < dimensioners.length; i++)
-			sb.append(isep[DIMix]).append(dimensioners[i].getLength());
-		sb.append(bdel[DIMix][BLOCK_CLOSE]);
-		if (flatSize > 0)
-//			sb.append(Strings.nullToEmpty(elementToString(0)));
-			sb.append('"').append(Strings.nullToEmpty(elementToString(0))).append('"');
-		for (int i = 1; i < flatSize; i++)
-//			sb.append(isep[TABLEix]).append(Strings.nullToEmpty(elementToString(i)));
-			sb.append(isep[TABLEix]).append('"').append(Strings.nullToEmpty(elementToString(i))).append('"');
-		sb.append(bdel[TABLEix][BLOCK_CLOSE]);
-		return sb.toString();
-	}
-
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
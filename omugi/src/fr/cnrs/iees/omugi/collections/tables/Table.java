@@ -32,6 +32,13 @@ package fr.cnrs.iees.omugi.collections.tables;
 
 import static fr.cnrs.iees.omugi.io.parsing.TextGrammar.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
 import fr.cnrs.iees.omhtk.*;
 
 /**
@@ -126,6 +133,15 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 	 */
 	public Dimensioner[] getDimensioners();
 
+	/**
+	 * returns the number of modifications made to the content of this table since its 
+	 * creation. Objects caching values derived from this table can record this number and
+	 * later compare it to the current value to check if the table has changed.
+	 * 
+	 * @return the modification count
+	 */
+	public long modificationCount();
+
 	/**
 	 * returns the flat index matching a ndim-tuple of indexes (no overflow check)
 	 * 
@@ -134,6 +150,39 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 	 */
 	public int getFlatIndexByInt(int... indexes);
 
+	/**
+	 * returns the flat index of a cell of a 1-dimensional table (no overflow check). Unlike
+	 * {@link Table#getFlatIndexByInt(int...) getFlatIndexByInt(int...)}, does not allocate
+	 * any array.
+	 * 
+	 * @param i the index of the cell
+	 * @return a single index specifying the same cell as the argument
+	 */
+	public int getFlatIndexByInt(int i);
+
+	/**
+	 * returns the flat index of a cell of a 2-dimensional table (no overflow check). Unlike
+	 * {@link Table#getFlatIndexByInt(int...) getFlatIndexByInt(int...)}, does not allocate
+	 * any array.
+	 * 
+	 * @param i the index of the cell in the first dimension
+	 * @param j the index of the cell in the second dimension
+	 * @return a single index specifying the same cell as the arguments
+	 */
+	public int getFlatIndexByInt(int i, int j);
+
+	/**
+	 * returns the flat index of a cell of a 3-dimensional table (no overflow check). Unlike
+	 * {@link Table#getFlatIndexByInt(int...) getFlatIndexByInt(int...)}, does not allocate
+	 * any array.
+	 * 
+	 * @param i the index of the cell in the first dimension
+	 * @param j the index of the cell in the second dimension
+	 * @param k the index of the cell in the third dimension
+	 * @return a single index specifying the same cell as the arguments
+	 */
+	public int getFlatIndexByInt(int i, int j, int k);
+
 	/**
 	 * returns the flat index matching a ndim-tuple of non integer indexes (if any)
 	 * 
@@ -160,6 +209,18 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 	 */
 	public String elementToString(int flatIndex);
 
+	/**
+	 * Writes the same text as {@link SaveableAsText#toSaveableString(char[][], char[]) 
+	 * toSaveableString(...)} into a character sink, without building the whole text in memory 
+	 * first. Use this to save large tables.
+	 * 
+	 * @param out the sink to write to (e.g. a {@code Writer} or a {@code StringBuilder})
+	 * @param bdel block delimiters to use
+	 * @param isep item separators to use
+	 * @throws IOException if writing to <em>out</em> fails
+	 */
+	public void appendSaveable(Appendable out, char[][] bdel, char[] isep) throws IOException;
+
 	/**
 	 * returns the type of the table elements
 	 * 
@@ -216,6 +277,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(short value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(short value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(short value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// int
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(int value, int... indexes) {
@@ -238,6 +320,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(int value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(int value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(int value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// long
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(long value, int... indexes) {
@@ -260,6 +363,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(long value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(long value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(long value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// byte
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(byte value, int... indexes) {
@@ -282,6 +406,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(byte value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(byte value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(byte value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// boolean
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(boolean value, int... indexes) {
@@ -304,6 +449,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(boolean value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(boolean value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(boolean value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// double
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(double value, int... indexes) {
@@ -326,6 +492,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(double value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(double value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(double value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// float
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(float value, int... indexes) {
@@ -348,6 +535,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(float value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(float value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(float value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// char
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(char value, int... indexes) {
@@ -370,6 +578,27 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	/** set <em>value</em> at cell <em>i</em> of a 1-dimensional table */
+	public default void set(char value, int i) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j</em> of a 2-dimensional table */
+	public default void set(char value, int i, int j) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
+	/** set <em>value</em> at cell <em>i,j,k</em> of a 3-dimensional table */
+	public default void set(char value, int i, int j, int k) {
+		throw new UnsupportedOperationException(new Object() {
+		}.getClass().getEnclosingMethod().toGenericString() + " not implemented for Table of "
+				+ contentType().getSimpleName());
+	}
+
 	// String
 	/** set <em>value</em> at cell specified by <em>indexes</em> */
 	public default void setByInt(String value, int... indexes) {
@@ -392,4 +621,82 @@ public interface Table extends DataContainer, Sizeable, Textable, Showable, Save
 				+ contentType().getSimpleName());
 	}
 
+	// Binary serialization
+	
+	/**
+	 * returns the number of bytes needed to save this table in binary form (cf.
+	 * {@link Table#writeBinary(ByteBuffer) writeBinary(...)}).
+	 * 
+	 * @return the size of the binary form of this table
+	 */
+	public long binarySize();
+	
+	/**
+	 * <p>Writes this table in binary form, i.e. a header giving the format version, the content
+	 * type and the dimensioners (including index names, if any), followed by the table 
+	 * values in little-endian order. This is much faster and more compact than the text form
+	 * (cf. {@link SaveableAsText#toSaveableString() toSaveableString()}).</p>
+	 * <p>The byte order of <em>out</em> is not changed.</p>
+	 * 
+	 * @param out the buffer to write to - must have {@link Table#binarySize() binarySize()} 
+	 * bytes remaining
+	 * @throws UnsupportedOperationException if the table content cannot be saved in 
+	 * binary form (e.g. {@link ObjectTable}s)
+	 * @throws IllegalStateException if the binary form is too big for a {@code ByteBuffer}
+	 * (i.e. more than {@code Integer.MAX_VALUE} bytes)
+	 */
+	public void writeBinary(ByteBuffer out);
+
+	/**
+	 * Writes this table in binary form (cf. {@link Table#writeBinary(ByteBuffer) writeBinary(...)}).
+	 * Values are streamed through a small buffer, so that tables of any size can be written.
+	 * 
+	 * @param out the output to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeBinary(DataOutput out) throws IOException;
+
+	/**
+	 * Writes this table in binary form (cf. {@link Table#writeBinary(ByteBuffer) writeBinary(...)}).
+	 * Values are streamed through a small buffer, so that tables of any size can be written.
+	 * 
+	 * @param out the channel (e.g. a {@code FileChannel}) to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeBinary(WritableByteChannel out) throws IOException;
+
+	/**
+	 * Reads a table previously saved with {@link Table#writeBinary(ByteBuffer) writeBinary(...)}.
+	 * The byte order of <em>in</em> is not changed.
+	 * 
+	 * @param in the buffer to read from
+	 * @return a new table of the saved type, dimensions and content
+	 */
+	public static Table readBinary(ByteBuffer in) {
+		return TableAdapter.readBinary(in);
+	}
+
+	/**
+	 * Reads a table previously saved with {@link Table#writeBinary(DataOutput) writeBinary(...)}.
+	 * 
+	 * @param in the input to read from
+	 * @return a new table of the saved type, dimensions and content
+	 * @throws IOException if reading fails
+	 */
+	public static Table readBinary(DataInput in) throws IOException {
+		return TableAdapter.readBinary(in);
+	}
+
+	/**
+	 * Reads a table previously saved with {@link Table#writeBinary(WritableByteChannel) 
+	 * writeBinary(...)}.
+	 * 
+	 * @param in the channel (e.g. a {@code FileChannel}) to read from
+	 * @return a new table of the saved type, dimensions and content
+	 * @throws IOException if reading fails
+	 */
+	public static Table readBinary(ReadableByteChannel in) throws IOException {
+		return TableAdapter.readBinary(in);
+	}
+
 }
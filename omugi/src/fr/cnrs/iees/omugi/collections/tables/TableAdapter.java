@@ -30,6 +30,15 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.collections.tables;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -52,9 +61,18 @@ public abstract class TableAdapter implements Table {
 	protected int           dimensions;
 	protected int           flatSize;
 	private   int[]         offsets;
+	// strides of the first two dimensions (= offsets[0] and offsets[1]), used by the
+	// fixed-arity accessors
+	private   int           stride0 = 0;
+	private   int           stride1 = 0;
 	
 	// hash code for fast indexing
 	protected int hash = 0;
+	// number of modifications of this table since its creation
+	private long modCount = 0L;
+	
+	// size of the buffer used when writing a table to an output
+	private static final int BUFFER_SIZE = 8192;
 	
 	// Constructors
 	//
@@ -77,6 +95,9 @@ public abstract class TableAdapter implements Table {
 			for (int j=i+1; j<dimensions; j++)
 				offsets[i] = offsets[i] * dimensioners[j].getLength();
 		}
+		stride0 = offsets[0];
+		if (dimensions>1)
+			stride1 = offsets[1];
 
 		flatSize = dimensioners[0].getLength();
 		for (int i=1; i<dimensions; i++)
@@ -86,6 +107,20 @@ public abstract class TableAdapter implements Table {
 	// Table methods
 	//
 	
+	@Override
+	public final long modificationCount() {
+		return modCount;
+	}
+	
+	/**
+	 * Must be called by every method modifying the content of this table. Invalidates
+	 * the cached hash code.
+	 */
+	protected final void modified() {
+		modCount++;
+		hash = 0;
+	}
+	
 	@Override
 	public final Dimensioner[] getDimensioners() {
 		return dimensioners;
@@ -102,6 +137,27 @@ public abstract class TableAdapter implements Table {
 		return index;
 	}
 
+	@Override
+	public final int getFlatIndexByInt(int i) {
+		if (dimensions != 1)
+			throw new IllegalArgumentException("TableAdapter.getFlatIndex expected " + dimensions + " indexes (got 1)");
+		return i;
+	}
+
+	@Override
+	public final int getFlatIndexByInt(int i, int j) {
+		if (dimensions != 2)
+			throw new IllegalArgumentException("TableAdapter.getFlatIndex expected " + dimensions + " indexes (got 2)");
+		return i*stride0 + j;
+	}
+
+	@Override
+	public final int getFlatIndexByInt(int i, int j, int k) {
+		if (dimensions != 3)
+			throw new IllegalArgumentException("TableAdapter.getFlatIndex expected " + dimensions + " indexes (got 3)");
+		return i*stride0 + j*stride1 + k;
+	}
+
 	// not tested (because not used)
 	@Override
 	public final int getFlatIndex(Object... indexes) {
@@ -139,6 +195,49 @@ public abstract class TableAdapter implements Table {
 		return dimensioners[index].getLength();
 	}
 
+	// helpers for bulk operations in descendants
+	//
+
+	/**
+	 * returns the distance, in the flat storage, between two consecutive cells along a
+	 * dimension
+	 * 
+	 * @param dim the dimension index
+	 * @return the stride of the dim<sup>th</sup> dimension
+	 */
+	protected final int stride(int dim) {
+		return offsets[dim];
+	}
+
+	/**
+	 * returns the dimensioners of this table without one of them, i.e. the dimensioners of 
+	 * the result of a reduction along this dimension. For a 1-dimensional table, returns a
+	 * single dimensioner of size 1.
+	 * 
+	 * @param dim the index of the dimension to remove
+	 * @return the remaining dimensioners
+	 */
+	protected final Dimensioner[] reducedDimensioners(int dim) {
+		if (dimensions==1)
+			return new Dimensioner[] {new Dimensioner(1)};
+		Dimensioner[] result = new Dimensioner[dimensions-1];
+		for (int i=0,j=0; i<dimensions; i++)
+			if (i!=dim)
+				result[j++] = dimensioners[i];
+		return result;
+	}
+
+	/**
+	 * checks that another table has the same dimensions as this one
+	 * 
+	 * @param other the table to check
+	 * @throws IllegalArgumentException if dimensions differ
+	 */
+	protected final void checkSameDimensions(Table other) {
+		if (!sameDimensionsAs(other))
+			throw new IllegalArgumentException("TableAdapter: table dimensions differ");
+	}
+
 	// DataContainer methods
 	//
 	
@@ -186,18 +285,56 @@ public abstract class TableAdapter implements Table {
 	@Override
 	public String toSaveableString(char[][] bdel, char[] isep) {
 		StringBuilder sb = new StringBuilder(1024);
+		try {
+			writeSaveable(sb,null,bdel,isep);
+		} catch (IOException e) {
+			// never happens since there is no output to write to
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void appendSaveable(Appendable out, char[][] bdel, char[] isep) throws IOException {
+		if (out instanceof StringBuilder)
+			writeSaveable((StringBuilder) out,null,bdel,isep);
+		else
+			writeSaveable(new StringBuilder(BUFFER_SIZE+64),out,bdel,isep);
+	}
+	
+	// writes the table into sb. If out is not null, sb is used as a buffer and regularly 
+	// flushed into out
+	private void writeSaveable(StringBuilder sb, Appendable out, char[][] bdel, char[] isep) 
+			throws IOException {
 		sb.append(bdel[TABLEix][BLOCK_OPEN])
 			.append(bdel[DIMix][BLOCK_OPEN])
 			.append(dimensioners[0].getLength());
 		for (int i=1; i<dimensioners.length; i++)
 			sb.append(isep[DIMix]).append(dimensioners[i].getLength());
 		sb.append(bdel[DIMix][BLOCK_CLOSE]);
-		if (flatSize>0) 
-			sb.append(elementToString(0));
-		for (int i=1; i<flatSize; i++)
-			sb.append(isep[TABLEix]).append(elementToString(i));
+		for (int i=0; i<flatSize; i++) {
+			if (i>0)
+				sb.append(isep[TABLEix]);
+			appendElement(sb,i);
+			if ((out!=null) && (sb.length()>=BUFFER_SIZE)) {
+				out.append(sb);
+				sb.setLength(0);
+			}
+		}
 		sb.append(bdel[TABLEix][BLOCK_CLOSE]);
-		return sb.toString();
+		if (out!=null)
+			out.append(sb);
+	}
+
+	/**
+	 * Appends the saveable text of one element of the table. Descendants should override
+	 * this to avoid creating a {@code String} for every element, as the default implementation 
+	 * does (using {@link Table#elementToString(int) elementToString(...)}).
+	 * 
+	 * @param sb the builder to append to
+	 * @param flatIndex the flat index of the element
+	 */
+	protected void appendElement(StringBuilder sb, int flatIndex) {
+		sb.append(elementToString(flatIndex));
 	}
 	
 	@Override
@@ -215,21 +352,26 @@ public abstract class TableAdapter implements Table {
 	 * @param bdel the block delimiters to use (cf {@code TextGrammar})
 	 */
 	protected static String getBlockContent(String value, char[] bdel) {
-		if ((value.charAt(0)!=bdel[BLOCK_OPEN]) ||
-			(value.charAt(value.length()-1)!=bdel[BLOCK_CLOSE])) {
+		checkBlock(value,0,value.length()-1,bdel);
+//		return value.substring(1, value.indexOf(bdel[BLOCK_CLOSE]));
+		// therefore the last char MUST be a BLOCK_CLOSE
+		return value.substring(1, value.length()-1);
+	}
+	
+	// checks that value has an opening block delimiter at first and a closing one at last
+	private static void checkBlock(CharSequence value, int first, int last, char[] bdel) {
+		if ((last<=first) ||
+			(value.charAt(first)!=bdel[BLOCK_OPEN]) ||
+			(value.charAt(last)!=bdel[BLOCK_CLOSE])) {
 			StringBuilder sb = new StringBuilder();
 			sb.append("valueOf: invalid input String \"")
-				.append(value)
+				.append(value.subSequence(first,Math.max(first,last+1)))
 				.append("\" - String must start with '")
 				.append(bdel[BLOCK_OPEN])
 				.append("' and end with '")
 				.append(bdel[BLOCK_CLOSE]);
 			throw new IllegalArgumentException(sb.toString());
 		}
-		else
-//			return value.substring(1, value.indexOf(bdel[BLOCK_CLOSE]));
-			// therefore the last char MUST be a BLOCK_CLOSE
-		return value.substring(1, value.length()-1);
 	}
 	
 	// utility for descendants, to read content from aString in valueOf()
@@ -250,6 +392,719 @@ public abstract class TableAdapter implements Table {
 		return dim;
 	}
 
+	/**
+	 * <p>A single-pass reader for the text produced by 
+	 * {@link TableAdapter#toSaveableString(char[][], char[]) toSaveableString(...)}, for use
+	 * in the {@code valueOf(...)} methods of descendants.</p>
+	 * <p>The reader moves an index along the text and decodes values in place, i.e. without
+	 * creating intermediate {@code String}s, so that reading a table is linear in the text
+	 * length. Blanks around values are ignored, except for {@code char}s.</p>
+	 */
+	protected static class TextReader {
+		
+		// exact powers of ten for fast decimal conversion
+		private static final double[] DOUBLE_POW10 = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+		private static final float[] FLOAT_POW10 = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+		
+		private final CharSequence text;
+		private final char sep;
+		// position of the next char to read
+		private int pos;
+		// position of the table closing delimiter
+		private final int end;
+		// bounds of the current value
+		private int start, stop;
+		// decoded decimal number: mantissa, power of ten, and whether it's exact
+		private long mantissa;
+		private int exponent;
+		private boolean negative;
+		private boolean exact;
+		private Dimensioner[] dimensioners;
+		
+		/**
+		 * Constructor - reads the table delimiters and dimensions
+		 * 
+		 * @param value the text to read
+		 * @param bdel the block delimiters to use
+		 * @param isep the item separators to use
+		 */
+		public TextReader(CharSequence value, char[][] bdel, char[] isep) {
+			text = value;
+			checkBlock(value,0,value.length()-1,bdel[TABLEix]);
+			end = value.length()-1;
+			pos = 1;
+			sep = isep[TABLEix];
+			// dimensions
+			int close = pos;
+			while ((close<end) && (text.charAt(close)!=bdel[DIMix][BLOCK_CLOSE]))
+				close++;
+			checkBlock(value,pos,close,bdel[DIMix]);
+			List<Dimensioner> dims = new LinkedList<Dimensioner>();
+			pos++;
+			while (pos<close) {
+				int i = pos;
+				while ((i<close) && (text.charAt(i)!=isep[DIMix]))
+					i++;
+				start = pos;
+				stop = i;
+				dims.add(new Dimensioner((int) readLong()));
+				pos = i+1;
+			}
+			dimensioners = dims.toArray(new Dimensioner[dims.size()]);
+			pos = close+1;
+		}
+		
+		/**
+		 * @return the dimensioners read in the text
+		 */
+		public Dimensioner[] dimensioners() {
+			return dimensioners;
+		}
+		
+		/**
+		 * @return true if there are still values to read
+		 */
+		public boolean hasNext() {
+			return pos<=end;
+		}
+		
+		// locates the next value and moves past it
+		private void next() {
+			if (pos>end)
+				throw new IllegalArgumentException("valueOf: not enough values in input String");
+			start = pos;
+			while ((pos<end) && (text.charAt(pos)!=sep))
+				pos++;
+			stop = pos;
+			pos++;
+		}
+		
+		// removes blanks around the current value
+		private void trim() {
+			while ((start<stop) && Character.isWhitespace(text.charAt(start)))
+				start++;
+			while ((stop>start) && Character.isWhitespace(text.charAt(stop-1)))
+				stop--;
+		}
+		
+		private NumberFormatException numberFormatError() {
+			return new NumberFormatException("For input string: \"" + text.subSequence(start,stop) + "\"");
+		}
+
+		// decodes an integer in [start,stop[ - same behaviour as Long.parseLong()
+		private long readLong() {
+			trim();
+			int i = start;
+			boolean neg = false;
+			if ((i<stop) && ((text.charAt(i)=='-') || (text.charAt(i)=='+'))) {
+				neg = text.charAt(i)=='-';
+				i++;
+			}
+			if (i==stop)
+				throw numberFormatError();
+			// accumulate negatively, as the negative range is larger
+			long limit = neg ? Long.MIN_VALUE : -Long.MAX_VALUE;
+			long multmin = limit/10;
+			long result = 0;
+			for (; i<stop; i++) {
+				int digit = Character.digit(text.charAt(i),10);
+				if ((digit<0) || (result<multmin))
+					throw numberFormatError();
+				result *= 10;
+				if (result<limit+digit)
+					throw numberFormatError();
+				result -= digit;
+			}
+			return neg ? result : -result;
+		}
+		
+		// decodes a decimal number in [start,stop[ into mantissa and exponent. 
+		// exact is false if the number cannot be handled here (too many digits, NaN, etc.)
+		private void readDecimal() {
+			trim();
+			int i = start;
+			mantissa = 0;
+			exponent = 0;
+			exact = false;
+			negative = false;
+			if ((i<stop) && ((text.charAt(i)=='-') || (text.charAt(i)=='+'))) {
+				negative = text.charAt(i)=='-';
+				i++;
+			}
+			int ndigits = 0;
+			boolean digits = false;
+			boolean point = false;
+			for (; i<stop; i++) {
+				char c = text.charAt(i);
+				if ((c>='0') && (c<='9')) {
+					digits = true;
+					if ((mantissa>0) || (c!='0')) {
+						// more than 18 significant digits may overflow a long
+						if (++ndigits>18)
+							return;
+						mantissa = mantissa*10 + (c-'0');
+					}
+					if (point)
+						exponent--;
+				}
+				else if ((c=='.') && !point)
+					point = true;
+				else
+					break;
+			}
+			if (!digits)
+				return;
+			if ((i<stop) && ((text.charAt(i)=='e') || (text.charAt(i)=='E'))) {
+				i++;
+				boolean neg = false;
+				if ((i<stop) && ((text.charAt(i)=='-') || (text.charAt(i)=='+'))) {
+					neg = text.charAt(i)=='-';
+					i++;
+				}
+				if (i==stop)
+					return;
+				int exp = 0;
+				for (; i<stop; i++) {
+					char c = text.charAt(i);
+					if ((c<'0') || (c>'9') || (exp>9999))
+						return;
+					exp = exp*10 + (c-'0');
+				}
+				exponent += neg ? -exp : exp;
+			}
+			exact = (i==stop);
+		}
+
+		/**
+		 * @return the next value as a {@code long}
+		 */
+		public long nextLong() {
+			next();
+			return readLong();
+		}
+
+		/**
+		 * @return the next value as an {@code int}
+		 */
+		public int nextInt() {
+			long result = nextLong();
+			if ((result<Integer.MIN_VALUE) || (result>Integer.MAX_VALUE))
+				throw numberFormatError();
+			return (int) result;
+		}
+
+		/**
+		 * @return the next value as a {@code short}
+		 */
+		public short nextShort() {
+			long result = nextLong();
+			if ((result<Short.MIN_VALUE) || (result>Short.MAX_VALUE))
+				throw numberFormatError();
+			return (short) result;
+		}
+
+		/**
+		 * @return the next value as a {@code byte}
+		 */
+		public byte nextByte() {
+			long result = nextLong();
+			if ((result<Byte.MIN_VALUE) || (result>Byte.MAX_VALUE))
+				throw numberFormatError();
+			return (byte) result;
+		}
+
+		/**
+		 * Decodes the next value as a {@code double}, with the same result as 
+		 * {@link Double#parseDouble(String)}. Common cases (up to 15 significant digits
+		 * and small exponents) are converted exactly without creating any {@code String}.
+		 * 
+		 * @return the next value as a {@code double}
+		 */
+		public double nextDouble() {
+			next();
+			readDecimal();
+			double result;
+			if (exact && (mantissa<(1L<<53))) {
+				if (mantissa==0)
+					result = 0.0;
+				else if (exponent==0)
+					result = mantissa;
+				else if ((exponent>0) && (exponent<DOUBLE_POW10.length))
+					result = mantissa*DOUBLE_POW10[exponent];
+				else if ((exponent<0) && (-exponent<DOUBLE_POW10.length))
+					result = mantissa/DOUBLE_POW10[-exponent];
+				else
+					return Double.parseDouble(text.subSequence(start,stop).toString()); // slow
+				return negative ? -result : result;
+			}
+			return Double.parseDouble(text.subSequence(start,stop).toString()); // slow
+		}
+
+		/**
+		 * Decodes the next value as a {@code float}, with the same result as 
+		 * {@link Float#parseFloat(String)}. Common cases (up to 7 significant digits
+		 * and small exponents) are converted exactly without creating any {@code String}.
+		 * 
+		 * @return the next value as a {@code float}
+		 */
+		public float nextFloat() {
+			next();
+			readDecimal();
+			float result;
+			if (exact && (mantissa<(1L<<24))) {
+				if (mantissa==0)
+					result = 0.0f;
+				else if (exponent==0)
+					result = mantissa;
+				else if ((exponent>0) && (exponent<FLOAT_POW10.length))
+					result = mantissa*FLOAT_POW10[exponent];
+				else if ((exponent<0) && (-exponent<FLOAT_POW10.length))
+					result = mantissa/FLOAT_POW10[-exponent];
+				else
+					return Float.parseFloat(text.subSequence(start,stop).toString()); // slow
+				return negative ? -result : result;
+			}
+			return Float.parseFloat(text.subSequence(start,stop).toString()); // slow
+		}
+
+		/**
+		 * @return the next value as a {@code boolean}, with the same result as 
+		 * {@link Boolean#parseBoolean(String)} 
+		 */
+		public boolean nextBoolean() {
+			next();
+			trim();
+			return (stop-start==4) &&
+				Character.toLowerCase(text.charAt(start))=='t' &&
+				Character.toLowerCase(text.charAt(start+1))=='r' &&
+				Character.toLowerCase(text.charAt(start+2))=='u' &&
+				Character.toLowerCase(text.charAt(start+3))=='e';
+		}
+
+		/**
+		 * @return the first character of the next value (blanks are not ignored)
+		 */
+		public char nextChar() {
+			next();
+			return text.charAt(start);
+		}
+	}
+
+	// Binary serialization
+	//
+	
+	// "OMTS" in ASCII - identifies serialized tables
+	private static final int BINARY_MAGIC = 0x4F4D5453;
+	// version of the binary format
+	private static final short BINARY_VERSION = 1;
+	// same as version 1, but with the data size stored as a long - only used for big tables
+	private static final short BINARY_VERSION_LONG = 2;
+	// size of the fixed part of the header: magic, version, type, dimensions size, data size
+	private static final int BINARY_PREFIX = 16;
+	private static final int BINARY_PREFIX_LONG = 20;
+	// size of the buffer used to stream tables to and from DataOutputs and channels
+	private static final int BINARY_CHUNK = 1<<20;
+	
+	/**
+	 * The type code of this table in binary form. Codes are those of JVM type descriptors
+	 * (e.g. 'D' for double), plus 'T' for Strings. Must be overriden by descendants which can
+	 * be saved in binary form.
+	 * 
+	 * @return the type code
+	 */
+	protected char binaryType() {
+		throw new UnsupportedOperationException("Binary form not implemented for Table of "
+			+ contentType().getSimpleName());
+	}
+
+	/**
+	 * The number of bytes of every value of this table in binary form. Must be overriden by
+	 * descendants which values have a fixed size in binary form.
+	 * 
+	 * @return the size of a value in bytes, 0 if values have a variable size (e.g. Strings)
+	 */
+	protected int binaryElementSize() {
+		return 0;
+	}
+
+	/**
+	 * The number of bytes of one value of this table in binary form. Must be overriden by
+	 * descendants which values have a variable size.
+	 * 
+	 * @param flatIndex the flat index of the value
+	 * @return the size of the value in bytes
+	 */
+	protected int binaryElementSize(int flatIndex) {
+		return binaryElementSize();
+	}
+
+	/**
+	 * The number of bytes needed to save the values of this table in binary form. Must be
+	 * overriden by descendants which values have a variable size.
+	 * 
+	 * @return the size of the table values in bytes
+	 */
+	protected long binaryDataSize() {
+		int elementSize = binaryElementSize();
+		if (elementSize==0)
+			throw new UnsupportedOperationException("Binary form not implemented for Table of "
+				+ contentType().getSimpleName());
+		return Math.multiplyExact((long) flatSize, elementSize);
+	}
+
+	/**
+	 * Writes a range of the table values in binary form. Must be overriden by descendants 
+	 * which can be saved in binary form.
+	 * 
+	 * @param out the buffer to write to, set to little-endian order
+	 * @param from the flat index of the first value to write
+	 * @param to the flat index following the last value to write
+	 */
+	protected void writeBinaryData(ByteBuffer out, int from, int to) {
+		throw new UnsupportedOperationException("Binary form not implemented for Table of "
+			+ contentType().getSimpleName());
+	}
+
+	/**
+	 * Reads a range of the table values in binary form. Must be overriden by descendants 
+	 * which can be read from binary form.
+	 * 
+	 * @param in the buffer to read from, set to little-endian order
+	 * @param from the flat index of the first value to read
+	 * @param to the flat index following the last value to read
+	 */
+	protected void readBinaryData(ByteBuffer in, int from, int to) {
+		throw new UnsupportedOperationException("Binary form not implemented for Table of "
+			+ contentType().getSimpleName());
+	}
+
+	/**
+	 * Writes all the table values in binary form.
+	 * 
+	 * @param out the buffer to write to, set to little-endian order
+	 */
+	protected final void writeBinaryData(ByteBuffer out) {
+		writeBinaryData(out, 0, flatSize);
+	}
+
+	/**
+	 * Reads all the table values in binary form.
+	 * 
+	 * @param in the buffer to read from, set to little-endian order
+	 */
+	protected final void readBinaryData(ByteBuffer in) {
+		readBinaryData(in, 0, flatSize);
+	}
+
+	// size of the dimensioner part of the header
+	private int binaryDimensionsSize() {
+		int size = Integer.BYTES;
+		for (Dimensioner dim:dimensioners) {
+			size += 2*Integer.BYTES;
+			if (dim.hasNames())
+				for (int i=0; i<dim.getLength(); i++)
+					size += binaryStringSize(dim.getName(i));
+		}
+		return size;
+	}
+	
+	// size of the fixed part of the header
+	private static int binaryPrefixSize(long dataSize) {
+		return dataSize>Integer.MAX_VALUE ? BINARY_PREFIX_LONG : BINARY_PREFIX;
+	}
+	
+	@Override
+	public final long binarySize() {
+		long dataSize = binaryDataSize();
+		return binaryPrefixSize(dataSize) + binaryDimensionsSize() + dataSize;
+	}
+	
+	// a ByteBuffer cannot hold more than Integer.MAX_VALUE bytes
+	private static int singleBufferSize(long size) {
+		if (size>Integer.MAX_VALUE)
+			throw new IllegalStateException("TableAdapter: binary table too big for a single ByteBuffer ("
+				+ size + " bytes)");
+		return (int) size;
+	}
+
+	// writes the fixed part of the header and the dimensioners
+	private void writeBinaryHeader(ByteBuffer out, long dataSize) {
+		out.putInt(BINARY_MAGIC);
+		if (dataSize>Integer.MAX_VALUE)
+			out.putShort(BINARY_VERSION_LONG)
+				.putShort((short) binaryType())
+				.putInt(binaryDimensionsSize())
+				.putLong(dataSize);
+		else
+			out.putShort(BINARY_VERSION)
+				.putShort((short) binaryType())
+				.putInt(binaryDimensionsSize())
+				.putInt((int) dataSize);
+		out.putInt(dimensions);
+		for (Dimensioner dim:dimensioners) {
+			out.putInt(dim.getLength());
+			if (dim.hasNames()) {
+				out.putInt(dim.getLength());
+				for (int i=0; i<dim.getLength(); i++)
+					putBinaryString(out,dim.getName(i));
+			}
+			else
+				out.putInt(0);
+		}
+	}
+
+	@Override
+	public final void writeBinary(ByteBuffer out) {
+		long dataSize = binaryDataSize();
+		singleBufferSize(binaryPrefixSize(dataSize) + binaryDimensionsSize() + dataSize);
+		ByteOrder order = out.order();
+		out.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			writeBinaryHeader(out,dataSize);
+			writeBinaryData(out);
+		}
+		finally {
+			out.order(order);
+		}
+	}
+
+	@Override
+	public final void writeBinary(DataOutput out) throws IOException {
+		writeBinary(buffer->{
+			out.write(buffer.array(),buffer.arrayOffset()+buffer.position(),buffer.remaining());
+			buffer.position(buffer.limit());
+		});
+	}
+
+	@Override
+	public final void writeBinary(WritableByteChannel out) throws IOException {
+		writeBinary(buffer->{
+			while (buffer.hasRemaining())
+				out.write(buffer);
+		});
+	}
+	
+	// where buffers are written to or read from
+	@FunctionalInterface
+	private interface BinaryStream {
+		// writes or reads all the remaining bytes of the buffer
+		void transfer(ByteBuffer buffer) throws IOException;
+	}
+
+	// writes the binary form through a buffer of (at least) BINARY_CHUNK bytes
+	private void writeBinary(BinaryStream out) throws IOException {
+		long dataSize = binaryDataSize();
+		int headerSize = binaryPrefixSize(dataSize) + binaryDimensionsSize();
+		int elementSize = binaryElementSize();
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(headerSize,BINARY_CHUNK))
+			.order(ByteOrder.LITTLE_ENDIAN);
+		writeBinaryHeader(buffer,dataSize);
+		for (int from=0; from<flatSize; ) {
+			int to = from;
+			if (elementSize>0)
+				to = (int) Math.min(flatSize, from + (long) buffer.remaining()/elementSize);
+			else
+				for (int room=buffer.remaining(); to<flatSize; to++) {
+					int size = binaryElementSize(to);
+					if (size>room)
+						break;
+					room -= size;
+				}
+			if (to==from) {
+				if (buffer.position()>0)
+					flush(buffer,out);
+				else // a single value bigger than the buffer
+					buffer = ByteBuffer.allocate(binaryElementSize(from)).order(ByteOrder.LITTLE_ENDIAN);
+				continue;
+			}
+			writeBinaryData(buffer,from,to);
+			from = to;
+		}
+		flush(buffer,out);
+	}
+	
+	private static void flush(ByteBuffer buffer, BinaryStream out) throws IOException {
+		buffer.flip();
+		out.transfer(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Utility for descendants: size of a {@code String} in binary form
+	 * 
+	 * @param s the String (may be null)
+	 * @return its size in bytes
+	 */
+	protected static int binaryStringSize(String s) {
+		if (s==null)
+			return Integer.BYTES;
+		return Integer.BYTES + s.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	/**
+	 * Utility for descendants: writes a {@code String} in binary form (length then UTF-8 bytes)
+	 * 
+	 * @param out the buffer to write to
+	 * @param s the String (may be null)
+	 */
+	protected static void putBinaryString(ByteBuffer out, String s) {
+		if (s==null)
+			out.putInt(-1);
+		else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	/**
+	 * Utility for descendants: reads a {@code String} in binary form
+	 * 
+	 * @param in the buffer to read from
+	 * @return the String (may be null)
+	 */
+	protected static String getBinaryString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length<0)
+			return null;
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes,StandardCharsets.UTF_8);
+	}
+
+	// instantiates a table from its binary type code
+	private static TableAdapter newTable(char type, Dimensioner... dims) {
+		switch (type) {
+			case 'D': return new DoubleTable(dims);
+			case 'F': return new FloatTable(dims);
+			case 'J': return new LongTable(dims);
+			case 'I': return new IntTable(dims);
+			case 'S': return new ShortTable(dims);
+			case 'B': return new ByteTable(dims);
+			case 'C': return new CharTable(dims);
+			case 'Z': return new BooleanTable(dims);
+			case 'T': return new StringTable(dims);
+			default: 
+				throw new IllegalArgumentException("TableAdapter: unknown binary table type '"+type+"'");
+		}
+	}
+	
+	// the fixed part of the header
+	private static class BinaryPrefix {
+		private final char type;
+		private final int dimensionsSize;
+		private final long dataSize;
+		
+		// reads the fixed part of the header (in must be set to little-endian order)
+		private BinaryPrefix(ByteBuffer in) {
+			if (in.getInt()!=BINARY_MAGIC)
+				throw new IllegalArgumentException("TableAdapter: not a binary table");
+			short version = in.getShort();
+			if ((version<BINARY_VERSION)||(version>BINARY_VERSION_LONG))
+				throw new IllegalArgumentException("TableAdapter: unsupported binary table version "+version);
+			type = (char) in.getShort();
+			dimensionsSize = in.getInt();
+			dataSize = version==BINARY_VERSION_LONG ? in.getLong() : in.getInt();
+		}
+	}
+	
+	// reads the header and instantiates the table
+	private static TableAdapter readBinaryHeader(ByteBuffer in) {
+		BinaryPrefix prefix = new BinaryPrefix(in);
+		int ndim = in.getInt();
+		Dimensioner[] dims = new Dimensioner[ndim];
+		for (int i=0; i<ndim; i++) {
+			int length = in.getInt();
+			int nnames = in.getInt();
+			if (nnames>0) {
+				String[] names = new String[nnames];
+				for (int j=0; j<nnames; j++)
+					names[j] = getBinaryString(in);
+				dims[i] = new Dimensioner(names);
+			}
+			else
+				dims[i] = new Dimensioner(length);
+		}
+		return newTable(prefix.type,dims);
+	}
+	
+	// cf. Table.readBinary(...)
+	static TableAdapter readBinary(ByteBuffer in) {
+		ByteOrder order = in.order();
+		in.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			TableAdapter result = readBinaryHeader(in);
+			result.readBinaryData(in);
+			return result;
+		}
+		finally {
+			in.order(order);
+		}
+	}
+
+	// cf. Table.readBinary(...)
+	static TableAdapter readBinary(DataInput in) throws IOException {
+		return readBinary((BinaryStream) buffer->{
+			in.readFully(buffer.array(),buffer.arrayOffset()+buffer.position(),buffer.remaining());
+			buffer.position(buffer.limit());
+		});
+	}
+
+	// cf. Table.readBinary(...)
+	static TableAdapter readBinary(ReadableByteChannel in) throws IOException {
+		return readBinary((BinaryStream) buffer->{
+			while (buffer.hasRemaining())
+				if (in.read(buffer)<0)
+					throw new EOFException("TableAdapter: unexpected end of binary table");
+		});
+	}
+
+	// reads the binary form through a buffer of (at most) BINARY_CHUNK bytes for values of fixed
+	// size, and through a single buffer otherwise
+	private static TableAdapter readBinary(BinaryStream in) throws IOException {
+		ByteBuffer prefixBuffer = ByteBuffer.allocate(BINARY_PREFIX_LONG).order(ByteOrder.LITTLE_ENDIAN);
+		prefixBuffer.limit(BINARY_PREFIX);
+		in.transfer(prefixBuffer);
+		if (prefixBuffer.getShort(Integer.BYTES)==BINARY_VERSION_LONG) {
+			prefixBuffer.limit(BINARY_PREFIX_LONG);
+			in.transfer(prefixBuffer);
+		}
+		prefixBuffer.flip();
+		BinaryPrefix prefix = new BinaryPrefix(prefixBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+		ByteBuffer header = ByteBuffer.allocate(prefixBuffer.limit()+prefix.dimensionsSize)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		header.put(prefixBuffer);
+		in.transfer(header);
+		header.flip();
+		TableAdapter result = readBinaryHeader(header);
+		int elementSize = result.binaryElementSize();
+		if (elementSize==0) {
+			if (prefix.dataSize>Integer.MAX_VALUE)
+				throw new IllegalArgumentException("TableAdapter: binary table too big for a single ByteBuffer ("
+					+ prefix.dataSize + " bytes)");
+			ByteBuffer data = ByteBuffer.allocate((int) prefix.dataSize).order(ByteOrder.LITTLE_ENDIAN);
+			in.transfer(data);
+			data.flip();
+			result.readBinaryData(data);
+			return result;
+		}
+		if (prefix.dataSize!=(long) result.flatSize*elementSize)
+			throw new IllegalArgumentException("TableAdapter: binary table data size does not match its dimensions");
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(prefix.dataSize,BINARY_CHUNK/elementSize*elementSize))
+			.order(ByteOrder.LITTLE_ENDIAN);
+		for (int from=0; from<result.flatSize; ) {
+			int to = Math.min(result.flatSize, from + buffer.capacity()/elementSize);
+			buffer.clear().limit((to-from)*elementSize);
+			in.transfer(buffer);
+			buffer.flip();
+			result.readBinaryData(buffer,from,to);
+			from = to;
+		}
+		return result;
+	}
+
 	// Showable methods
 	
 	/**
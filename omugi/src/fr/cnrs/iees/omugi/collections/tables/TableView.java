@@ -0,0 +1,285 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import au.edu.anu.omhtk.util.IntegerRange;
+
+/**
+ * <p>A view on a subset of the cells of a {@link Table} (a <em>slice</em>), defined either by an
+ * {@link IndexString} expression or by an index range in every dimension.</p>
+ * 
+ * <p>A view never copies the table values: it only translates its own indexes into flat indexes
+ * of the backing table, using the table strides. Its memory footprint is proportional to the sum
+ * of the selected indices in every dimension, not to the number of selected cells. Values are read
+ * and written through the backing table, e.g.:</p>
+ * <pre>
+ * TableView&lt;StringTable&gt; view = new TableView&lt;&gt;(table,"[1:3||0]");
+ * String s = view.table().getWithFlatIndex(view.getFlatIndexByInt(0,2,0));
+ * view.forEachFlatIndex(i-&gt;view.table().setWithFlatIndex("",i));
+ * </pre>
+ * <p>{@link DoubleTableView}, {@link FloatTableView}, {@link IntTableView} and 
+ * {@link LongTableView} add typed accessors using view indexes.</p>
+ * <p>A view has the same number of dimensions as its backing table (dimensions where a single
+ * index is selected have size 1).</p>
+ *
+ * @param <T> the type of the backing table
+ */
+public class TableView<T extends Table> {
+	
+	private final T table;
+	// the backing table flat offset of every selected index, in every dimension 
+	private final int[][] offsets;
+	private final int size;
+
+	/**
+	 * Constructor from an index string (cf. {@link IndexString} for the syntax).
+	 * 
+	 * @param table the backing table
+	 * @param indexString the cells to select - e.g. {@code "[0;2:3||-1]"}
+	 */
+	public TableView(T table, String indexString) {
+		this.table = table;
+		int[][] indices = IndexString.dimensionIndices(indexString, tableSizes(table));
+		offsets = new int[indices.length][];
+		int s = 1;
+		for (int dim=0; dim<indices.length; dim++) {
+			int stride = stride(table,dim);
+			offsets[dim] = new int[indices[dim].length];
+			for (int k=0; k<indices[dim].length; k++)
+				offsets[dim][k] = indices[dim][k]*stride;
+			s *= indices[dim].length;
+		}
+		size = s;
+	}
+
+	/**
+	 * Constructor from index ranges (bounds included).
+	 * 
+	 * @param table the backing table
+	 * @param ranges the range of indexes to select in every dimension
+	 */
+	public TableView(T table, IntegerRange... ranges) {
+		if (ranges.length!=table.ndim())
+			throw new IllegalArgumentException("TableView: expected " + table.ndim() + " ranges (got " + ranges.length + ")");
+		this.table = table;
+		offsets = new int[ranges.length][];
+		int s = 1;
+		for (int dim=0; dim<ranges.length; dim++) {
+			int first = ranges[dim].getFirst();
+			int last = ranges[dim].getLast();
+			if ((first<0)||(last>=table.size(dim))||(first>last))
+				throw new IndexOutOfBoundsException("Table index range out of bounds: "+first+".."+last);
+			int stride = stride(table,dim);
+			offsets[dim] = new int[last-first+1];
+			for (int k=0; k<offsets[dim].length; k++)
+				offsets[dim][k] = (first+k)*stride;
+			s *= offsets[dim].length;
+		}
+		size = s;
+	}
+	
+	private static int[] tableSizes(Table table) {
+		int[] result = new int[table.ndim()];
+		for (int dim=0; dim<result.length; dim++)
+			result[dim] = table.size(dim);
+		return result;
+	}
+
+	// distance between consecutive cells along a dimension of the backing table
+	private static int stride(Table table, int dim) {
+		if (table instanceof TableAdapter)
+			return ((TableAdapter)table).stride(dim);
+		int result = 1;
+		for (int d=dim+1; d<table.ndim(); d++)
+			result *= table.size(d);
+		return result;
+	}
+
+	/**
+	 * @return the backing table
+	 */
+	public T table() {
+		return table;
+	}
+	
+	/**
+	 * @return the number of dimensions (the same as the backing table)
+	 */
+	public int ndim() {
+		return offsets.length;
+	}
+
+	/**
+	 * @param dim the dimension index
+	 * @return the number of indexes selected in this dimension
+	 */
+	public int size(int dim) {
+		return offsets[dim].length;
+	}
+
+	/**
+	 * @return the number of selected cells
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Translates view indexes into a flat index of the backing table.
+	 * 
+	 * @param indexes the indexes in the view, one per dimension
+	 * @return the flat index of the matching cell in the backing table
+	 */
+	public int getFlatIndexByInt(int... indexes) {
+		if (indexes.length != offsets.length)
+			throw new IllegalArgumentException("TableView.getFlatIndex expected " + offsets.length + " indexes (got " + indexes.length + ")");
+		int index = 0;
+		for (int dim=0; dim<offsets.length; dim++)
+			index += offsets[dim][indexes[dim]];
+		return index;
+	}
+	
+	/**
+	 * Translates a flat index of the view (i.e. the rank of a cell when iterating over the view, 
+	 * between 0 and {@link TableView#size() size()}-1) into a flat index of the backing table.
+	 * 
+	 * @param viewIndex the flat index in the view
+	 * @return the flat index of the matching cell in the backing table
+	 */
+	public int getTableFlatIndex(int viewIndex) {
+		if ((viewIndex<0)||(viewIndex>=size))
+			throw new IndexOutOfBoundsException(viewIndex);
+		int index = 0;
+		for (int dim=offsets.length-1; dim>=0; dim--) {
+			int n = offsets[dim].length;
+			index += offsets[dim][viewIndex % n];
+			viewIndex /= n;
+		}
+		return index;
+	}
+	
+	/**
+	 * Iterates over the flat indexes of the selected cells in the backing table, in the
+	 * table storage order. No allocation is made per cell.
+	 * 
+	 * @return an iterator over backing table flat indexes
+	 */
+	public PrimitiveIterator.OfInt flatIndexes() {
+		return new PrimitiveIterator.OfInt() {
+			// the current view indexes, incremented as an odometer
+			private final int[] counters = new int[offsets.length];
+			private int rank = 0;
+			@Override
+			public boolean hasNext() {
+				return rank<size;
+			}
+			@Override
+			public int nextInt() {
+				if (rank>=size)
+					throw new NoSuchElementException();
+				int result = 0;
+				for (int dim=0; dim<offsets.length; dim++)
+					result += offsets[dim][counters[dim]];
+				rank++;
+				for (int dim=offsets.length-1; dim>=0; dim--)
+					if (++counters[dim]<offsets[dim].length)
+						break;
+					else
+						counters[dim] = 0;
+				return result;
+			}
+		};
+	}
+	
+	/**
+	 * Streams the flat indexes of the selected cells in the backing table, in the
+	 * table storage order. The stream can be made parallel.
+	 * 
+	 * @return a stream of backing table flat indexes
+	 */
+	public IntStream flatIndexStream() {
+		return IntStream.range(0,size).map(this::getTableFlatIndex);
+	}
+	
+	/**
+	 * Applies an action to the flat index of every selected cell in the backing table, in the
+	 * table storage order. 
+	 * 
+	 * @param action the action to apply
+	 */
+	public void forEachFlatIndex(IntConsumer action) {
+		forEach(0,0,action);
+	}
+	
+	// nested loops over dimensions
+	private void forEach(int dim, int base, IntConsumer action) {
+		int[] off = offsets[dim];
+		if (dim==offsets.length-1)
+			for (int k=0; k<off.length; k++)
+				action.accept(base+off[k]);
+		else
+			for (int k=0; k<off.length; k++)
+				forEach(dim+1,base+off[k],action);
+	}
+	
+	/**
+	 * @param viewIndex the flat index in the view
+	 * @return the value of the cell as a {@code String}
+	 */
+	public String elementToString(int viewIndex) {
+		return table.elementToString(getTableFlatIndex(viewIndex));
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('{').append('[');
+		for (int dim=0; dim<offsets.length; dim++) {
+			if (dim>0)
+				sb.append(',');
+			sb.append(offsets[dim].length);
+		}
+		sb.append(']');
+		PrimitiveIterator.OfInt it = flatIndexes();
+		for (int i=0; (i<10)&&(it.hasNext()); i++)
+			sb.append(',').append(table.elementToString(it.nextInt()));
+		if (size>10)
+			sb.append("...");
+		sb.append('}');
+		return sb.toString();
+	}
+	
+}
@@ -0,0 +1,197 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.Arrays;
+
+/**
+ * <p>Searches on <em>directed</em> graphs with a dense numbering of nodes (0..n-1) and links
+ * given in compressed sparse row form: the links starting at node {@code i} end at nodes
+ * {@code targets[offsets[i]]..targets[offsets[i+1]-1]} ({@code offsets} has n+1 entries).</p>
+ * 
+ * <p>All searches are non-recursive and run in linear time, so that they can be used on
+ * very deep graphs (e.g. long dependency chains).</p>
+ */
+public final class DirectedSearch {
+
+	private DirectedSearch() {
+		super();
+	}
+
+	/**
+	 * Computes the <a href="https://en.wikipedia.org/wiki/Strongly_connected_component">strongly
+	 * connected components</a> of a directed graph, using an iterative version of
+	 * <a href="https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">Tarjan's
+	 * algorithm</a>.
+	 * 
+	 * @param offsets the start of the links of every node in {@code targets}
+	 * @param targets the end nodes of links
+	 * @return the component number of every node, components being numbered from 0 in
+	 * the order of their first node
+	 */
+	public static int[] strongComponentIds(int[] offsets, int[] targets) {
+		int n = offsets.length-1;
+		int[] index = new int[n];
+		int[] low = new int[n];
+		int[] comp = new int[n];
+		int[] next = new int[n]; // next link to explore for every node on the call stack
+		int[] stack = new int[n];
+		int[] calls = new int[n];
+		Arrays.fill(index,-1);
+		Arrays.fill(comp,-1);
+		int counter = 0, top = 0, nComps = 0;
+		for (int root=0; root<n; root++) {
+			if (index[root]>=0)
+				continue;
+			int depth = 0;
+			calls[depth++] = root;
+			index[root] = low[root] = counter++;
+			next[root] = offsets[root];
+			stack[top++] = root;
+			while (depth>0) {
+				int v = calls[depth-1];
+				if (next[v]<offsets[v+1]) {
+					int w = targets[next[v]++];
+					if (index[w]<0) {
+						// 'recursive' call on w
+						index[w] = low[w] = counter++;
+						next[w] = offsets[w];
+						stack[top++] = w;
+						calls[depth++] = w;
+					}
+					else if (comp[w]<0) // w is on the stack
+						low[v] = Math.min(low[v],index[w]);
+				}
+				else {
+					// 'return' from v
+					depth--;
+					if (low[v]==index[v]) {
+						int w;
+						do {
+							w = stack[--top];
+							comp[w] = nComps;
+						} while (w!=v);
+						nComps++;
+					}
+					if (depth>0) {
+						int u = calls[depth-1];
+						low[u] = Math.min(low[u],low[v]);
+					}
+				}
+			}
+		}
+		// renumber components in the order of their first node
+		int[] renum = new int[nComps];
+		Arrays.fill(renum,-1);
+		int count = 0;
+		for (int i=0; i<n; i++) {
+			if (renum[comp[i]]<0)
+				renum[comp[i]] = count++;
+			comp[i] = renum[comp[i]];
+		}
+		return comp;
+	}
+
+	/**
+	 * Computes a <a href="https://en.wikipedia.org/wiki/Topological_sorting">topological 
+	 * order</a> of a directed graph using Kahn's algorithm, i.e. an order where the start node of 
+	 * every link comes before its end node. Nodes are released in first-in first-out order, 
+	 * starting with the nodes without incoming links in increasing number order: the result is
+	 * deterministic, but not the lexicographically smallest order.
+	 * 
+	 * @param offsets the start of the links of every node in {@code targets}
+	 * @param targets the end nodes of links
+	 * @return the node numbers in topological order, or {@code null} if the graph has a cycle
+	 * (cf. {@link DirectedSearch#cycle(int[], int[]) cycle(...)})
+	 */
+	public static int[] topologicalOrder(int[] offsets, int[] targets) {
+		int n = offsets.length-1;
+		int[] inDegree = new int[n];
+		for (int k=0; k<offsets[n]; k++)
+			inDegree[targets[k]]++;
+		// the result array is used as the queue
+		int[] order = new int[n];
+		int head = 0, tail = 0;
+		for (int i=0; i<n; i++)
+			if (inDegree[i]==0)
+				order[tail++] = i;
+		while (head<tail) {
+			int v = order[head++];
+			for (int k=offsets[v]; k<offsets[v+1]; k++)
+				if (--inDegree[targets[k]]==0)
+					order[tail++] = targets[k];
+		}
+		if (tail<n)
+			return null;
+		return order;
+	}
+
+	/**
+	 * Finds a cycle in a directed graph.
+	 * 
+	 * @param offsets the start of the links of every node in {@code targets}
+	 * @param targets the end nodes of links
+	 * @return the node numbers of a cycle, in link order (the last node being linked to the 
+	 * first one), or an empty array if the graph has no cycle
+	 */
+	public static int[] cycle(int[] offsets, int[] targets) {
+		int n = offsets.length-1;
+		int[] comp = strongComponentIds(offsets,targets);
+		int[] compSize = new int[n];
+		for (int i=0; i<n; i++)
+			compSize[comp[i]]++;
+		for (int v=0; v<n; v++) {
+			for (int k=offsets[v]; k<offsets[v+1]; k++)
+				if (targets[k]==v) // self-loop
+					return new int[] {v};
+			if (compSize[comp[v]]>1) {
+				// every node of a strong component has a link to another node of the
+				// component: follow them until a node is met again
+				int[] position = new int[n];
+				Arrays.fill(position,-1);
+				int[] path = new int[compSize[comp[v]]+1];
+				int length = 0;
+				int w = v;
+				while (position[w]<0) {
+					position[w] = length;
+					path[length++] = w;
+					int k = offsets[w];
+					while (comp[targets[k]]!=comp[v] || targets[k]==w)
+						k++;
+					w = targets[k];
+				}
+				return Arrays.copyOfRange(path,position[w],length);
+			}
+		}
+		return new int[0];
+	}
+
+}
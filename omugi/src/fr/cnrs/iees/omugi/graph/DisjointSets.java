@@ -0,0 +1,143 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>A <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">union-find</a> 
+ * structure (disjoint-set forest) over the integers 0..n-1, e.g. dense node numbers.
+ * Used to compute connected components in (almost) linear time.</p>
+ * 
+ * <p>{@link DisjointSets#union(int, int) union(...)} and {@link DisjointSets#find(int) find(...)}
+ * are lock-free and can be called concurrently from several threads: the root with the largest
+ * index is always linked under the other one (atomic compare-and-set), and paths are compressed 
+ * by halving.</p>
+ */
+public class DisjointSets {
+	
+	// parent of every element (roots are their own parent)
+	private final AtomicIntegerArray parent;
+
+	/**
+	 * Constructor - every element is in its own set
+	 * 
+	 * @param n the number of elements
+	 */
+	public DisjointSets(int n) {
+		parent = new AtomicIntegerArray(n);
+		for (int i=0; i<n; i++)
+			parent.set(i,i);
+	}
+	
+	/**
+	 * @return the number of elements
+	 */
+	public int size() {
+		return parent.length();
+	}
+	
+	/**
+	 * Finds the representative (root) of the set containing an element.
+	 * 
+	 * @param i the element
+	 * @return the root of its set
+	 */
+	public int find(int i) {
+		int p = parent.get(i);
+		while (p!=i) {
+			int gp = parent.get(p);
+			// path halving - harmless if another thread got there first
+			parent.compareAndSet(i,p,gp);
+			i = gp;
+			p = parent.get(i);
+		}
+		return i;
+	}
+	
+	/**
+	 * Merges the sets containing two elements.
+	 * 
+	 * @param a an element
+	 * @param b another element
+	 * @return {@code true} if the two elements were in different sets
+	 */
+	public boolean union(int a, int b) {
+		while (true) {
+			a = find(a);
+			b = find(b);
+			if (a==b)
+				return false;
+			// always link the larger root under the smaller one, so that no cycle can appear
+			if (a<b) {
+				int tmp = a;
+				a = b;
+				b = tmp;
+			}
+			if (parent.compareAndSet(a,a,b))
+				return true;
+			// a was linked by another thread in the meantime: retry
+		}
+	}
+
+	/**
+	 * Tests if two elements belong to the same set.
+	 * 
+	 * @param a an element
+	 * @param b another element
+	 * @return {@code true} if the two elements are in the same set
+	 */
+	public boolean connected(int a, int b) {
+		return find(a)==find(b);
+	}
+	
+	/**
+	 * Numbers the sets densely. Should not be called while other threads are merging sets.
+	 * 
+	 * @return the set number of every element, from 0 to (number of sets - 1), sets being
+	 * numbered in the order of their smallest element
+	 */
+	public int[] componentIds() {
+		int n = parent.length();
+		int[] result = new int[n];
+		int count = 0;
+		// roots are the smallest elements of their set, so they are met first
+		for (int i=0; i<n; i++) {
+			int root = find(i);
+			if (root==i)
+				result[i] = count++;
+			else
+				result[i] = result[root];
+		}
+		return result;
+	}
+
+}
@@ -30,9 +30,19 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import fr.cnrs.iees.omhtk.Textable;
 
@@ -53,8 +63,20 @@ import fr.cnrs.iees.omhtk.Textable;
 public interface Graph<N extends Node, E extends Edge> 
 		extends NodeSet<N>, EdgeSet<E>, Textable {
 	
+	/**
+	 * Algorithms available for the search of connected components
+	 */
 	public static enum searchAlgorithm {
-		firstDepthSearch;
+		/** recursive depth-first search (default) */
+		firstDepthSearch,
+		/** iterative breadth-first search */
+		breadthFirstSearch,
+		/** union-find over the edges */
+		unionFind,
+		/** union-find over the edges, edges being processed in parallel */
+		parallelUnionFind,
+		/** parallel label propagation (Shiloach-Vishkin) run in the {@code searchPool()} */
+		shiloachVishkin;
 	}
 
 	@Override
@@ -90,9 +112,31 @@ public interface Graph<N extends Node, E extends Edge>
 	 * @return a collection of sets of connected nodes
 	 */
 	public default Collection<Set<Node>> connectedComponents() {
-		switch (searchAlgorithm()) {
+		return connectedComponents(searchAlgorithm());
+	}
+	
+	/**
+	 * <p>Computation of connected components using a particular algorithm. The 
+	 * {@code firstDepthSearch} algorithm is recursive and may overflow the stack for
+	 * large components: prefer {@code unionFind} or {@code breadthFirstSearch} for large graphs,
+	 * and {@code parallelUnionFind} or {@code shiloachVishkin} for very large graphs on multi-core
+	 * machines. Except for {@code firstDepthSearch}, only the nodes of this graph are considered.</p>
+	 * 
+	 * @param algorithm the search algorithm to use
+	 * @return a collection of sets of connected nodes
+	 */
+	public default Collection<Set<Node>> connectedComponents(searchAlgorithm algorithm) {
+		switch (algorithm) {
 		case firstDepthSearch: 
 			return firstDepthSearch();
+		case breadthFirstSearch: 
+			return breadthFirstSearch();
+		case unionFind: 
+			return unionFind(false);
+		case parallelUnionFind: 
+			return unionFind(true);
+		case shiloachVishkin: 
+			return shiloachVishkin(searchPool());
 		default:
 			throw new UnsupportedOperationException("Invalid search agorithm for connected component search");
 		}
@@ -103,7 +147,7 @@ public interface Graph<N extends Node, E extends Edge>
 	 * Default is the <em>First depth search</em> algorithm for undirected graphs as implemented from 
 	 * <a href="https://fr.wikipedia.org/wiki/Algorithme_de_parcours_en_profondeur#Impl%C3%A9mentation_r%C3%A9cursive">there</a>.
 	 * </p>
-	 * <p><strong>NB:</strong> at the moment only <em>First depth search</em> algorithm is implemented.</p>
+	 * <p>Other algorithms are available: see {@link Graph#connectedComponents(searchAlgorithm)}.</p>
 	 * 
 	 * @return an enum value of class {@code searchAlgorithm}
 	 */
@@ -111,6 +155,16 @@ public interface Graph<N extends Node, E extends Edge>
 		return searchAlgorithm.firstDepthSearch;
 	}
 	
+	/**
+	 * The pool of threads used by the {@code shiloachVishkin} connected component search. 
+	 * Default is the common pool. Override this method to control the number of threads used.
+	 * 
+	 * @return the fork/join pool used for parallel searches
+	 */
+	public default ForkJoinPool searchPool() {
+		return ForkJoinPool.commonPool();
+	}
+	
 	// recursive helper method for firstDepthSearch
 	private void exploreGraph(Node n, Set<Node> tagged) {
 		tagged.add(n);
@@ -125,18 +179,189 @@ public interface Graph<N extends Node, E extends Edge>
 	private Collection<Set<Node>> firstDepthSearch() {
 		Set<Node> tagged = new HashSet<>();
 		Set<Set<Node>> connectedComponents = new HashSet<>();
-		Set<Node> previouslyTagged = new HashSet<>();
 		for (Node n:nodes()) {
 			if (!tagged.contains(n)) {
-				exploreGraph(n,tagged);
-				Set<Node> setDif = new HashSet<>(tagged);
-				setDif.removeAll(previouslyTagged);				
-				connectedComponents.add(setDif);	
-				previouslyTagged.addAll(setDif);
+				// each component is explored into its own set
+				Set<Node> component = new HashSet<>();
+				exploreGraph(n,component);
+				connectedComponents.add(component);	
+				tagged.addAll(component);
 			}
 		}
 		return connectedComponents;
 	}
 	
+	// implementation of the Breadth first search algorithm for connected component search
+	private Collection<Set<Node>> breadthFirstSearch() {
+		Set<Node> tagged = new HashSet<>();
+		List<Set<Node>> connectedComponents = new ArrayList<>();
+		Deque<Node> queue = new ArrayDeque<>();
+		Consumer<Node> visit = (n) -> {
+			// NB contains() is constant time in graph implementations
+			if ((n!=null) && contains(castNode(n)) && tagged.add(n))
+				queue.add(n);
+		};
+		Consumer<Edge> visitStart = (e) -> visit.accept(e.startNode());
+		Consumer<Edge> visitEnd = (e) -> visit.accept(e.endNode());
+		for (Node n:nodes()) {
+			if (tagged.add(n)) {
+				Set<Node> component = new HashSet<>();
+				queue.add(n);
+				while (!queue.isEmpty()) {
+					Node nn = queue.poll();
+					component.add(nn);
+					nn.forEachEdge(Direction.IN,visitStart);
+					nn.forEachEdge(Direction.OUT,visitEnd);
+				}
+				connectedComponents.add(component);
+			}
+		}
+		return connectedComponents;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private N castNode(Node node) {
+		return (N) node;
+	}
+	
+	// dense numbering of nodes
+	private Map<Node,Integer> nodeIndex(List<? extends Node> nodeList) {
+		Map<Node,Integer> index = new HashMap<>(2*nodeList.size());
+		for (int i=0; i<nodeList.size(); i++)
+			index.put(nodeList.get(i),i);
+		return index;
+	}
+	
+	// groups nodes by component number, components being numbered from 0 in order
+	private <T> Collection<Set<T>> components(List<T> nodeList, int[] ids) {
+		List<Set<T>> connectedComponents = new ArrayList<>();
+		for (int i=0; i<ids.length; i++) {
+			if (ids[i]==connectedComponents.size())
+				connectedComponents.add(new HashSet<>());
+			connectedComponents.get(ids[i]).add(nodeList.get(i));
+		}
+		return connectedComponents;
+	}
+	
+	// implementation of the union-find algorithm for connected component search
+	private Collection<Set<Node>> unionFind(boolean parallel) {
+		List<Node> nodeList = new ArrayList<>(nodes());
+		Map<Node,Integer> index = nodeIndex(nodeList);
+		List<Edge> edgeList = new ArrayList<>(edges());
+		DisjointSets sets = new DisjointSets(nodeList.size());
+		IntStream links = IntStream.range(0,edgeList.size());
+		if (parallel)
+			links = links.parallel();
+		links.forEach((k) -> {
+			Edge e = edgeList.get(k);
+			Integer start = index.get(e.startNode());
+			Integer end = index.get(e.endNode());
+			if ((start!=null) && (end!=null))
+				sets.union(start,end);
+		});
+		return components(nodeList,sets.componentIds());
+	}
+	
+	// implementation of the Shiloach-Vishkin algorithm for connected component search
+	private Collection<Set<Node>> shiloachVishkin(ForkJoinPool pool) {
+		List<Node> nodeList = new ArrayList<>(nodes());
+		Map<Node,Integer> index = nodeIndex(nodeList);
+		// links between nodes of this graph only
+		int[] start = new int[nEdges()];
+		int[] end = new int[start.length];
+		int nLinks = 0;
+		for (Edge e:edges()) {
+			Integer s = index.get(e.startNode());
+			Integer t = index.get(e.endNode());
+			if ((s!=null) && (t!=null)) {
+				if (nLinks==start.length) {
+					start = Arrays.copyOf(start,2*nLinks+1);
+					end = Arrays.copyOf(end,start.length);
+				}
+				start[nLinks] = s;
+				end[nLinks++] = t;
+			}
+		}
+		int[] ids = new ParallelComponents(pool).componentIds(nodeList.size(),
+			Arrays.copyOf(start,nLinks),Arrays.copyOf(end,nLinks));
+		return components(nodeList,ids);
+	}
+	
+	/**
+	 * <p>Computation of the 
+	 * <a href="https://en.wikipedia.org/wiki/Strongly_connected_component">strongly connected
+	 * components</a> of this graph, edges being followed from their start node to their end node. 
+	 * Only the nodes of this graph are considered. Uses a non-recursive version of Tarjan's 
+	 * algorithm (cf. {@link DirectedSearch}).</p>
+	 * 
+	 * @return a collection of sets of strongly connected nodes
+	 */
+	public default Collection<Set<N>> stronglyConnectedComponents() {
+		List<N> nodeList = new ArrayList<>(nodes());
+		int[][] links = outLinks(nodeList);
+		return components(nodeList,DirectedSearch.strongComponentIds(links[0],links[1]));
+	}
+	
+	/**
+	 * <p>Sorts the nodes of this graph in 
+	 * <a href="https://en.wikipedia.org/wiki/Topological_sorting">topological order</a>, i.e. so
+	 * that the start node of every edge comes before its end node (Kahn's algorithm). Only the 
+	 * nodes of this graph are considered.</p>
+	 * 
+	 * @return the nodes of this graph in topological order
+	 * @throws IllegalStateException if this graph has a cycle (the cycle is given in the message,
+	 * cf. {@link Graph#findCycle() findCycle()})
+	 */
+	public default List<N> topologicalSort() {
+		List<N> nodeList = new ArrayList<>(nodes());
+		int[][] links = outLinks(nodeList);
+		int[] order = DirectedSearch.topologicalOrder(links[0],links[1]);
+		if (order==null) {
+			List<N> cycle = new ArrayList<>();
+			for (int i:DirectedSearch.cycle(links[0],links[1]))
+				cycle.add(nodeList.get(i));
+			throw new IllegalStateException("Graph has a cycle - cannot be sorted: " + cycle);
+		}
+		List<N> result = new ArrayList<>(order.length);
+		for (int i:order)
+			result.add(nodeList.get(i));
+		return result;
+	}
+	
+	/**
+	 * Finds a cycle in this graph, edges being followed from their start node to their end node.
+	 * Only the nodes of this graph are considered.
+	 * 
+	 * @return the nodes of a cycle in edge order (the last node being linked to the first one), or
+	 * an empty list if this graph has no cycle
+	 */
+	public default List<N> findCycle() {
+		List<N> nodeList = new ArrayList<>(nodes());
+		int[][] links = outLinks(nodeList);
+		List<N> result = new ArrayList<>();
+		for (int i:DirectedSearch.cycle(links[0],links[1]))
+			result.add(nodeList.get(i));
+		return result;
+	}
+	
+	// compressed sparse row form of the out edges between nodes of this graph
+	private int[][] outLinks(List<N> nodeList) {
+		Map<Node,Integer> index = nodeIndex(nodeList);
+		int[] offsets = new int[nodeList.size()+1];
+		int[] targets = new int[nEdges()];
+		int nLinks = 0;
+		for (int i=0; i<nodeList.size(); i++) {
+			for (Edge e:nodeList.get(i).edges(Direction.OUT)) {
+				Integer t = index.get(e.endNode());
+				if (t!=null) {
+					if (nLinks==targets.length)
+						targets = Arrays.copyOf(targets,2*nLinks+1);
+					targets[nLinks++] = t;
+				}
+			}
+			offsets[i+1] = nLinks;
+		}
+		return new int[][] {offsets,targets};
+	}
 
 }
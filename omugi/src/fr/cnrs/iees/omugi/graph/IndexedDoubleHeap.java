@@ -0,0 +1,177 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A binary min-heap of the integers 0..n-1 (e.g. dense node numbers) with {@code double} 
+ * priorities, stored in primitive arrays. As the position of every item in the heap is tracked,
+ * the priority of an item already in the heap can be lowered in logarithmic time (the 
+ * <em>decrease-key</em> operation used by Dijkstra's algorithm).</p>
+ */
+public class IndexedDoubleHeap {
+	
+	private final int[] heap;
+	// position of every item in the heap, -1 if absent
+	private final int[] position;
+	private final double[] priority;
+	private int size = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity the number of items (items are 0..capacity-1)
+	 */
+	public IndexedDoubleHeap(int capacity) {
+		super();
+		heap = new int[capacity];
+		position = new int[capacity];
+		priority = new double[capacity];
+		Arrays.fill(position,-1);
+	}
+	
+	/**
+	 * @return the number of items in the heap
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return {@code true} if the heap has no item
+	 */
+	public boolean isEmpty() {
+		return size==0;
+	}
+	
+	/**
+	 * @param item an item
+	 * @return {@code true} if the item is in the heap
+	 */
+	public boolean contains(int item) {
+		return position[item]>=0;
+	}
+	
+	/**
+	 * Inserts an item, or lowers its priority if it is already in the heap with a higher
+	 * priority.
+	 * 
+	 * @param item the item
+	 * @param p the item priority
+	 * @return {@code true} if the heap was changed
+	 */
+	public boolean offer(int item, double p) {
+		int pos = position[item];
+		if (pos<0) {
+			pos = size++;
+			heap[pos] = item;
+			position[item] = pos;
+		}
+		else if (p>=priority[item])
+			return false;
+		priority[item] = p;
+		siftUp(pos);
+		return true;
+	}
+	
+	/**
+	 * @return the priority of the first item (i.e. the lowest priority)
+	 */
+	public double peekPriority() {
+		if (size==0)
+			throw new NoSuchElementException("Empty heap");
+		return priority[heap[0]];
+	}
+	
+	/**
+	 * Removes the first item, i.e. the item with the lowest priority.
+	 * 
+	 * @return the item
+	 */
+	public int poll() {
+		if (size==0)
+			throw new NoSuchElementException("Empty heap");
+		int first = heap[0];
+		position[first] = -1;
+		size--;
+		if (size>0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		return first;
+	}
+	
+	/**
+	 * Removes all items.
+	 */
+	public void clear() {
+		for (int i=0; i<size; i++)
+			position[heap[i]] = -1;
+		size = 0;
+	}
+	
+	private void siftUp(int pos) {
+		int item = heap[pos];
+		double p = priority[item];
+		while (pos>0) {
+			int parent = (pos-1)>>>1;
+			if (priority[heap[parent]]<=p)
+				break;
+			heap[pos] = heap[parent];
+			position[heap[pos]] = pos;
+			pos = parent;
+		}
+		heap[pos] = item;
+		position[item] = pos;
+	}
+	
+	private void siftDown(int pos) {
+		int item = heap[pos];
+		double p = priority[item];
+		int half = size>>>1;
+		while (pos<half) {
+			int child = 2*pos+1;
+			if ((child+1<size) && (priority[heap[child+1]]<priority[heap[child]]))
+				child++;
+			if (p<=priority[heap[child]])
+				break;
+			heap[pos] = heap[child];
+			position[heap[pos]] = pos;
+			pos = child;
+		}
+		heap[pos] = item;
+		position[item] = pos;
+	}
+
+}
@@ -30,10 +30,13 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import fr.cnrs.iees.omugi.properties.ReadOnlyPropertyList;
 
@@ -116,6 +119,55 @@ public interface Node extends Element, Connected<Node> {
 	 */
 	public Collection<? extends Node> nodes();
 
+	/**
+	 * Applies an action to every edge of this node in a given direction. Implementations
+	 * should not allocate any collection to do so. The default implementation iterates over
+	 * {@link Node#edges(Direction) edges(direction)}.
+	 * 
+	 * @param direction the direction (IN or OUT)
+	 * @param action the action to apply to each edge
+	 */
+	public default void forEachEdge(Direction direction, Consumer<? super Edge> action) {
+		for (Edge e:edges(direction))
+			action.accept(e);
+	}
+
+	/**
+	 * Applies an action to every edge of this node, IN edges first. Caution: an edge 
+	 * looping on this node is visited twice.
+	 * 
+	 * @param action the action to apply to each edge
+	 */
+	public default void forEachEdge(Consumer<? super Edge> action) {
+		forEachEdge(Direction.IN,action);
+		forEachEdge(Direction.OUT,action);
+	}
+
+	/**
+	 * Applies an action to every node connected to this node in a given direction. 
+	 * Implementations should not allocate any collection to do so. A node is visited once per
+	 * link to this node. The default implementation iterates over
+	 * {@link Node#nodes(Direction) nodes(direction)}.
+	 * 
+	 * @param direction the direction (IN or OUT)
+	 * @param action the action to apply to each node
+	 */
+	public default void forEachNeighbour(Direction direction, Consumer<? super Node> action) {
+		for (Node n:nodes(direction))
+			action.accept(n);
+	}
+
+	/**
+	 * Applies an action to every node connected to this node, IN nodes first. A node is 
+	 * visited once per link to this node.
+	 * 
+	 * @param action the action to apply to each node
+	 */
+	public default void forEachNeighbour(Consumer<? super Node> action) {
+		forEachNeighbour(Direction.IN,action);
+		forEachNeighbour(Direction.OUT,action);
+	}
+
 	/**
 	 * Connects this node to the argument and return the resulting edge (will instantiate an edge).
 	 * 
@@ -189,67 +241,48 @@ public interface Node extends Element, Connected<Node> {
 	}
 	
 	/**
-	 * recursive helper method to construct a traversal
-	 * @param list the list to fill up with nodes (initially empty)
-	 * @param node the node that will be searched next (initially, this one)
-	 * @param distance search depth
-	 * @return a list of Nodes connected to this node within <em>distance</em> steps
-	 */
-	private Collection<Node> traversal(Collection<Node> list, 
-			Node node, 
-			int distance) {
-		if (distance>0) {
-			if (!list.contains(node)) {
-				list.add(node);
-				for (Edge e:node.edges(Direction.IN))
-					traversal(list,e.startNode(),distance-1);
-				for (Edge e:node.edges(Direction.OUT))
-					traversal(list,e.endNode(),distance-1);
-			}
-		}
-		return list;
-	}
-	
-	/**
-	 * recursive helper method to construct a traversal - returns a list of Nodes connected to this node
-	 * @param list the list to fill up with nodes (initially empty)
-	 * @param node the node that will be searched next (initially, this one)
-	 * @param distance search depth
-	 * @param direction direction in which to search
-	 * @return a list of Nodes connected to this node within <em>distance</em> steps in direction <em>IN</em> or <em>OUT</em>
+	 * Breadth-first search helper method to construct a traversal.
+	 * 
+	 * @param node the node to start from
+	 * @param maxHops the maximal number of edges between <em>node</em> and the returned nodes
+	 * @param direction direction in which to search ({@code null} = both directions)
+	 * @return the nodes connected to <em>node</em> within <em>maxHops</em> edges, in breadth-first order
 	 */
-	private Collection<Node> traversal(Collection<Node> list, 
-			Node node, 
-			int distance, 
-			Direction direction) {
-		if (distance>0) {
-			if (!list.contains(node)) {
-				list.add(node);
-				for (Edge e:node.edges(direction))
-					if (direction.equals(Direction.OUT))
-						traversal(list,e.endNode(),distance-1,direction);
-					else 
-						traversal(list,e.startNode(),distance-1,direction);
+	private static Collection<Node> breadthFirstTraversal(Node node, int maxHops, Direction direction) {
+		Set<Node> visited = new LinkedHashSet<>();
+		if (maxHops<0)
+			return visited;
+		Deque<Node> queue = new ArrayDeque<>();
+		visited.add(node);
+		queue.add(node);
+		Consumer<Node> visit = (n) -> {
+			if ((n!=null) && visited.add(n))
+				queue.add(n);
+		};
+		Consumer<Edge> visitStart = (e) -> visit.accept(e.startNode());
+		Consumer<Edge> visitEnd = (e) -> visit.accept(e.endNode());
+		// one loop per distance level
+		for (int hops=0; (hops<maxHops) && !queue.isEmpty(); hops++)
+			for (int k=queue.size(); k>0; k--) {
+				Node n = queue.poll();
+				if (direction!=Direction.OUT)
+					n.forEachEdge(Direction.IN,visitStart);
+				if (direction!=Direction.IN)
+					n.forEachEdge(Direction.OUT,visitEnd);
 			}
-		}
-		return list;
+		return visited;
 	}
-
 	
 	@Override
 	public default Collection<? extends Node> traversal(int distance) {
-		List<Node> result = new LinkedList<Node>(); 
-		traversal(result,this,distance);
-		return Collections.unmodifiableCollection(result);
+		return Collections.unmodifiableCollection(breadthFirstTraversal(this,distance-1,null));
 	}
 
 	@Override
 	public default Collection<? extends Node> traversal(int distance, Direction direction) {
-		List<Node> result = new LinkedList<Node>(); 
-		traversal(result,this,distance,direction);
-		return Collections.unmodifiableCollection(result);
+		return Collections.unmodifiableCollection(breadthFirstTraversal(this,distance-1,direction));
 	}
-	
+
 	@Override
 	public default String classId() {
 		String s = factory().nodeClassName(this.getClass());
@@ -90,6 +90,20 @@ public interface NodeSet<N extends Node>  extends Textable {
 	 */
 	public boolean contains(N node);
 	
+	/**
+	 * Checks if this graph contains all the nodes of a collection. Implementations where
+	 * {@code contains(...)} takes constant time make this method linear in the number of nodes.
+	 * 
+	 * @param nodes the nodes to search for
+	 * @return {@code true} if all the nodes were found in the graph
+	 */
+	public default boolean containsAll(Collection<? extends N> nodes) {
+		for (N node:nodes)
+			if (!contains(node))
+				return false;
+		return true;
+	}
+	
 	/**
 	 * The node factory used to instantiate nodes for this node set / graph.
 	 * 
@@ -0,0 +1,173 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>A parallel connected component search, after the 
+ * <a href="https://doi.org/10.1016/0196-6774(82)90008-6">Shiloach-Vishkin</a> algorithm,
+ * for graphs with a dense numbering of nodes (0..n-1) and links given as two {@code int[]} of
+ * start and end node numbers.</p>
+ * 
+ * <p>Every node holds a label, initially its own number. The algorithm then alternates two
+ * parallel steps until no label changes: <em>hooking</em>, where for every link the label of the
+ * tip with the larger label is atomically lowered to the smaller label, and <em>shortcutting</em>
+ * (pointer jumping), where every node label is replaced by the label of its label until 
+ * stable. Both steps are run as fork/join tasks in a configurable {@link ForkJoinPool}. The
+ * number of rounds is typically logarithmic in the size of the largest component.</p>
+ */
+public class ParallelComponents {
+	
+	// minimal number of links or nodes processed by a single task
+	private static final int GRAIN = 8192;
+	
+	private final ForkJoinPool pool;
+	
+	/**
+	 * Constructor with the common pool
+	 */
+	public ParallelComponents() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with a specific pool, e.g. to control the number of threads.
+	 * 
+	 * @param pool the pool to run the search in
+	 */
+	public ParallelComponents(ForkJoinPool pool) {
+		super();
+		this.pool = pool;
+	}
+	
+	// a step of the algorithm, applied to a range of links or nodes
+	@FunctionalInterface
+	private static interface Step {
+		/** @return true if any label was changed */
+		boolean apply(int from, int to);
+	}
+	
+	// the fork/join task running a step over a range
+	private static class StepTask extends RecursiveTask<Boolean> {
+		private static final long serialVersionUID = 1L;
+		private final Step step;
+		private final int from, to;
+		StepTask(Step step, int from, int to) {
+			super();
+			this.step = step;
+			this.from = from;
+			this.to = to;
+		}
+		@Override
+		protected Boolean compute() {
+			if (to-from<=GRAIN)
+				return step.apply(from,to);
+			int mid = (from+to)>>>1;
+			StepTask left = new StepTask(step,from,mid);
+			left.fork();
+			boolean right = new StepTask(step,mid,to).compute();
+			return left.join() | right;
+		}
+	}
+	
+	// lowers label[i] to value if smaller - returns true if changed
+	private static boolean lower(AtomicIntegerArray label, int i, int value) {
+		int current = label.get(i);
+		while (value<current) {
+			if (label.compareAndSet(i,current,value))
+				return true;
+			current = label.get(i);
+		}
+		return false;
+	}
+	
+	/**
+	 * Computes the connected components of a graph (links being considered undirected).
+	 * 
+	 * @param nNodes the number of nodes
+	 * @param start the start node number of every link
+	 * @param end the end node number of every link
+	 * @return the component number of every node, components being numbered from 0 in
+	 * the order of their first node
+	 */
+	public int[] componentIds(int nNodes, int[] start, int[] end) {
+		if (start.length!=end.length)
+			throw new IllegalArgumentException("ParallelComponents: link arrays must have the same length");
+		AtomicIntegerArray label = new AtomicIntegerArray(nNodes);
+		for (int i=0; i<nNodes; i++)
+			label.set(i,i);
+		Step hook = (from,to) -> {
+			boolean changed = false;
+			for (int k=from; k<to; k++) {
+				int a = label.get(start[k]);
+				int b = label.get(end[k]);
+				// labels are roots after shortcutting, so this merges two trees
+				if (a<b)
+					changed |= lower(label,b,a);
+				else if (b<a)
+					changed |= lower(label,a,b);
+			}
+			return changed;
+		};
+		Step shortcut = (from,to) -> {
+			for (int i=from; i<to; i++) {
+				int l = label.get(i);
+				int ll = label.get(l);
+				while (l!=ll) {
+					l = ll;
+					ll = label.get(l);
+				}
+				label.set(i,l);
+			}
+			return false;
+		};
+		boolean changed = true;
+		while (changed) {
+			changed = pool.invoke(new StepTask(hook,0,start.length));
+			pool.invoke(new StepTask(shortcut,0,nNodes));
+		}
+		// labels are now the smallest node number of each component
+		int[] result = new int[nNodes];
+		int count = 0;
+		for (int i=0; i<nNodes; i++) {
+			int l = label.get(i);
+			if (l==i)
+				result[i] = count++;
+			else
+				result[i] = result[l];
+		}
+		return result;
+	}
+
+}
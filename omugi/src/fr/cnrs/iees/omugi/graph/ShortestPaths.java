@@ -0,0 +1,289 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>Shortest path searches on a {@link Graph}, edges being followed from their start node to
+ * their end node.</p>
+ * 
+ * <p>On construction, the nodes of the graph are numbered densely and its edges and their
+ * weights are stored in compressed sparse row form, so that later searches only use primitive
+ * arrays (and an {@link IndexedDoubleHeap} for weighted searches). Changes to the graph made after
+ * construction are thus ignored. Only the nodes of the graph are considered.</p>
+ * 
+ * <p>Three searches are available: 
+ * {@link ShortestPaths#hopDistances(Node) breadth-first search} (number of edges),
+ * <a href="https://en.wikipedia.org/wiki/Dijkstra%27s_algorithm">Dijkstra's algorithm</a> and
+ * <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A*</a>. Edge weights must be
+ * non-negative.</p>
+ *
+ * @param <N> the node type of the graph
+ */
+public class ShortestPaths<N extends Node> {
+	
+	private final List<N> nodes;
+	private final Map<Node,Integer> index;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] weights;
+	
+	/**
+	 * Constructor with unit edge weights (distances are numbers of edges).
+	 * 
+	 * @param graph the graph to search
+	 */
+	public ShortestPaths(Graph<N,? extends Edge> graph) {
+		this(graph,(e)->1.0);
+	}
+
+	/**
+	 * Constructor with edge weights read from an edge property. All edges must have this
+	 * property, with a numeric value.
+	 * 
+	 * @param graph the graph to search
+	 * @param weightProperty the name of the edge property containing the edge weight
+	 */
+	public ShortestPaths(Graph<N,? extends Edge> graph, String weightProperty) {
+		this(graph,propertyWeight(weightProperty));
+	}
+
+	/**
+	 * Constructor with edge weights computed by a function.
+	 * 
+	 * @param graph the graph to search
+	 * @param weight the edge weight function
+	 */
+	public ShortestPaths(Graph<N,? extends Edge> graph, ToDoubleFunction<Edge> weight) {
+		super();
+		nodes = new ArrayList<>(graph.nodes());
+		index = new HashMap<>(2*nodes.size());
+		for (int i=0; i<nodes.size(); i++)
+			index.put(nodes.get(i),i);
+		offsets = new int[nodes.size()+1];
+		int[] t = new int[nodes.size()];
+		double[] w = new double[t.length];
+		int nLinks = 0;
+		for (int i=0; i<nodes.size(); i++) {
+			for (Edge e:nodes.get(i).edges(Direction.OUT)) {
+				Integer end = index.get(e.endNode());
+				if (end!=null) {
+					double ew = weight.applyAsDouble(e);
+					if (!(ew>=0.0))
+						throw new IllegalArgumentException("Invalid weight for edge "+e.id()+": "+ew);
+					if (nLinks==t.length) {
+						t = Arrays.copyOf(t,2*nLinks+1);
+						w = Arrays.copyOf(w,t.length);
+					}
+					t[nLinks] = end;
+					w[nLinks++] = ew;
+				}
+			}
+			offsets[i+1] = nLinks;
+		}
+		targets = Arrays.copyOf(t,nLinks);
+		weights = Arrays.copyOf(w,nLinks);
+	}
+	
+	// reads the weight of an edge from one of its properties
+	private static ToDoubleFunction<Edge> propertyWeight(String key) {
+		return (e) -> {
+			if (e instanceof ReadOnlyDataHolder) {
+				ReadOnlyDataHolder dh = (ReadOnlyDataHolder) e;
+				if (dh.properties().hasProperty(key)) {
+					Object value = dh.properties().getPropertyValue(key);
+					if (value instanceof Number)
+						return ((Number) value).doubleValue();
+					throw new IllegalArgumentException("Edge property "+key+" of edge "+e.id()
+						+" is not a number");
+				}
+			}
+			throw new IllegalArgumentException("Edge "+e.id()+" has no property "+key);
+		};
+	}
+	
+	/**
+	 * @return the number of nodes
+	 */
+	public int nNodes() {
+		return nodes.size();
+	}
+	
+	/**
+	 * @param i a node number
+	 * @return the node with this number
+	 */
+	public N node(int i) {
+		return nodes.get(i);
+	}
+	
+	/**
+	 * @param node a node
+	 * @return the number of the node, -1 if it is not in the graph
+	 */
+	public int indexOf(Node node) {
+		Integer i = index.get(node);
+		return i==null ? -1 : i;
+	}
+
+	private int checkedIndexOf(Node node) {
+		Integer i = index.get(node);
+		if (i==null)
+			throw new IllegalArgumentException("Node "+node+" is not in the graph");
+		return i;
+	}
+	
+	/**
+	 * Breadth-first search of the number of edges between a node and all the other nodes.
+	 * 
+	 * @param source the start node
+	 * @return the number of edges from the start node to every node (by node number), -1 
+	 * for unreachable nodes
+	 */
+	public int[] hopDistances(N source) {
+		int[] dist = new int[nodes.size()];
+		Arrays.fill(dist,-1);
+		int[] queue = new int[nodes.size()];
+		int head = 0, tail = 0;
+		int s = checkedIndexOf(source);
+		dist[s] = 0;
+		queue[tail++] = s;
+		while (head<tail) {
+			int v = queue[head++];
+			for (int k=offsets[v]; k<offsets[v+1]; k++)
+				if (dist[targets[k]]<0) {
+					dist[targets[k]] = dist[v]+1;
+					queue[tail++] = targets[k];
+				}
+		}
+		return dist;
+	}
+	
+	/**
+	 * Dijkstra's algorithm: computes the distance from a node to all the other nodes.
+	 * 
+	 * @param source the start node
+	 * @return the distance from the start node to every node (by node number), 
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 */
+	public double[] distances(N source) {
+		double[] dist = new double[nodes.size()];
+		search(checkedIndexOf(source),-1,null,dist,new int[nodes.size()]);
+		return dist;
+	}
+
+	/**
+	 * Dijkstra's algorithm: computes the distance between two nodes. The search stops as 
+	 * soon as the target node is reached.
+	 * 
+	 * @param source the start node
+	 * @param target the end node
+	 * @return the distance, {@code Double.POSITIVE_INFINITY} if the target is unreachable
+	 */
+	public double distance(N source, N target) {
+		double[] dist = new double[nodes.size()];
+		int t = checkedIndexOf(target);
+		search(checkedIndexOf(source),t,null,dist,new int[nodes.size()]);
+		return dist[t];
+	}
+
+	/**
+	 * Dijkstra's algorithm: computes a shortest path between two nodes. The search stops as 
+	 * soon as the target node is reached.
+	 * 
+	 * @param source the start node
+	 * @param target the end node
+	 * @return the nodes of the path, from source to target, or an empty list if the target is
+	 * unreachable
+	 */
+	public List<N> path(N source, N target) {
+		return path(source,target,null);
+	}
+	
+	/**
+	 * A* algorithm: computes a shortest path between two nodes, guided by a heuristic estimate 
+	 * of the remaining distance to the target. The heuristic must never overestimate this 
+	 * distance, otherwise the path found may not be the shortest one. Nodes are explored again
+	 * when a shorter path to them is found, so the heuristic needs not be consistent. With a 
+	 * {@code null} heuristic, this is Dijkstra's algorithm.
+	 * 
+	 * @param source the start node
+	 * @param target the end node
+	 * @param heuristic the estimate of the distance from a node to the target
+	 * @return the nodes of the path, from source to target, or an empty list if the target is
+	 * unreachable
+	 */
+	public List<N> path(N source, N target, ToDoubleFunction<? super N> heuristic) {
+		double[] dist = new double[nodes.size()];
+		int[] pred = new int[nodes.size()];
+		int t = checkedIndexOf(target);
+		search(checkedIndexOf(source),t,heuristic,dist,pred);
+		if (dist[t]==Double.POSITIVE_INFINITY)
+			return Collections.emptyList();
+		List<N> path = new ArrayList<>();
+		for (int v=t; v>=0; v=pred[v])
+			path.add(nodes.get(v));
+		Collections.reverse(path);
+		return path;
+	}
+
+	// Dijkstra / A* search from s, stopping at t if t>=0
+	private void search(int s, int t, ToDoubleFunction<? super N> heuristic, double[] dist, int[] pred) {
+		Arrays.fill(dist,Double.POSITIVE_INFINITY);
+		Arrays.fill(pred,-1);
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(nodes.size());
+		dist[s] = 0.0;
+		heap.offer(s,0.0);
+		while (!heap.isEmpty()) {
+			int v = heap.poll();
+			if (v==t)
+				return;
+			for (int k=offsets[v]; k<offsets[v+1]; k++) {
+				int w = targets[k];
+				double d = dist[v]+weights[k];
+				if (d<dist[w]) {
+					dist[w] = d;
+					pred[w] = v;
+					double estimate = heuristic==null ? d : d+heuristic.applyAsDouble(nodes.get(w));
+					heap.offer(w,estimate);
+				}
+			}
+		}
+	}
+
+}
@@ -30,7 +30,13 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 
 import fr.cnrs.iees.omhtk.Textable;
 
@@ -63,11 +69,73 @@ public interface Tree<N extends TreeNode> extends NodeSet<N>, Textable {
 	}
 
 	/**
-	 * Actions taken when a parent node is changed.
+	 * An index of this tree, for constant time ancestor, depth and sub-tree queries (cf. 
+	 * {@link TreeIndex}). The default implementation builds a new index at every call: 
+	 * implementations should rather keep it until the tree structure changes.
+	 * 
+	 * @return an up-to-date index of this tree
+	 */
+	public default TreeIndex<N> index() {
+		return new TreeIndex<>(this);
+	}
+
+	/**
+	 * Walks through this tree from its roots, calling a visitor on every node (cf.
+	 * {@link TreeNode#walk(TreeNode.walkOrder, Predicate) TreeNode.walk(...)}). If there are
+	 * many roots, the sub-trees are walked one after the other. The walk stops as soon as the
+	 * visitor returns {@code false}.
+	 * 
+	 * @param order the order in which nodes are visited
+	 * @param visitor the action to apply on every node, returning {@code false} to stop the walk
+	 * @return {@code true} if all nodes were visited, {@code false} if the walk was stopped
+	 */
+	@SuppressWarnings("unchecked")
+	public default boolean walk(TreeNode.walkOrder order, Predicate<? super N> visitor) {
+		Predicate<TreeNode> nodeVisitor = (n) -> visitor.test((N) n);
+		for (N root:roots())
+			if (!root.walk(order,nodeVisitor))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Actions taken when a parent node is changed. Recomputes the roots of the tree from scratch
+	 * (i.e. checks all nodes).
 	 */
 	// TODO: ugly code - to fix one day.
 	public void onParentChanged();
-	
+
+	/**
+	 * Actions taken when the parent of a particular node is changed. Implementations should
+	 * only update the status of this node (e.g. add it to or remove it from the root list),
+	 * without rescanning the whole tree. The default implementation calls
+	 * {@link Tree#onParentChanged() onParentChanged()}.
+	 *
+	 * @param node the node which parent has just been changed
+	 */
+	public default void onParentChanged(N node) {
+		onParentChanged();
+	}
+
+	/**
+	 * Switch this tree to <em>bulk-build</em> mode: until {@link Tree#endBulkBuild() endBulkBuild()}
+	 * is called, parent changes are not tracked and the roots of this tree are not maintained.
+	 * Use this when building large trees (e.g. from a file). The default implementation does
+	 * nothing.
+	 */
+	public default void beginBulkBuild() {
+		// do nothing
+	}
+
+	/**
+	 * Leave <em>bulk-build</em> mode (cf. {@link Tree#beginBulkBuild() beginBulkBuild()}) and
+	 * recompute the roots of this tree. The default implementation calls
+	 * {@link Tree#onParentChanged() onParentChanged()}.
+	 */
+	public default void endBulkBuild() {
+		onParentChanged();
+	}
+
 	@Override
 	public default String toShortString() {
 		return toUniqueString() + "(" + nNodes() + " nodes)"; 
@@ -99,13 +167,32 @@ public interface Tree<N extends TreeNode> extends NodeSet<N>, Textable {
 	 * @param indent the String used to indent nodes according to hierarchy
 	 */
 	public static void printTree(TreeNode parent, String indent) {
-		System.out.println(indent + parent.classId() + ":" + parent.id());
-		if (parent instanceof ReadOnlyDataHolder)
-			for (String key : ((ReadOnlyDataHolder) parent).properties().getKeysAsSet())
+		// iterative pre-order walk, the indentation of every depth being built once
+		List<String> indents = new ArrayList<>();
+		indents.add(indent);
+		Deque<Iterator<? extends TreeNode>> stack = new ArrayDeque<>();
+		printNode(parent,indent);
+		stack.push(parent.getChildren().iterator());
+		while (!stack.isEmpty()) {
+			Iterator<? extends TreeNode> it = stack.peek();
+			if (it.hasNext()) {
+				if (indents.size()==stack.size())
+					indents.add(indents.get(stack.size()-1) + "    ");
+				TreeNode node = it.next();
+				printNode(node,indents.get(stack.size()));
+				stack.push(node.getChildren().iterator());
+			}
+			else
+				stack.pop();
+		}
+	}
+	
+	private static void printNode(TreeNode node, String indent) {
+		System.out.println(indent + node.classId() + ":" + node.id());
+		if (node instanceof ReadOnlyDataHolder)
+			for (String key : ((ReadOnlyDataHolder) node).properties().getKeysAsSet())
 				System.out.println(indent + "    " + "-(" + key + "="
-						+ ((ReadOnlyDataHolder) parent).properties().getPropertyValue(key) + ")");
-		for (TreeNode child : parent.getChildren())
-			printTree(child, indent + "    ");
+						+ ((ReadOnlyDataHolder) node).properties().getPropertyValue(key) + ")");
 	}
 
 }
@@ -0,0 +1,290 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>An <a href="https://en.wikipedia.org/wiki/Euler_tour_technique">Euler tour</a> index of a 
+ * {@link Tree}: every node of the tree is numbered in pre-order, starting from the roots, and
+ * its depth and sub-tree size are recorded. As the sub-tree of a node is then a contiguous range 
+ * of numbers, ancestor tests, depth queries and sub-tree extraction take constant time. 
+ * <a href="https://en.wikipedia.org/wiki/Lowest_common_ancestor">Lowest common ancestors</a> are
+ * found in logarithmic time by <em>binary lifting</em>.</p>
+ * 
+ * <p>The index is a snapshot: it is not updated when the tree changes (cf. {@link Tree#index()}, 
+ * which is invalidated by tree implementations on every structural change). Only the nodes 
+ * contained in the tree are indexed: a node which parent is not in the tree is indexed as a root.</p>
+ *
+ * @param <N> the node type of the tree
+ */
+public final class TreeIndex<N extends TreeNode> {
+	
+	// nodes in pre-order
+	private final N[] nodes;
+	// pre-order number of nodes
+	private final Map<TreeNode,Integer> number;
+	// by pre-order number
+	private final int[] parent;
+	private final int[] depth;
+	private final int[] size;
+	// binary lifting table: ancestors 2^k levels up (computed on first use)
+	private int[][] up = null;
+
+	/**
+	 * Builds the index of a tree.
+	 * 
+	 * @param tree the tree to index
+	 */
+	@SuppressWarnings("unchecked")
+	public TreeIndex(Tree<N> tree) {
+		super();
+		int n = tree.nNodes();
+		nodes = (N[]) new TreeNode[n];
+		number = new HashMap<>(2*n);
+		parent = new int[n];
+		depth = new int[n];
+		size = new int[n];
+		int count = 0;
+		for (N root:tree.roots())
+			count = walk(tree,root,count);
+		// nodes which parent is not in the tree (e.g. after a removal) are indexed as roots
+		if (count<n)
+			for (N node:tree.nodes())
+				if ((!number.containsKey(node)) && (!tree.contains((N) node.getParent())))
+					count = walk(tree,node,count);
+		if (count<n)
+			throw new IllegalStateException("Tree nodes are not all reachable from the tree roots");
+		// sub-tree sizes, summed from the leaves up
+		Arrays.fill(size,1);
+		for (int i=n-1; i>0; i--)
+			if (parent[i]>=0)
+				size[parent[i]] += size[i];
+	}
+	
+	// iterative pre-order walk from a root, skipping nodes not in the tree and children
+	// which parent is another node (children lists are not always kept consistent)
+	@SuppressWarnings("unchecked")
+	private int walk(Tree<N> tree, N root, int count) {
+		Deque<Iterator<? extends TreeNode>> stack = new ArrayDeque<>();
+		Deque<Integer> owners = new ArrayDeque<>();
+		count = visit(root,-1,count);
+		stack.push(root.getChildren().iterator());
+		owners.push(count-1);
+		while (!stack.isEmpty()) {
+			Iterator<? extends TreeNode> it = stack.peek();
+			if (it.hasNext()) {
+				TreeNode child = it.next();
+				int owner = owners.peek();
+				if ((child.getParent()==nodes[owner]) && tree.contains((N) child)) {
+					count = visit((N) child,owner,count);
+					stack.push(child.getChildren().iterator());
+					owners.push(count-1);
+				}
+			}
+			else {
+				stack.pop();
+				owners.pop();
+			}
+		}
+		return count;
+	}
+
+	// numbers a node
+	private int visit(N node, int parentNumber, int count) {
+		nodes[count] = node;
+		number.put(node,count);
+		parent[count] = parentNumber;
+		depth[count] = parentNumber<0 ? 0 : depth[parentNumber]+1;
+		return count+1;
+	}
+	
+	private int numberOf(TreeNode node) {
+		Integer i = number.get(node);
+		if (i==null)
+			throw new IllegalArgumentException("Node "+node+" is not indexed");
+		return i;
+	}
+	
+	// true if i is j or an ancestor of j
+	private boolean covers(int i, int j) {
+		return (i<=j) && (j<i+size[i]);
+	}
+	
+	/**
+	 * @return the number of indexed nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+	
+	/**
+	 * @param node a node
+	 * @return the pre-order number of the node, -1 if it is not indexed
+	 */
+	public int indexOf(TreeNode node) {
+		Integer i = number.get(node);
+		return i==null ? -1 : i;
+	}
+	
+	/**
+	 * @param i a pre-order number
+	 * @return the node with this pre-order number
+	 */
+	public N node(int i) {
+		return nodes[i];
+	}
+	
+	/**
+	 * @param node a node
+	 * @return the depth of the node, roots having depth 0
+	 */
+	public int depth(TreeNode node) {
+		return depth[numberOf(node)];
+	}
+
+	/**
+	 * @param node a node
+	 * @return the number of nodes in the sub-tree starting at this node (including this node)
+	 */
+	public int subTreeSize(TreeNode node) {
+		return size[numberOf(node)];
+	}
+	
+	/**
+	 * @param node a node
+	 * @return the pre-order number of the last node of the sub-tree starting at this node, i.e.
+	 * the sub-tree spans numbers {@code indexOf(node)..subTreeEnd(node)}
+	 */
+	public int subTreeEnd(TreeNode node) {
+		int i = numberOf(node);
+		return i+size[i]-1;
+	}
+
+	/**
+	 * The sub-tree starting at a node (this node included), in pre-order. This is a view of the
+	 * index, obtained in constant time.
+	 * 
+	 * @param node a node
+	 * @return the nodes of the sub-tree, as an immutable list
+	 */
+	public List<N> subTree(TreeNode node) {
+		int i = numberOf(node);
+		return Collections.unmodifiableList(Arrays.asList(nodes).subList(i,i+size[i]));
+	}
+	
+	/**
+	 * Ancestor test. A node is not its own ancestor.
+	 * 
+	 * @param ancestor the presumed ancestor
+	 * @param node the presumed descendant
+	 * @return {@code true} if {@code ancestor} is the parent of {@code node}, or the parent of
+	 * its parent, etc.
+	 */
+	public boolean isAncestor(TreeNode ancestor, TreeNode node) {
+		int i = numberOf(ancestor);
+		int j = numberOf(node);
+		return (i!=j) && covers(i,j);
+	}
+	
+	// the binary lifting table
+	private int[][] up() {
+		if (up==null) {
+			int maxDepth = 0;
+			for (int d:depth)
+				maxDepth = Math.max(maxDepth,d);
+			int levels = Math.max(1,32-Integer.numberOfLeadingZeros(maxDepth));
+			int[][] table = new int[levels][];
+			table[0] = parent;
+			for (int k=1; k<levels; k++) {
+				int[] previous = table[k-1];
+				int[] current = new int[nodes.length];
+				for (int i=0; i<current.length; i++)
+					current[i] = previous[i]<0 ? -1 : previous[previous[i]];
+				table[k] = current;
+			}
+			up = table;
+		}
+		return up;
+	}
+	
+	/**
+	 * The ancestor of a node a number of levels up.
+	 * 
+	 * @param node a node
+	 * @param levels the number of levels up (0 returns the node itself, 1 its parent, etc.)
+	 * @return the ancestor, {@code null} if {@code levels} is larger than the node depth
+	 */
+	public N ancestor(TreeNode node, int levels) {
+		int i = numberOf(node);
+		if (levels>depth[i])
+			return null;
+		int[][] table = up();
+		for (int k=0; levels>0; k++, levels>>>=1)
+			if ((levels&1)!=0)
+				i = table[k][i];
+		return nodes[i];
+	}
+	
+	/**
+	 * Finds the lowest common ancestor of two nodes, i.e. the deepest node which is an
+	 * ancestor of both nodes (a node being considered its own ancestor here).
+	 * 
+	 * @param a a node
+	 * @param b another node
+	 * @return the lowest common ancestor of {@code a} and {@code b}, or {@code null} if they 
+	 * have different roots
+	 */
+	public N lowestCommonAncestor(TreeNode a, TreeNode b) {
+		int i = numberOf(a);
+		int j = numberOf(b);
+		if (covers(i,j))
+			return nodes[i];
+		if (covers(j,i))
+			return nodes[j];
+		// lift i to the highest ancestor which is not an ancestor of j
+		int[][] table = up();
+		for (int k=table.length-1; k>=0; k--) {
+			int anc = table[k][i];
+			if ((anc>=0) && !covers(anc,j))
+				i = anc;
+		}
+		return parent[i]<0 ? null : nodes[parent[i]];
+	}
+
+}
@@ -30,10 +30,14 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * The node interface to use in {@link Tree}s.
@@ -107,22 +111,110 @@ public interface TreeNode extends Node {
 	 */
 	public int nChildren();
 	
-	// recursive
-	private void subTree(List<TreeNode> list, TreeNode parent) {
-		list.add(parent);
-		if (parent.hasChildren())
-			for (TreeNode tn:parent.getChildren())
-				subTree(list,tn);
+	/**
+	 * The orders in which a sub-tree can be walked through.
+	 */
+	public static enum walkOrder {
+		/** depth-first, every node being visited before its children */
+		preOrder,
+		/** depth-first, every node being visited after its children */
+		postOrder,
+		/** breadth-first, i.e. level by level */
+		breadthFirst;
+	}
+	
+	/**
+	 * <p>Walks through the sub-tree starting at this instance (this node included), calling a
+	 * visitor on every node. The walk stops as soon as the visitor returns {@code false}.</p>
+	 * <p>The walk is not recursive, so that it works on very deep trees. It takes linear time and
+	 * only allocates a stack (or queue) of the size of the tree depth (or width).</p>
+	 * 
+	 * @param order the order in which nodes are visited
+	 * @param visitor the action to apply on every node, returning {@code false} to stop the walk
+	 * @return {@code true} if all nodes were visited, {@code false} if the walk was stopped
+	 */
+	public default boolean walk(walkOrder order, Predicate<? super TreeNode> visitor) {
+		switch (order) {
+		case preOrder:
+			return preOrderWalk(this,visitor);
+		case postOrder:
+			return postOrderWalk(this,visitor);
+		case breadthFirst:
+			return breadthFirstWalk(this,visitor);
+		default:
+			throw new UnsupportedOperationException("Invalid walk order for tree walk");
+		}
+	}
+	
+	private static boolean preOrderWalk(TreeNode root, Predicate<? super TreeNode> visitor) {
+		if (!visitor.test(root))
+			return false;
+		Deque<Iterator<? extends TreeNode>> stack = new ArrayDeque<>();
+		if (root.hasChildren())
+			stack.push(root.getChildren().iterator());
+		while (!stack.isEmpty()) {
+			Iterator<? extends TreeNode> it = stack.peek();
+			if (it.hasNext()) {
+				TreeNode node = it.next();
+				if (!visitor.test(node))
+					return false;
+				if (node.hasChildren())
+					stack.push(node.getChildren().iterator());
+			}
+			else
+				stack.pop();
+		}
+		return true;
+	}
+
+	private static boolean postOrderWalk(TreeNode root, Predicate<? super TreeNode> visitor) {
+		// nodes waiting for their children to be visited, with their children iterators
+		Deque<TreeNode> parents = new ArrayDeque<>();
+		Deque<Iterator<? extends TreeNode>> stack = new ArrayDeque<>();
+		parents.push(root);
+		stack.push(root.getChildren().iterator());
+		while (!stack.isEmpty()) {
+			Iterator<? extends TreeNode> it = stack.peek();
+			if (it.hasNext()) {
+				TreeNode node = it.next();
+				if (node.hasChildren()) {
+					parents.push(node);
+					stack.push(node.getChildren().iterator());
+				}
+				else if (!visitor.test(node))
+					return false;
+			}
+			else {
+				stack.pop();
+				if (!visitor.test(parents.pop()))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean breadthFirstWalk(TreeNode root, Predicate<? super TreeNode> visitor) {
+		Deque<TreeNode> queue = new ArrayDeque<>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			TreeNode node = queue.poll();
+			if (!visitor.test(node))
+				return false;
+			if (node.hasChildren())
+				queue.addAll(node.getChildren());
+		}
+		return true;
 	}
 	
 	/**
-	 * Get all the sub-tree starting at this instance.
+	 * Get all the sub-tree starting at this instance, in pre-order (cf. 
+	 * {@link TreeNode#walk(walkOrder, Predicate) walk(...)}).
 	 * 
 	 * @return the subtree starting at this node (=this node + all its children's children)
 	 */
 	public default Collection<? extends TreeNode> subTree() {
-		List<TreeNode> result = new LinkedList<TreeNode>();
-		subTree(result,this);
+		List<TreeNode> result = new ArrayList<TreeNode>();
+		walk(walkOrder.preOrder,(n)->result.add(n));
 		return Collections.unmodifiableCollection(result);
 	}
 	
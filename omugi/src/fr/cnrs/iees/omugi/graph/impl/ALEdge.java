@@ -32,7 +32,7 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import fr.cnrs.iees.omugi.graph.Direction;
@@ -118,12 +118,9 @@ public class ALEdge extends ElementAdapter implements Edge {
 
 	@Override
 	public Collection<? extends Node> traversal(int distance) {
-		int dist=distance;
-		Collection<? extends Node> result1 = start.traversal(distance);
-		Collection<? extends Node> result2 = end.traversal(dist);
-		Set<Node> result = new HashSet<Node>();
-		result.addAll(result1);
-		result.addAll(result2);
+		// both traversals are breadth-first, hence linear in the number of nodes
+		Set<Node> result = new LinkedHashSet<Node>(start.traversal(distance));
+		result.addAll(end.traversal(distance));
 		return Collections.unmodifiableCollection(result);
 	}
 
@@ -205,6 +202,16 @@ public class ALEdge extends ElementAdapter implements Edge {
 
 	@Override
 	public void rename(String oldId, String newId) {
-		id.rename(oldId, newId);
+		// graphs index edges by id
+		if (start!=null)
+			start.outEdgeChanged(this,false);
+		// re-indexed under the old id if renaming fails
+		try {
+			id.rename(oldId, newId);
+		}
+		finally {
+			if (start!=null)
+				start.outEdgeChanged(this,true);
+		}
 	}	
 }
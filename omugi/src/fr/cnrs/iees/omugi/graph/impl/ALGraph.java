@@ -34,6 +34,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import au.edu.anu.omhtk.collections.QuickListOfLists;
 import fr.cnrs.iees.omugi.graph.*;
 
@@ -55,7 +56,9 @@ import fr.cnrs.iees.omugi.graph.*;
 public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 
 	/** the adjacency list (= list of all nodes, each node storing its edges */
-	private Map<String,N> nodes = new HashMap<>();
+	private Map<String,N> nodes;
+	/** the edges of this graph, indexed by id (maintained through edge events) */
+	private Map<String,E> edgeIndex;
 	
 	private GraphFactory factory = null;
 	
@@ -65,7 +68,21 @@ public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 	 * @param nfactory the factory to use to populate this graph with nodes and edges
 	 */
 	public ALGraph(GraphFactory nfactory) {
+		this(nfactory,new HashMap<>(),new HashMap<>());
+	}
+	
+	/**
+	 * For descendants: instantiate a graph with specific (empty) maps to store its nodes and 
+	 * edges.
+	 * 
+	 * @param nfactory the factory to use to populate this graph with nodes and edges
+	 * @param nodeMap the map of nodes, indexed by id
+	 * @param edgeMap the map of edges, indexed by id
+	 */
+	protected ALGraph(GraphFactory nfactory, Map<String,N> nodeMap, Map<String,E> edgeMap) {
 		super();
+		nodes = nodeMap;
+		edgeIndex = edgeMap;
 		factory = nfactory;
 		factory.manageGraph(this);
 	}
@@ -91,7 +108,7 @@ public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 
 	@Override
 	public boolean contains(N node) {
-		return nodes.containsKey(node.id());
+		return (node!=null) && (nodes.get(node.id())==node);
 	}
 
 	// Textable
@@ -103,10 +120,9 @@ public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 		return getClass().getSimpleName()+ptr; 
 	}
 
-	// slow
 	@Override
 	public int nEdges() {
-		return countEdges(nodes.values());
+		return edgeIndex.size();
 	}
 
 	@Override
@@ -114,16 +130,75 @@ public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 		return factory;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public void addNode(N node) {
 		nodes.put(node.id(),node);
+		for (ALEdge e:node.edges(Direction.OUT))
+			edgeIndex.put(e.id(),(E) e);
 	}
 
 	@Override
 	public void removeNode(N node) {
-		nodes.remove(node.id());		
+		if (nodes.remove(node.id(),node))
+			for (ALEdge e:node.edges(Direction.OUT))
+				edgeIndex.remove(e.id(),e);
+	}
+
+	/**
+	 * Actions taken when an edge is added to the {@code OUT} edges of a node (called by the
+	 * factory). The edge is indexed if the node belongs to this graph.
+	 * 
+	 * @param node the start node of the edge
+	 * @param edge the edge
+	 */
+	public void onEdgeConnected(N node, E edge) {
+		if (nodes.get(node.id())==node)
+			edgeIndex.put(edge.id(),edge);
+	}
+
+	/**
+	 * Actions taken when an edge is removed from the {@code OUT} edges of a node (called by 
+	 * the factory). The edge is removed from the index.
+	 * 
+	 * @param node the (former) start node of the edge
+	 * @param edge the edge
+	 */
+	public void onEdgeDisconnected(N node, E edge) {
+		edgeIndex.remove(edge.id(),edge);
+	}
+	
+	/**
+	 * Adds a batch of nodes and indexes a batch of edges (called by the factory at the end of a
+	 * bulk build). Edges are only indexed if their start node belongs to this graph and
+	 * they are still connected to it.
+	 * 
+	 * @param newNodes the nodes to add
+	 * @param newEdges the edges to index
+	 */
+	@SuppressWarnings("unchecked")
+	void bulkAdd(Collection<? extends ALNode> newNodes, Collection<? extends ALEdge> newEdges) {
+		nodes = presized(nodes,newNodes.size());
+		edgeIndex = presized(edgeIndex,newEdges.size());
+		for (ALNode n:newNodes)
+			nodes.put(n.id(),(N) n);
+		for (ALEdge e:newEdges) {
+			ALNode start = e.startNode();
+			if ((nodes.get(start.id())==start) && start.edgeList(Direction.OUT).contains(e))
+				edgeIndex.put(e.id(),(E) e);
+		}
 	}
 	
+	// a copy of map with room for extra entries - concurrent maps may be in use by other
+	// threads and are never replaced
+	static <K,V> Map<K,V> presized(Map<K,V> map, int extra) {
+		if ((extra<map.size()) || (map instanceof ConcurrentMap))
+			return map;
+		Map<K,V> result = new HashMap<>(2*(map.size()+extra));
+		result.putAll(map);
+		return result;
+	}
+
 	protected static int countEdges(Collection<? extends ALNode> nodes) {
 		int n=0;
 		for (ALNode node:nodes)
@@ -149,13 +224,9 @@ public class ALGraph<N extends ALNode,E extends ALEdge> implements Graph<N,E> {
 		return nodes.get(id);
 	}
 
-	// slow and inefficient in this implementation
 	@Override
 	public E findEdge(String id) {
-		for (E e:edges())
-			if (e.id().equals(id))
-				return e;
-		return null;
+		return edgeIndex.get(id);
 	}
 
 }
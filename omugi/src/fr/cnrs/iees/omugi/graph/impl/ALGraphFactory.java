@@ -113,9 +113,58 @@ public class ALGraphFactory extends GraphFactoryAdapter {
 		graphs.remove(graph);
 	}
 
+	@Override
+	protected void onEdgeConnected(ALNode node, ALEdge edge) {
+		for (ALGraph<ALNode,ALEdge> g:graphs)
+			g.onEdgeConnected(node,edge);
+	}
+
+	@Override
+	protected void onEdgeDisconnected(ALNode node, ALEdge edge) {
+		for (ALGraph<ALNode,ALEdge> g:graphs)
+			g.onEdgeDisconnected(node,edge);
+	}
+
 	private void addNodeToGraphs(ALNode node) {
+		if (!deferNode(node))
+			for (ALGraph<ALNode,ALEdge> g:graphs)
+				g.addNode(node);
+	}
+
+	@Override
+	protected void onBulkBuildEnded(List<ALNode> nodes, List<ALEdge> edges) {
 		for (ALGraph<ALNode,ALEdge> g:graphs)
-			g.addNode(node);
+			g.bulkAdd(nodes,edges);
+	}
+
+	/**
+	 * Makes a batch of {@link ALNode}s. Ids are assigned in bulk by 
+	 * {@link IdentityScope#newIds(int, String)} and nodes are added to the managed graphs in
+	 * one go (cf. {@link GraphFactoryAdapter#beginBulkBuild(int, int) beginBulkBuild(...)}).
+	 * 
+	 * @param n the number of nodes to make
+	 * @param proposedId a base for the node ids
+	 * @return the new nodes
+	 */
+	public ALNode[] makeNodes(int n, String proposedId) {
+		if (n<0)
+			throw new IllegalArgumentException("Negative number of nodes: "+n);
+		boolean bulk = isBulkBuilding();
+		if (!bulk)
+			beginBulkBuild(n,0);
+		try {
+			Identity[] ids = scope.newIds(n,proposedId);
+			ALNode[] result = new ALNode[n];
+			for (int i=0; i<n; i++) {
+				result[i] = new ALNode(ids[i],this);
+				addNodeToGraphs(result[i]);
+			}
+			return result;
+		}
+		finally {
+			if (!bulk)
+				endBulkBuild();
+		}
 	}
 
 	@Override
@@ -32,12 +32,12 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import fr.cnrs.iees.omugi.graph.DataHolder;
 import fr.cnrs.iees.omugi.graph.Direction;
@@ -55,7 +55,8 @@ import fr.cnrs.iees.omugi.properties.ReadOnlyPropertyList;
  * AL stands for "Adjacency List". This class of node records its links to its neighbouring nodes
  * as a list of {@link ALEdge}s. By default, the edges are directed.</p>
  * 
- * <p>Internally, edges are stored in two {@link Set}s, so that duplicate edges are not permitted.
+ * <p>Internally, edges are stored in two compact collections (arrays for low-degree nodes, hash
+ * sets for high-degree nodes), so that duplicate edges are not permitted.
  * The test for equality between edges is based on their unique identifier {@link Edge#id()}.
  * The constructor is hidden (protected): only {@link ALGraphFactory} can instantiate 
  * {@code ALNode}s.</p>
@@ -70,7 +71,8 @@ public class ALNode extends ElementAdapter implements Node {
 	private GraphFactory factory;
 	
 	// the adjacency list for this node, directed.
-	protected EnumMap<Direction,Collection<ALEdge>> edges = null;
+	private final EdgeList inEdges;
+	private final EdgeList outEdges;
 	
 	/**
 	 * This constructor must only be invoked through a {@link NodeFactory}.
@@ -81,18 +83,37 @@ public class ALNode extends ElementAdapter implements Node {
 	protected ALNode(Identity id, GraphFactory factory) {
 		super(id);
 		this.factory = factory;
-		edges = new EnumMap<Direction,Collection<ALEdge>>(Direction.class);
-		// Now using sets to prevent accidental insertion of duplicate edges (duplicates sensu .equals())
-		edges.put(Direction.IN,new HashSet<>());
-		edges.put(Direction.OUT,new HashSet<>());		
+		inEdges = newEdgeList(factory);
+		outEdges = newEdgeList(factory);
+	}
+	
+	// the edge storage required by the factory (e.g. thread-safe)
+	private static EdgeList newEdgeList(GraphFactory factory) {
+		if (factory instanceof GraphFactoryAdapter)
+			return ((GraphFactoryAdapter)factory).newEdgeList();
+		return new EdgeList();
 	}
 	
 	// helper methods
+
+	/**
+	 * Direct (modifiable) access to the edges of this node, for descendants. Duplicate edges
+	 * (sensu {@code equals()}) are rejected.
+	 * 
+	 * @param direction the direction of the edges
+	 * @return the edge storage for this direction
+	 */
+	protected final Collection<ALEdge> edgeList(Direction direction) {
+		return direction==Direction.IN ? inEdges : outEdges;
+	}
 	
 	// remove an edge in a given direction
 	// caution: do not use while looping (use iterator.remove() for that)
 	boolean removeEdge(ALEdge edge, Direction direction) {
-		return edges.get(direction).remove(edge);
+		boolean result = edgeList(direction).remove(edge);
+		if (result && (direction==Direction.OUT))
+			outEdgeChanged(edge,false);
+		return result;
 	}
 
 	// add an edge into an edge list - NB for housekeeping only
@@ -101,7 +122,41 @@ public class ALNode extends ElementAdapter implements Node {
 			return false;
 		if ((direction==Direction.OUT)&&(!edge.startNode().equals(this)))
 			return false;
-		return edges.get(direction).add(edge);
+		GraphFactoryAdapter bulkFactory = bulkFactory();
+		if (bulkFactory!=null) {
+			// no duplicate check and deferred graph bookkeeping
+			(direction==Direction.IN ? inEdges : outEdges).addUnchecked(edge);
+			if (direction==Direction.OUT)
+				bulkFactory.deferEdge(edge);
+			return true;
+		}
+		boolean result = edgeList(direction).add(edge);
+		if (result && (direction==Direction.OUT))
+			outEdgeChanged(edge,true);
+		return result;
+	}
+	
+	// the factory, if it is in bulk-build mode
+	private GraphFactoryAdapter bulkFactory() {
+		if ((factory instanceof GraphFactoryAdapter) && ((GraphFactoryAdapter)factory).isBulkBuilding())
+			return (GraphFactoryAdapter) factory;
+		return null;
+	}
+	
+	// makes room for more edges - NB for bulk build only
+	final void ensureEdgeCapacity(Direction direction, int extra) {
+		(direction==Direction.IN ? inEdges : outEdges).ensureCapacity(extra);
+	}
+
+	// tells the graphs built by the factory that an OUT edge was added or removed, so that
+	// they can maintain their edge index
+	final void outEdgeChanged(ALEdge edge, boolean connected) {
+		if (factory instanceof GraphFactoryAdapter) {
+			if (connected)
+				((GraphFactoryAdapter)factory).onEdgeConnected(this,edge);
+			else
+				((GraphFactoryAdapter)factory).onEdgeDisconnected(this,edge);
+		}
 	}
 
 
@@ -109,30 +164,33 @@ public class ALNode extends ElementAdapter implements Node {
 	
 	@Override
 	public void disconnect() {
-		for (ALEdge e:edges.get(Direction.IN)) 
+		for (ALEdge e:edgeList(Direction.IN)) 
 			e.startNode().removeEdge(e,Direction.OUT);
-		for (ALEdge e:edges.get(Direction.OUT)) 
+		for (ALEdge e:edgeList(Direction.OUT)) {
 			e.endNode().removeEdge(e,Direction.IN);
-		edges.get(Direction.IN).clear();
-		edges.get(Direction.OUT).clear();
+			outEdgeChanged(e,false);
+		}
+		edgeList(Direction.IN).clear();
+		edgeList(Direction.OUT).clear();
 	}
 
 	// remember: in IN edges, I am the end node; in OUT edges, I am the start node.
 	// NB: after a call to this method, this Edge is free-floating - no more references.
 	@Override
 	public void disconnectFrom(Node node) {
-		for (Iterator<ALEdge> it = edges.get(Direction.IN).iterator(); it.hasNext();) {
+		for (Iterator<ALEdge> it = edgeList(Direction.IN).iterator(); it.hasNext();) {
 			ALEdge e = it.next();
 			if (e.startNode().equals(node)) {
 				e.startNode().removeEdge(e, Direction.OUT);
 				it.remove(); // only safe way to remove while looping on the list
 			}
 		}
-		for (Iterator<ALEdge> it = edges.get(Direction.OUT).iterator(); it.hasNext();) {
+		for (Iterator<ALEdge> it = edgeList(Direction.OUT).iterator(); it.hasNext();) {
 			ALEdge e = it.next();
 			if (e.endNode().equals(node)) {
 				e.endNode().removeEdge(e, Direction.IN);
 				it.remove();
+				outEdgeChanged(e,false);
 			}
 		}
 	}
@@ -140,7 +198,7 @@ public class ALNode extends ElementAdapter implements Node {
 	@Override
 	public void disconnectFrom(Direction direction, Node node) {
 		if (direction.equals(Direction.IN)) {
-			for (Iterator<ALEdge> it = edges.get(Direction.IN).iterator(); it.hasNext();) {
+			for (Iterator<ALEdge> it = edgeList(Direction.IN).iterator(); it.hasNext();) {
 				ALEdge e = it.next();
 				if (e.startNode().equals(node)) {
 					e.startNode().removeEdge(e, Direction.OUT);
@@ -149,11 +207,12 @@ public class ALNode extends ElementAdapter implements Node {
 			}
 		}
 		else {
-			for (Iterator<ALEdge> it = edges.get(Direction.OUT).iterator(); it.hasNext();) {
+			for (Iterator<ALEdge> it = edgeList(Direction.OUT).iterator(); it.hasNext();) {
 				ALEdge e = it.next();
 				if (e.endNode().equals(node)) {
 					e.endNode().removeEdge(e, Direction.IN);
 					it.remove();
+					outEdgeChanged(e,false);
 				}
 			}
 		}
@@ -182,36 +241,36 @@ public class ALNode extends ElementAdapter implements Node {
 
 	@Override
 	public boolean isLeaf() {
-		return edges.get(Direction.OUT).isEmpty();
+		return edgeList(Direction.OUT).isEmpty();
 	}
 
 	@Override
 	public boolean isRoot() {
-		return edges.get(Direction.IN).isEmpty();
+		return edgeList(Direction.IN).isEmpty();
 	}
 
 	@Override
 	public int degree(Direction direction) {
-		return edges.get(direction).size();
+		return edgeList(direction).size();
 	}
 
 	@Override
 	public Collection<? extends ALEdge> edges(Direction direction) {
-		return Collections.unmodifiableCollection(edges.get(direction));
+		return Collections.unmodifiableCollection(edgeList(direction));
 	}
 
 	@Override
 	public Collection<? extends Edge> edges() {
 		Set<Edge> result = new HashSet<>();
-		result.addAll(edges.get(Direction.IN));
-		result.addAll(edges.get(Direction.OUT));
+		result.addAll(edgeList(Direction.IN));
+		result.addAll(edgeList(Direction.OUT));
 		return Collections.unmodifiableCollection(result);
 	}
 
 	@Override
 	public Collection<? extends Node> nodes(Direction direction) {
 		List<Node> list = new LinkedList<>();
-		for (ALEdge e:edges.get(direction)) 
+		for (ALEdge e:edgeList(direction)) 
 			list.add(e.otherNode(this));
 		return Collections.unmodifiableCollection(list);
 	}
@@ -219,13 +278,23 @@ public class ALNode extends ElementAdapter implements Node {
 	@Override
 	public Collection<? extends Node> nodes() {
 		Set<Node> list = new HashSet<>();
-		for (ALEdge e:edges.get(Direction.IN))
+		for (ALEdge e:edgeList(Direction.IN))
 			list.add(e.startNode());
-		for (ALEdge e:edges.get(Direction.OUT))
+		for (ALEdge e:edgeList(Direction.OUT))
 			list.add(e.endNode());
 		return Collections.unmodifiableCollection(list);
 	}
 
+	@Override
+	public void forEachEdge(Direction direction, Consumer<? super Edge> action) {
+		edgeList(direction).forEach(action);
+	}
+
+	@Override
+	public void forEachNeighbour(Direction direction, Consumer<? super Node> action) {
+		((EdgeList)edgeList(direction)).forEachNode(direction,action);
+	}
+
 	@Override
 	public Edge connectTo(Direction direction, Node node) {
 		Edge result = null;
@@ -0,0 +1,157 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+import fr.cnrs.iees.omugi.graph.Node;
+
+/**
+ * <p>The thread-safe edge storage used by the nodes made by {@link ConcurrentGraphFactory}.</p>
+ * 
+ * <p>Every list is guarded by its own lock, so that threads working on different nodes never
+ * wait for each other. The lock is never held while calling external code: iterations 
+ * ({@code iterator()}, {@code forEach(...)}, {@code forEachNode(...)}) work on a snapshot of the
+ * list taken when they start. They never throw {@link java.util.ConcurrentModificationException}
+ * and do not reflect later changes. {@code Iterator.remove()} removes the edge from the list 
+ * itself.</p>
+ */
+final class ConcurrentEdgeList extends EdgeList {
+
+	private final Object lock = new Object();
+
+	ConcurrentEdgeList() {
+		super();
+	}
+
+	// a copy of the current content
+	private List<ALEdge> snapshot() {
+		synchronized (lock) {
+			List<ALEdge> result = new ArrayList<>(super.size());
+			super.forEach(result::add);
+			return result;
+		}
+	}
+
+	@Override
+	public boolean add(ALEdge edge) {
+		synchronized (lock) {
+			return super.add(edge);
+		}
+	}
+
+	@Override
+	void addUnchecked(ALEdge edge) {
+		synchronized (lock) {
+			super.addUnchecked(edge);
+		}
+	}
+
+	@Override
+	void ensureCapacity(int extra) {
+		synchronized (lock) {
+			super.ensureCapacity(extra);
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		synchronized (lock) {
+			return super.remove(o);
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		synchronized (lock) {
+			return super.contains(o);
+		}
+	}
+
+	@Override
+	public int size() {
+		synchronized (lock) {
+			return super.size();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size()==0;
+	}
+
+	@Override
+	public void clear() {
+		synchronized (lock) {
+			super.clear();
+		}
+	}
+
+	@Override
+	public void forEach(Consumer<? super ALEdge> action) {
+		snapshot().forEach(action);
+	}
+
+	@Override
+	void forEachNode(Direction direction, Consumer<? super Node> action) {
+		for (ALEdge e:snapshot())
+			action.accept(direction==Direction.IN ? e.startNode() : e.endNode());
+	}
+
+	@Override
+	public Iterator<ALEdge> iterator() {
+		Iterator<ALEdge> it = snapshot().iterator();
+		return new Iterator<ALEdge>() {
+			private ALEdge last = null;
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+			@Override
+			public ALEdge next() {
+				last = it.next();
+				return last;
+			}
+			@Override
+			public void remove() {
+				if (last==null)
+					throw new IllegalStateException();
+				ConcurrentEdgeList.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,80 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnrs.iees.omugi.graph.GraphFactory;
+
+/**
+ * <p>A thread-safe {@link ALGraph}: many threads can add nodes to and connect edges in this
+ * graph at the same time, without any global lock. Nodes and edges are indexed in
+ * {@link ConcurrentHashMap}s. To be thread-safe, the graph must be built with a
+ * {@link ConcurrentGraphFactory}, which makes nodes with a thread-safe edge storage (every
+ * node guarding its edge lists with its own lock) and ids with a thread-safe scope.</p>
+ * 
+ * <p>Consistency model (what a thread sees while other threads modify the graph):</p>
+ * <ul>
+ * <li>{@link #findNode(String) findNode(...)}, {@link #findEdge(String) findEdge(...)} and
+ * {@link #contains(ALNode) contains(...)} see every change completed before they are 
+ * called;</li>
+ * <li>the collections returned by {@link #nodes()} and {@link #edges()} are <em>weakly 
+ * consistent</em>: they never throw {@link java.util.ConcurrentModificationException}, return
+ * every element at most once and may or may not reflect changes made after they were
+ * obtained;</li>
+ * <li>iterations over the edges or neighbours of a node work on a snapshot of its edge list
+ * taken when the iteration starts;</li>
+ * <li>{@link #nNodes()} and {@link #nEdges()} are only estimates while the graph is being
+ * modified;</li>
+ * <li>an edge is added to its start node first, and then to its end node: another thread may 
+ * briefly see it in the {@code OUT} edges of its start node only;</li>
+ * <li>disconnecting or removing a node while other threads connect edges to it is not
+ * supported.</li>
+ * </ul>
+ * <p>Graph algorithms (e.g. searches, components, snapshots) should be run when no thread
+ * is modifying the graph.</p>
+ * 
+ * @param <N> The implementation of {@link fr.cnrs.iees.omugi.graph.Node Node} used in this graph ({@code ALNode} or a sub-class) 
+ * @param <E> The implementation of {@link fr.cnrs.iees.omugi.graph.Edge Edge} used in this graph ({@code ALEdge} or a sub-class)
+ */
+public class ConcurrentGraph<N extends ALNode,E extends ALEdge> extends ALGraph<N,E> {
+
+	/**
+	 * Instantiate a graph with a {@code GraphFactory}. Use a {@link ConcurrentGraphFactory} for
+	 * this graph to be thread-safe.
+	 * 
+	 * @param nfactory the factory to use to populate this graph with nodes and edges
+	 */
+	public ConcurrentGraph(GraphFactory nfactory) {
+		super(nfactory,new ConcurrentHashMap<>(),new ConcurrentHashMap<>());
+	}
+
+}
@@ -0,0 +1,126 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnrs.iees.omugi.identity.IdentityScope;
+import fr.cnrs.iees.omugi.identity.impl.ConcurrentLocalScope;
+
+/**
+ * <p>The factory for {@link ConcurrentGraph}s (node and edge factory). All its methods can be
+ * called from many threads at the same time:</p>
+ * <ul>
+ * <li>ids are made by a {@link ConcurrentLocalScope} (unless another scope is passed to the
+ * constructor, in which case it must be thread-safe too);</li>
+ * <li>the nodes it makes store their edges in lists guarded by a lock per list, so that edges
+ * can be connected to different nodes in parallel;</li>
+ * <li>the graphs it manages are notified of new nodes and edges immediately.</li>
+ * </ul>
+ * <p><em>Bulk-build</em> mode (cf. {@link GraphFactoryAdapter#beginBulkBuild(int, int)
+ * beginBulkBuild(...)}) is a single-thread optimisation which does not apply here: 
+ * {@link ConcurrentGraphFactory#beginBulkBuild(int, int) beginBulkBuild(...)} does nothing, 
+ * and batch methods like {@link ALGraphFactory#makeNodes(int, String) makeNodes(...)} or
+ * {@link GraphFactoryAdapter#makeEdges(fr.cnrs.iees.omugi.graph.Node[], int[], int[], String) 
+ * makeEdges(...)} add their nodes and edges one by one.</p>
+ * 
+ * <p>Iteration over graphs and nodes during modification follows the consistency model
+ * described in {@link ConcurrentGraph}.</p>
+ */
+public class ConcurrentGraphFactory extends ALGraphFactory {
+
+	// graphs may be added while other threads make nodes
+	{
+		graphs = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Basic constructor, only requires a scope
+	 * 
+	 * @param scopeName the scope identifier, e.g. "MyGraphFactory"
+	 */
+	public ConcurrentGraphFactory(String scopeName) {
+		super(new ConcurrentLocalScope(scopeName));
+	}
+
+	/**
+	 * Basic constructor, only requires a scope
+	 * 
+	 * @param scope the scope instance, which must be thread-safe
+	 */
+	public ConcurrentGraphFactory(IdentityScope scope) {
+		super(scope);
+	}
+
+	/**
+	 * Basic constructor with default scope "CGF" (for "concurrent graph factory").
+	 */
+	public ConcurrentGraphFactory() {
+		this("CGF");
+	}
+
+	/**
+	 * Constructor with labels for sub-classes of {@link ALNode} and {@link ALEdge}
+	 * 
+	 * @param scopeName the scope identifier, e.g. "MyGraphFactory"
+	 * @param labels a map of (labels,class names) associating a label to the valid java class name of a 
+	 * descendant of {@code ALNode} or {@code ALEdge}
+	 */
+	public ConcurrentGraphFactory(String scopeName,Map<String,String> labels) {
+		super(new ConcurrentLocalScope(scopeName),labels);
+	}
+
+	/**
+	 * Constructor with labels for sub-classes of {@link ALNode} and {@link ALEdge}
+	 * 
+	 * @param scope the scope instance, which must be thread-safe
+	 * @param labels a map of (labels,class names) associating a label to the valid java class name of a 
+	 * descendant of {@code ALNode} or {@code ALEdge}
+	 */
+	public ConcurrentGraphFactory(IdentityScope scope,Map<String,String> labels) {
+		super(scope,labels);
+	}
+
+	@Override
+	EdgeList newEdgeList() {
+		return new ConcurrentEdgeList();
+	}
+
+	/**
+	 * Does nothing: nodes and edges are always added to graphs immediately.
+	 */
+	@Override
+	public void beginBulkBuild(int expectedNodes, int expectedEdges) {
+		// do nothing
+	}
+
+}
@@ -0,0 +1,236 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+import fr.cnrs.iees.omugi.graph.Node;
+
+/**
+ * <p>The compact edge storage used by {@link ALNode}: a collection of {@link ALEdge}s without
+ * duplicates (sensu {@code equals()}).</p>
+ * 
+ * <p>Most nodes have a low degree: edges are stored in a growable array and duplicates are
+ * detected by scanning it, which costs much less memory than a {@link java.util.HashSet}.
+ * Above {@link EdgeList#HASH_THRESHOLD} edges, the array is replaced by a {@link LinkedHashSet}
+ * to keep {@code contains(...)} and {@code remove(...)} fast.</p>
+ */
+class EdgeList extends AbstractCollection<ALEdge> {
+
+	/** the number of edges above which the storage switches to a hash set */
+	static final int HASH_THRESHOLD = 16;
+
+	private static final ALEdge[] EMPTY = new ALEdge[0];
+	
+	// array storage (low degree)
+	private ALEdge[] items = EMPTY;
+	private int size = 0;
+	// hashed storage (high degree) - null until promoted
+	private Collection<ALEdge> hashed = null;
+	// to detect concurrent modifications in array storage
+	private int modCount = 0;
+	
+	EdgeList() {
+		super();
+	}
+	
+	private int indexOf(Object o) {
+		for (int i=0; i<size; i++)
+			if (items[i].equals(o))
+				return i;
+		return -1;
+	}
+	
+	private void removeAt(int i) {
+		size--;
+		System.arraycopy(items,i+1,items,i,size-i);
+		items[size] = null;
+		modCount++;
+	}
+
+	@Override
+	public boolean add(ALEdge edge) {
+		if (hashed!=null)
+			return hashed.add(edge);
+		if (indexOf(edge)>=0)
+			return false;
+		if (size==HASH_THRESHOLD) {
+			hashed = new LinkedHashSet<>(Arrays.asList(items).subList(0,size));
+			items = EMPTY;
+			size = 0;
+			modCount++;
+			return hashed.add(edge);
+		}
+		if (size==items.length)
+			items = Arrays.copyOf(items,size==0 ? 2 : 2*size);
+		items[size++] = edge;
+		modCount++;
+		return true;
+	}
+
+	// adds an edge without checking for duplicates (bulk build)
+	void addUnchecked(ALEdge edge) {
+		if ((hashed!=null) || (size==HASH_THRESHOLD)) {
+			add(edge);
+			return;
+		}
+		if (size==items.length)
+			items = Arrays.copyOf(items,size==0 ? 2 : 2*size);
+		items[size++] = edge;
+		modCount++;
+	}
+	
+	// makes room for more edges (bulk build)
+	void ensureCapacity(int extra) {
+		if (hashed!=null)
+			return;
+		int capacity = size+extra;
+		if (capacity>HASH_THRESHOLD) {
+			hashed = new LinkedHashSet<>(2*capacity);
+			hashed.addAll(Arrays.asList(items).subList(0,size));
+			items = EMPTY;
+			size = 0;
+			modCount++;
+		}
+		else if (capacity>items.length)
+			items = Arrays.copyOf(items,capacity);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (hashed!=null)
+			return hashed.remove(o);
+		int i = indexOf(o);
+		if (i<0)
+			return false;
+		removeAt(i);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (hashed!=null)
+			return hashed.contains(o);
+		return indexOf(o)>=0;
+	}
+
+	@Override
+	public int size() {
+		if (hashed!=null)
+			return hashed.size();
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size()==0;
+	}
+
+	// back to (empty) array storage
+	@Override
+	public void clear() {
+		hashed = null;
+		items = EMPTY;
+		size = 0;
+		modCount++;
+	}
+
+	// no iterator in array storage
+	@Override
+	public void forEach(Consumer<? super ALEdge> action) {
+		if (hashed!=null)
+			hashed.forEach(action);
+		else
+			for (int i=0; i<size; i++)
+				action.accept(items[i]);
+	}
+	
+	/**
+	 * Applies an action to the other tip of every edge.
+	 * 
+	 * @param direction the direction of the edges relative to the node owning this list
+	 * @param action the action to apply
+	 */
+	void forEachNode(Direction direction, Consumer<? super Node> action) {
+		if (hashed!=null) {
+			for (ALEdge e:hashed)
+				action.accept(direction==Direction.IN ? e.startNode() : e.endNode());
+		}
+		else
+			for (int i=0; i<size; i++)
+				action.accept(direction==Direction.IN ? items[i].startNode() : items[i].endNode());
+	}
+
+	@Override
+	public Iterator<ALEdge> iterator() {
+		if (hashed!=null)
+			return hashed.iterator();
+		return new Iterator<ALEdge>() {
+			private int next = 0;
+			private int last = -1;
+			private int expectedModCount = modCount;
+			@Override
+			public boolean hasNext() {
+				// as in ArrayList: a concurrent change of size makes next() throw
+				return next!=size;
+			}
+			@Override
+			public ALEdge next() {
+				if (modCount!=expectedModCount)
+					throw new ConcurrentModificationException();
+				if (next>=size)
+					throw new NoSuchElementException();
+				last = next++;
+				return items[last];
+			}
+			@Override
+			public void remove() {
+				if (last<0)
+					throw new IllegalStateException();
+				if (modCount!=expectedModCount)
+					throw new ConcurrentModificationException();
+				removeAt(last);
+				next = last;
+				last = -1;
+				expectedModCount = modCount;
+			}
+		};
+	}
+
+}
@@ -53,6 +53,9 @@ public abstract class GraphFactoryAdapter
 	private static Logger log = Logging.getLogger(GraphFactoryAdapter.class);
 	protected Map<String,Class<? extends Edge>> edgeLabels = new HashMap<>();
 	protected Map<Class<? extends Edge>,String> edgeClassNames = new HashMap<>();
+	// the nodes and edges made since the start of a bulk build (null if not in bulk-build mode)
+	private List<ALNode> bulkNodes = null;
+	private List<ALEdge> bulkEdges = null;
 
 	protected GraphFactoryAdapter(IdentityScope scope) {
 		super(scope);
@@ -155,6 +158,162 @@ public abstract class GraphFactoryAdapter
 		return null;
 	}
 	
+	/**
+	 * Makes a batch of {@link ALEdge}s between nodes of an array. Ids are assigned in bulk by
+	 * {@link IdentityScope#newIds(int, String)} and edges are made in <em>bulk-build</em> mode
+	 * (cf. {@link GraphFactoryAdapter#beginBulkBuild(int, int) beginBulkBuild(...)}): the caller
+	 * vouches that the edges are not already connected to their nodes.
+	 * 
+	 * @param nodes the nodes to link, which must be {@link ALNode}s
+	 * @param start the index in {@code nodes} of the start node of every edge
+	 * @param end the index in {@code nodes} of the end node of every edge
+	 * @param proposedId a base for the edge ids
+	 * @return the new edges, in the order of {@code start} and {@code end}
+	 * @throws IllegalArgumentException if a node index is out of range (checked before any edge
+	 * is made)
+	 */
+	public ALEdge[] makeEdges(Node[] nodes, int[] start, int[] end, String proposedId) {
+		if (start.length!=end.length)
+			throw new IllegalArgumentException("Start and end node arrays must have the same length");
+		ALNode[] alNodes = new ALNode[nodes.length];
+		for (int i=0; i<nodes.length; i++)
+			if (nodes[i] instanceof ALNode)
+				alNodes[i] = (ALNode) nodes[i];
+			else
+				throw new IllegalArgumentException("ALEdge can only link ALNode descendants");
+		for (int k=0; k<start.length; k++) {
+			if ((start[k]<0)||(start[k]>=nodes.length))
+				throw new IllegalArgumentException("Start node index out of range: start["+k+"]="+start[k]);
+			if ((end[k]<0)||(end[k]>=nodes.length))
+				throw new IllegalArgumentException("End node index out of range: end["+k+"]="+end[k]);
+		}
+		boolean bulk = isBulkBuilding();
+		if (!bulk)
+			beginBulkBuild(0,start.length);
+		try {
+			// pre-size the edge lists of nodes
+			int[] outDegree = new int[nodes.length];
+			int[] inDegree = new int[nodes.length];
+			for (int k=0; k<start.length; k++) {
+				outDegree[start[k]]++;
+				inDegree[end[k]]++;
+			}
+			for (int i=0; i<nodes.length; i++) {
+				if (outDegree[i]>0)
+					alNodes[i].ensureEdgeCapacity(Direction.OUT,outDegree[i]);
+				if (inDegree[i]>0)
+					alNodes[i].ensureEdgeCapacity(Direction.IN,inDegree[i]);
+			}
+			Identity[] ids = scope.newIds(start.length,proposedId);
+			ALEdge[] result = new ALEdge[start.length];
+			for (int k=0; k<start.length; k++)
+				result[k] = new ALEdge(ids[k],alNodes[start[k]],alNodes[end[k]],this);
+			return result;
+		}
+		finally {
+			if (!bulk)
+				endBulkBuild();
+		}
+	}
+	
+	/**
+	 * <p>Switch this factory to <em>bulk-build</em> mode: until 
+	 * {@link GraphFactoryAdapter#endBulkBuild() endBulkBuild()} is called, nodes made by this
+	 * factory are not added to the graphs it manages, and edges connected to nodes made by this
+	 * factory are neither checked for duplicates nor indexed by the graphs. All this bookkeeping
+	 * is done in one go at the end of the build, with pre-sized maps. Use this when building large
+	 * graphs: the caller vouches that no edge is connected twice to the same node.</p>
+	 * <p>Calling this method while already in bulk-build mode has no effect.</p>
+	 * 
+	 * @param expectedNodes the expected number of new nodes
+	 * @param expectedEdges the expected number of new edges
+	 */
+	public void beginBulkBuild(int expectedNodes, int expectedEdges) {
+		if (bulkNodes==null) {
+			bulkNodes = new ArrayList<>(expectedNodes);
+			bulkEdges = new ArrayList<>(expectedEdges);
+		}
+	}
+
+	/**
+	 * Leave <em>bulk-build</em> mode (cf. {@link GraphFactoryAdapter#beginBulkBuild(int, int) 
+	 * beginBulkBuild(...)}) and update the graphs managed by this factory.
+	 */
+	public void endBulkBuild() {
+		if (bulkNodes!=null) {
+			List<ALNode> nodes = bulkNodes;
+			List<ALEdge> edges = bulkEdges;
+			bulkNodes = null;
+			bulkEdges = null;
+			onBulkBuildEnded(nodes,edges);
+		}
+	}
+
+	/**
+	 * @return {@code true} if this factory is in <em>bulk-build</em> mode
+	 */
+	public final boolean isBulkBuilding() {
+		return bulkNodes!=null;
+	}
+	
+	/**
+	 * For descendants: defers the addition of a new node to graphs if in <em>bulk-build</em> mode.
+	 * 
+	 * @param node the new node
+	 * @return {@code true} if the node was deferred, {@code false} if it must be added to graphs
+	 * immediately
+	 */
+	protected final boolean deferNode(ALNode node) {
+		if (bulkNodes==null)
+			return false;
+		bulkNodes.add(node);
+		return true;
+	}
+
+	// records an edge added to the OUT edges of a node in bulk-build mode
+	final void deferEdge(ALEdge edge) {
+		bulkEdges.add(edge);
+	}
+
+	// the edge storage for the nodes made by this factory
+	EdgeList newEdgeList() {
+		return new EdgeList();
+	}
+
+	/**
+	 * Actions taken at the end of a bulk build, e.g. adding nodes and indexing edges in the 
+	 * managed graphs. The default implementation does nothing.
+	 * 
+	 * @param nodes the nodes made during the bulk build
+	 * @param edges the edges added to the {@code OUT} edges of a node during the bulk build 
+	 * (they may have been disconnected since)
+	 */
+	protected void onBulkBuildEnded(List<ALNode> nodes, List<ALEdge> edges) {
+		// do nothing
+	}
+
+	/**
+	 * Actions taken when an edge is added to the {@code OUT} edges of a node, i.e. when it
+	 * is created or (re)connected. The default implementation does nothing.
+	 * 
+	 * @param node the start node of the edge
+	 * @param edge the edge
+	 */
+	protected void onEdgeConnected(ALNode node, ALEdge edge) {
+		// do nothing
+	}
+
+	/**
+	 * Actions taken when an edge is removed from the {@code OUT} edges of a node, i.e. when
+	 * it is disconnected. The default implementation does nothing.
+	 * 
+	 * @param node the (former) start node of the edge
+	 * @param edge the edge
+	 */
+	protected void onEdgeDisconnected(ALNode node, ALEdge edge) {
+		// do nothing
+	}
+
 	@Override
 	public final String edgeClassName(Class<? extends Edge> edgeClass) {
 		return edgeClassNames.get(edgeClass);
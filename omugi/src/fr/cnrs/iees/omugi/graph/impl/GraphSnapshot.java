@@ -0,0 +1,330 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+import fr.cnrs.iees.omugi.graph.DirectedSearch;
+import fr.cnrs.iees.omugi.graph.DisjointSets;
+import fr.cnrs.iees.omugi.graph.Edge;
+import fr.cnrs.iees.omugi.graph.Graph;
+import fr.cnrs.iees.omugi.graph.Node;
+import fr.cnrs.iees.omugi.graph.ParallelComponents;
+import fr.cnrs.iees.omugi.graph.TreeNode;
+
+/**
+ * <p>An immutable, compact copy of the structure of a graph, for algorithms that run many 
+ * traversals on a graph which does not change in the meantime.</p>
+ * 
+ * <p>Nodes and edges are numbered from 0 to {@code nNodes()-1} and {@code nEdges()-1}, in the
+ * iteration order of the source graph. The adjacency lists are stored in the 
+ * <a href="https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_(CSR,_CRS_or_Yale_format)">compressed
+ * sparse row</a> format, i.e. in two {@code int[]} per direction: the neighbours of node <em>n</em> 
+ * are found between {@code offsets[n]} and {@code offsets[n+1]} in the {@code targets} array.
+ * Neighbour access is thus allocation-free and cache-friendly:</p>
+ * <pre>
+ * for (int k=0; k&lt;snapshot.degree(n,Direction.OUT); k++) {
+ *     int m = snapshot.neighbour(n,k,Direction.OUT);
+ *     ...
+ * }
+ * </pre>
+ * <p>The original {@link Node}s and {@link Edge}s can be retrieved from their indexes. Later
+ * changes to the source graph are not reflected in the snapshot.</p>
+ * 
+ * @param <N> the node type of the source graph
+ * @param <E> the edge type of the source graph
+ */
+public final class GraphSnapshot<N extends Node, E extends Edge> {
+
+	/** the edge index used for parent-child links of trees, which have no {@link Edge} object */
+	public static final int TREE_LINK = -1;
+	
+	private final Node[] nodes;
+	private final Edge[] edges;
+	private final Map<Node,Integer> nodeIndex;
+	// CSR adjacency, OUT and IN directions
+	private final int[] outOffsets, outTargets, outEdges;
+	private final int[] inOffsets, inTargets, inEdges;
+
+	// nodes and edges are copied in arrays so that the snapshot does not depend on the graph
+	private GraphSnapshot(Collection<? extends Node> nodeList, 
+			Collection<? extends Edge> edgeList, 
+			boolean treeLinks) {
+		int nn = nodeList.size();
+		nodes = new Node[nn];
+		nodeIndex = new HashMap<>(2*nn);
+		int i = 0;
+		for (Node n:nodeList) {
+			nodes[i] = n;
+			nodeIndex.put(n,i++);
+		}
+		// edges with a tip outside of the node set are ignored
+		int ne = 0;
+		Edge[] ee = new Edge[edgeList.size()];
+		for (Edge e:edgeList)
+			if (nodeIndex.containsKey(e.startNode()) && nodeIndex.containsKey(e.endNode()))
+				ee[ne++] = e;
+		edges = Arrays.copyOf(ee,ne);
+		// all links as (start, end, edge index) triplets, tree links first
+		int nt = 0;
+		int[] treeStart = new int[treeLinks ? nn : 0];
+		int[] treeEnd = new int[treeLinks ? nn : 0];
+		if (treeLinks)
+			for (int n=0; n<nn; n++)
+				if (nodes[n] instanceof TreeNode) {
+					Integer p = nodeIndex.get(((TreeNode)nodes[n]).getParent());
+					if (p!=null) {
+						treeStart[nt] = p;
+						treeEnd[nt++] = n;
+					}
+				}
+		int nl = nt+ne;
+		int[] start = new int[nl];
+		int[] end = new int[nl];
+		int[] edge = new int[nl];
+		for (int l=0; l<nt; l++) {
+			start[l] = treeStart[l];
+			end[l] = treeEnd[l];
+			edge[l] = TREE_LINK;
+		}
+		for (int l=0; l<ne; l++) {
+			start[nt+l] = nodeIndex.get(edges[l].startNode());
+			end[nt+l] = nodeIndex.get(edges[l].endNode());
+			edge[nt+l] = l;
+		}
+		outOffsets = new int[nn+1];
+		outTargets = new int[nl];
+		outEdges = new int[nl];
+		fill(start,end,edge,outOffsets,outTargets,outEdges);
+		inOffsets = new int[nn+1];
+		inTargets = new int[nl];
+		inEdges = new int[nl];
+		fill(end,start,edge,inOffsets,inTargets,inEdges);
+	}
+	
+	// counting sort of links by their 'from' node
+	private static void fill(int[] from, int[] to, int[] edge, int[] offsets, int[] targets, int[] edges) {
+		for (int l=0; l<from.length; l++)
+			offsets[from[l]+1]++;
+		for (int n=1; n<offsets.length; n++)
+			offsets[n] += offsets[n-1];
+		int[] next = Arrays.copyOf(offsets,offsets.length-1);
+		for (int l=0; l<from.length; l++) {
+			int k = next[from[l]]++;
+			targets[k] = to[l];
+			edges[k] = edge[l];
+		}
+	}
+
+	/**
+	 * Freezes a graph.
+	 * 
+	 * @param <N> the node type
+	 * @param <E> the edge type
+	 * @param graph the graph to freeze
+	 * @return a snapshot of the current graph structure
+	 */
+	public static <N extends Node, E extends Edge> GraphSnapshot<N,E> of(Graph<N,E> graph) {
+		return new GraphSnapshot<>(graph.nodes(),graph.edges(),false);
+	}
+
+	/**
+	 * Freezes a tree graph. Parent-child links are included as {@code OUT} links from the 
+	 * parent to the child, with edge index {@link GraphSnapshot#TREE_LINK}.
+	 * 
+	 * @param <N> the node type
+	 * @param <E> the edge type
+	 * @param graph the tree graph to freeze
+	 * @return a snapshot of the current tree graph structure
+	 */
+	public static <N extends TreeGraphNode, E extends ALEdge> GraphSnapshot<N,E> of(TreeGraph<N,E> graph) {
+		return new GraphSnapshot<>(graph.nodes(),graph.edges(),true);
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int nNodes() {
+		return nodes.length;
+	}
+	
+	/**
+	 * @return the number of edges (not counting tree links)
+	 */
+	public int nEdges() {
+		return edges.length;
+	}
+	
+	/**
+	 * @param index a node index
+	 * @return the original node
+	 */
+	@SuppressWarnings("unchecked")
+	public N node(int index) {
+		return (N) nodes[index];
+	}
+
+	/**
+	 * @param index an edge index
+	 * @return the original edge, {@code null} for {@link GraphSnapshot#TREE_LINK}
+	 */
+	@SuppressWarnings("unchecked")
+	public E edge(int index) {
+		if (index==TREE_LINK)
+			return null;
+		return (E) edges[index];
+	}
+	
+	/**
+	 * @param node a node of the source graph
+	 * @return the index of this node in the snapshot, -1 if not found
+	 */
+	public int indexOf(N node) {
+		Integer result = nodeIndex.get(node);
+		return result==null ? -1 : result;
+	}
+	
+	/**
+	 * @param node a node index
+	 * @param direction the direction of links
+	 * @return the number of links of the node in this direction
+	 */
+	public int degree(int node, Direction direction) {
+		int[] offsets = direction==Direction.IN ? inOffsets : outOffsets;
+		return offsets[node+1]-offsets[node];
+	}
+
+	/**
+	 * @param node a node index
+	 * @param k the rank of the neighbour, from 0 to {@code degree(node,direction)-1}
+	 * @param direction the direction of links
+	 * @return the index of the k<sup>th</sup> neighbour of the node in this direction
+	 */
+	public int neighbour(int node, int k, Direction direction) {
+		if (direction==Direction.IN)
+			return inTargets[inOffsets[node]+k];
+		return outTargets[outOffsets[node]+k];
+	}
+
+	/**
+	 * @param node a node index
+	 * @param k the rank of the neighbour, from 0 to {@code degree(node,direction)-1}
+	 * @param direction the direction of links
+	 * @return the index of the edge to the k<sup>th</sup> neighbour of the node in this direction 
+	 */
+	public int edgeIndex(int node, int k, Direction direction) {
+		if (direction==Direction.IN)
+			return inEdges[inOffsets[node]+k];
+		return outEdges[outOffsets[node]+k];
+	}
+
+	/**
+	 * Applies an action to the index of every neighbour of a node in a given direction.
+	 * 
+	 * @param node a node index
+	 * @param direction the direction of links
+	 * @param action the action to apply
+	 */
+	public void forEachNeighbour(int node, Direction direction, IntConsumer action) {
+		int[] offsets = direction==Direction.IN ? inOffsets : outOffsets;
+		int[] targets = direction==Direction.IN ? inTargets : outTargets;
+		for (int k=offsets[node]; k<offsets[node+1]; k++)
+			action.accept(targets[k]);
+	}
+
+	/**
+	 * Applies an action to the index of every neighbour of a node, both directions (a 
+	 * neighbour linked in both directions is visited twice).
+	 * 
+	 * @param node a node index
+	 * @param action the action to apply
+	 */
+	public void forEachNeighbour(int node, IntConsumer action) {
+		forEachNeighbour(node,Direction.OUT,action);
+		forEachNeighbour(node,Direction.IN,action);
+	}
+
+	/**
+	 * Computes the connected components of the snapshot (links being considered undirected),
+	 * using a union-find algorithm.
+	 * 
+	 * @param parallel if {@code true}, links are processed in parallel
+	 * @return the component number of every node index, components being numbered from 0 in
+	 * the order of their first node
+	 */
+	public int[] componentIds(boolean parallel) {
+		DisjointSets sets = new DisjointSets(nodes.length);
+		IntStream range = IntStream.range(0,nodes.length);
+		if (parallel)
+			range = range.parallel();
+		range.forEach((n) -> {
+			for (int k=outOffsets[n]; k<outOffsets[n+1]; k++)
+				sets.union(n,outTargets[k]);
+		});
+		return sets.componentIds();
+	}
+
+	/**
+	 * Computes the connected components of the snapshot (links being considered undirected),
+	 * using the parallel Shiloach-Vishkin algorithm.
+	 * 
+	 * @param pool the fork/join pool in which to run the search
+	 * @return the component number of every node index, components being numbered from 0 in
+	 * the order of their first node
+	 * @see ParallelComponents
+	 */
+	public int[] componentIds(ForkJoinPool pool) {
+		int[] outSources = new int[outTargets.length];
+		for (int n=0; n<nodes.length; n++)
+			Arrays.fill(outSources,outOffsets[n],outOffsets[n+1],n);
+		return new ParallelComponents(pool).componentIds(nodes.length,outSources,outTargets);
+	}
+
+	/**
+	 * Computes the strongly connected components of the snapshot, links being followed in 
+	 * their direction (tree links from parent to child).
+	 * 
+	 * @return the component number of every node index, components being numbered from 0 in
+	 * the order of their first node
+	 * @see DirectedSearch#strongComponentIds(int[], int[])
+	 */
+	public int[] strongComponentIds() {
+		return DirectedSearch.strongComponentIds(outOffsets,outTargets);
+	}
+
+}
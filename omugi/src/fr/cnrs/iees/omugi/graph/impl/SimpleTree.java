@@ -30,15 +30,16 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph.impl;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import fr.cnrs.iees.omugi.graph.NodeFactory;
 import fr.cnrs.iees.omugi.graph.Tree;
+import fr.cnrs.iees.omugi.graph.TreeIndex;
 import fr.cnrs.iees.omugi.graph.TreeNode;
 
 /**
@@ -56,12 +57,16 @@ public class SimpleTree<N extends TreeNode> implements Tree<N> {
 	/** the tree root, if unique - set to null if multiple roots **/
 	private N root = null;
 	/** the tree roots, if root is not unique **/
-	private List<N> roots = new ArrayList<N>(10);
+	private Set<N> roots = new LinkedHashSet<N>();
+	/** true while building: roots are only computed at the end of the build */
+	private boolean bulkBuild = false;
 	
 	private NodeFactory factory = null;
 	
 	/** the list of nodes */
 	private Map<String,N> nodes = new HashMap<String,N>();
+	/** the index of this tree, built on demand - null when the tree has changed */
+	private TreeIndex<N> index = null;
 	
 	/**
 	 * Instantiate a tree with a {@code NodeFactory}.
@@ -86,7 +91,8 @@ public class SimpleTree<N extends TreeNode> implements Tree<N> {
 
 	@Override
 	public boolean contains(TreeNode node) {
-		return nodes.values().contains(node);
+		// constant time: id lookup and identity check
+		return (node!=null) && (nodes.get(node.id())==node);
 	}
 
 	@Override
@@ -94,10 +100,19 @@ public class SimpleTree<N extends TreeNode> implements Tree<N> {
 		return root;
 	}
 
+	// rebuilt only after structural changes
+	@Override
+	public TreeIndex<N> index() {
+		if (index==null)
+			index = new TreeIndex<>(this);
+		return index;
+	}
+
 	@Override
 	public void addNode(N node) {
+		index = null;
 		if (nodes.put(node.id(),node)!=node)
-			if (node.isRoot()) {
+			if ((!bulkBuild) && node.isRoot()) {
 				roots.add(node);
 				resetRoot();
 			}
@@ -105,16 +120,16 @@ public class SimpleTree<N extends TreeNode> implements Tree<N> {
 	
 	private void resetRoot() {
 		if (roots.size()==1)
-			root = roots.get(0);
+			root = roots.iterator().next();
 		else 
 			root = null;
 	}
 
 	@Override
 	public void removeNode(N node) {
+		index = null;
 		nodes.remove(node.id());
-		if (roots.contains(node))
-			roots.remove(node);
+		roots.remove(node);
 		if (root==node)
 			root = null;
 		resetRoot();
@@ -122,12 +137,40 @@ public class SimpleTree<N extends TreeNode> implements Tree<N> {
 
 	@Override
 	public void onParentChanged() {
+		index = null;
 		roots.clear();
 		for (N n:Tree.super.roots())
 			roots.add(n);
 		resetRoot();
 	}
 
+	// only checks the node which parent changed
+	@Override
+	public void onParentChanged(N node) {
+		index = null;
+		if (bulkBuild)
+			return;
+		// the factory may manage other trees than this one
+		if (nodes.get(node.id())!=node)
+			return;
+		if (node.isRoot())
+			roots.add(node);
+		else
+			roots.remove(node);
+		resetRoot();
+	}
+
+	@Override
+	public void beginBulkBuild() {
+		bulkBuild = true;
+	}
+
+	@Override
+	public void endBulkBuild() {
+		bulkBuild = false;
+		onParentChanged();
+	}
+
 	@Override
 	public NodeFactory nodeFactory() {
 		return factory;
@@ -184,5 +184,10 @@ public class SimpleTreeFactory
 			tree.onParentChanged();
 	}
 
+	protected void onParentChanged(SimpleTreeNode node) {
+		for (Tree<SimpleTreeNode> tree:trees)
+			tree.onParentChanged(node);
+	}
+
 	
 }
@@ -30,12 +30,16 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.graph.impl;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import fr.cnrs.iees.omugi.graph.Direction;
 import fr.cnrs.iees.omugi.graph.Edge;
@@ -133,6 +137,24 @@ public class SimpleTreeNode extends ElementAdapter implements TreeNode {
 		return null;
 	}
 
+	@Override
+	public void forEachEdge(Direction direction, Consumer<? super Edge> action) {
+		throw new UnsupportedOperationException("A TreeNode has no edge");
+	}
+
+	@Override
+	public void forEachNeighbour(Direction direction, Consumer<? super Node> action) {
+		switch (direction) {
+		case IN:
+			if (parent != null)
+				action.accept(parent);
+			break;
+		case OUT:
+			children.forEach(action);
+			break;
+		}
+	}
+
 	@Override
 	public Collection<? extends Node> nodes() {
 		if (parent == null)
@@ -185,6 +207,7 @@ public class SimpleTreeNode extends ElementAdapter implements TreeNode {
 			if (tn == parent) {
 				parent = null;
 				tn.disconnectFrom(this);
+				parentChanged();
 			}
 			if (children.contains(tn)) {
 				children.remove(tn);
@@ -202,6 +225,7 @@ public class SimpleTreeNode extends ElementAdapter implements TreeNode {
 			if ((direction.equals(Direction.IN))&&(tn == parent)) {
 				parent = null;
 				tn.disconnectFrom(this);
+				parentChanged();
 			}
 			// and child = end node
 			if ((direction.equals(Direction.OUT))&&(children.contains(tn))) {
@@ -211,51 +235,36 @@ public class SimpleTreeNode extends ElementAdapter implements TreeNode {
 		}
 	}
 
-	private Collection<TreeNode> traversal(Collection<TreeNode> list, TreeNode node, int distance) {
-		list.add(node);
-		if (distance > 0) {
-			TreeNode tn = node.getParent();
-			if (tn != null)
-				if (!(tn == this))
-					traversal(list, tn, distance - 1);
-			for (TreeNode c : node.getChildren())
-				if (!(c == this))
-					traversal(list, c, distance - 1);
-		}
-		return list;
-	}
-
-	private Collection<TreeNode> traversal(Collection<TreeNode> list, TreeNode node, int distance,
-			Direction direction) {
-		list.add(node); // there should not be double insertions here
-		if (distance > 0) {
-			switch (direction) {
-			case IN:
-				TreeNode tn = node.getParent();
-				if (tn != null)
-					traversal(list, tn, distance - 1, direction);
-				break;
-			case OUT:
-				for (TreeNode c : node.getChildren())
-					traversal(list, c, distance - 1, direction);
-				break;
+	// breadth-first search of tree nodes within maxHops links (direction==null means both directions)
+	private Collection<Node> breadthFirstTraversal(int maxHops, Direction direction) {
+		Set<Node> visited = new LinkedHashSet<>();
+		Deque<Node> queue = new ArrayDeque<>();
+		visited.add(this);
+		queue.add(this);
+		Consumer<Node> visit = (n) -> {
+			if (visited.add(n))
+				queue.add(n);
+		};
+		// one loop per distance level
+		for (int hops=0; (hops<maxHops) && !queue.isEmpty(); hops++)
+			for (int k=queue.size(); k>0; k--) {
+				Node n = queue.poll();
+				if (direction==null)
+					n.forEachNeighbour(visit);
+				else
+					n.forEachNeighbour(direction,visit);
 			}
-		}
-		return list;
+		return visited;
 	}
 
 	@Override
 	public Collection<? extends Node> traversal(int distance) {
-		Collection<TreeNode> list = new LinkedList<>();
-		list = traversal(list, this, distance);
-		return Collections.unmodifiableCollection(list);
+		return Collections.unmodifiableCollection(breadthFirstTraversal(distance,null));
 	}
 
 	@Override
 	public Collection<? extends Node> traversal(int distance, Direction direction) {
-		Collection<TreeNode> list = new LinkedList<>();
-		list = traversal(list, this, distance, direction);
-		return Collections.unmodifiableCollection(list);
+		return Collections.unmodifiableCollection(breadthFirstTraversal(distance,direction));
 	}
 
 	// TreeNode
@@ -298,13 +307,17 @@ public class SimpleTreeNode extends ElementAdapter implements TreeNode {
 				parent.connectChild(this);
 			}
 			this.parent = parent;
-			// this is bad code, but will see later if we implement
-			// a complete listening system between nodes and graphs/trees
-			if (factory instanceof SimpleTreeFactory)
-				((SimpleTreeFactory) factory).onParentChanged();
+			parentChanged();
 		}
 	}
 
+	// this is bad code, but will see later if we implement
+	// a complete listening system between nodes and graphs/trees
+	private void parentChanged() {
+		if (factory instanceof SimpleTreeFactory)
+			((SimpleTreeFactory) factory).onParentChanged(this);
+	}
+
 	// caution: cross recursion with connectParent
 	@Override
 	public void connectChild(TreeNode child) {
@@ -49,9 +49,16 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 	implements Tree<N>, EdgeSet<E>, Textable {
 
 	private Map<String,N> nodes = new HashMap<>();
+	// the cross-links of this graph, indexed by id (maintained through edge events)
+	private Map<String,E> edgeIndex = new HashMap<>();
+	// the index of this tree, built on demand - null when the tree has changed
+	private TreeIndex<N> treeIndex = null;
 	private N root = null;
-	private List<N> roots = new ArrayList<N>(10);
+	// a set, so that roots can be added and removed in constant time
+	private Set<N> roots = new LinkedHashSet<N>();
 	private GraphFactory factory;
+	// true while building: roots are only computed at the end of the build
+	private boolean bulkBuild = false;
 	
 	/**
 	 * Instantiate a {@code TreeGraph} with a {@code GraphFactory}.
@@ -66,7 +73,7 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 	
 	private void resetRoot() {
 		if (roots.size()==1)
-			root = roots.get(0);
+			root = roots.iterator().next();
 		else 
 			root = null;
 	}
@@ -83,7 +90,8 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 
 	@Override
 	public boolean contains(N node) {
-		return nodes.values().contains(node);
+		// constant time: id lookup and identity check
+		return (node!=null) && (nodes.get(node.id())==node);
 	}
 
 	@Override
@@ -91,20 +99,27 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 		return factory;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public void addNode(N node) {
-		if (nodes.put(node.id(),node)!=node)
-			if (node.getParent()==null) {
+		treeIndex = null;
+		if (nodes.put(node.id(),node)!=node) {
+			for (ALEdge e:node.edges(Direction.OUT))
+				edgeIndex.put(e.id(),(E) e);
+			if ((!bulkBuild) && (node.getParent()==null)) {
 				roots.add(node);
 				resetRoot();
 			}
+		}
 	}
 
 	@Override
 	public void removeNode(N node) {
-		nodes.remove(node.id());
-		if (roots.contains(node))
-			roots.remove(node);
+		treeIndex = null;
+		if (nodes.remove(node.id(),node))
+			for (ALEdge e:node.edges(Direction.OUT))
+				edgeIndex.remove(e.id(),e);
+		roots.remove(node);
 		if (root==node)
 			root = null;
 		resetRoot();
@@ -129,11 +144,61 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 		return factory;
 	}
 
-	// slow
+	// only counts cross-links, not parent-child links
 	@Override
 	public int nEdges() {
-		// a tree has nNodes()-1 edges
-		return ALGraph.countEdges(nodes.values())-nNodes()+1;
+		return edgeIndex.size();
+	}
+
+	/**
+	 * Actions taken when an edge is added to the {@code OUT} edges of a node (called by the
+	 * factory). The edge is indexed if the node belongs to this graph.
+	 * 
+	 * @param node the start node of the edge
+	 * @param edge the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public void onEdgeConnected(ALNode node, ALEdge edge) {
+		if (nodes.get(node.id())==node)
+			edgeIndex.put(edge.id(),(E) edge);
+	}
+
+	/**
+	 * Actions taken when an edge is removed from the {@code OUT} edges of a node (called by 
+	 * the factory). The edge is removed from the index.
+	 * 
+	 * @param node the (former) start node of the edge
+	 * @param edge the edge
+	 */
+	public void onEdgeDisconnected(ALNode node, ALEdge edge) {
+		edgeIndex.remove(edge.id(),edge);
+	}
+
+	/**
+	 * Adds a batch of nodes and indexes a batch of cross-links (called by the factory at the
+	 * end of a bulk build). Edges are only indexed if their start node belongs to this graph
+	 * and they are still connected to it. Roots are updated for the new nodes.
+	 * 
+	 * @param newNodes the nodes to add
+	 * @param newEdges the edges to index
+	 */
+	@SuppressWarnings("unchecked")
+	void bulkAdd(Collection<? extends ALNode> newNodes, Collection<? extends ALEdge> newEdges) {
+		treeIndex = null;
+		nodes = ALGraph.presized(nodes,newNodes.size());
+		edgeIndex = ALGraph.presized(edgeIndex,newEdges.size());
+		for (ALNode n:newNodes) {
+			N node = (N) n;
+			nodes.put(node.id(),node);
+			if ((!bulkBuild) && (node.getParent()==null))
+				roots.add(node);
+		}
+		resetRoot();
+		for (ALEdge e:newEdges) {
+			ALNode start = e.startNode();
+			if ((nodes.get(start.id())==start) && start.edgeList(Direction.OUT).contains(e))
+				edgeIndex.put(e.id(),(E) e);
+		}
 	}
 
 	@Override
@@ -141,30 +206,59 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 		return root;
 	}
 
-	// recursive
-	@SuppressWarnings("unchecked")
-	private void addToTree(List<N> tree,N n) {
-		tree.add(n);
-		for (TreeNode child:n.getChildren())
-			addToTree(tree,(N) child);
+	// rebuilt only after structural changes
+	@Override
+	public TreeIndex<N> index() {
+		if (treeIndex==null)
+			treeIndex = new TreeIndex<>(this);
+		return treeIndex;
 	}
-	
+
+	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<N> subTree(N node) {
-		List<N> result = new LinkedList<>();
-		addToTree(result,node);
+		List<N> result = new ArrayList<>();
+		node.walk(TreeNode.walkOrder.preOrder,(n)->result.add((N) n));
 		return Collections.unmodifiableCollection(result);
 	}
 
 	// Caution: different code from SimpleTree
 	@Override
 	public void onParentChanged() {
+		treeIndex = null;
 		roots.clear();
 		for (N n:nodes.values())
 			if (n.getParent()==null) // this is the 'tree only' check for root
 				roots.add(n);
 		resetRoot();
 	}
+
+	// only checks the node which parent changed
+	@Override
+	public void onParentChanged(N node) {
+		treeIndex = null;
+		if (bulkBuild)
+			return;
+		// the factory may manage other graphs than this one
+		if (nodes.get(node.id())!=node)
+			return;
+		if (node.getParent()==null) // this is the 'tree only' check for root
+			roots.add(node);
+		else
+			roots.remove(node);
+		resetRoot();
+	}
+
+	@Override
+	public void beginBulkBuild() {
+		bulkBuild = true;
+	}
+
+	@Override
+	public void endBulkBuild() {
+		bulkBuild = false;
+		onParentChanged();
+	}
 	
 	@Override
 	public String toUniqueString() {
@@ -208,13 +302,9 @@ public class TreeGraph<N extends TreeGraphNode,E extends ALEdge>
 		return nodes.get(id);
 	}
 
-	// slow and inefficient in this implementation
 	@Override
 	public E findEdge(String id) {
-		for (E e:edges())
-			if (e.id().equals(id))
-				return e;
-		return null;
+		return edgeIndex.get(id);
 	}
 
 }
@@ -37,6 +37,7 @@ import java.util.logging.Logger;
 import fr.cnrs.iees.omhtk.utils.Logging;
 import fr.cnrs.iees.omugi.graph.*;
 import fr.cnrs.iees.omugi.identity.Identity;
+import fr.cnrs.iees.omugi.identity.IdentityScope;
 import fr.cnrs.iees.omugi.properties.*;
 
 /**
@@ -79,8 +80,45 @@ public class TreeGraphFactory extends GraphFactoryAdapter {
 	}
 
 	protected void addNodeToGraphs(TreeGraphNode node) {
-		for (TreeGraph<TreeGraphNode, ALEdge> g : graphs)
-			g.addNode(node);
+		if (!deferNode(node))
+			for (TreeGraph<TreeGraphNode, ALEdge> g : graphs)
+				g.addNode(node);
+	}
+
+	@Override
+	protected void onBulkBuildEnded(List<ALNode> nodes, List<ALEdge> edges) {
+		for (TreeGraph<TreeGraphNode, ALEdge> tg : graphs)
+			tg.bulkAdd(nodes, edges);
+	}
+
+	/**
+	 * Makes a batch of {@link TreeGraphNode}s. Ids are assigned in bulk by 
+	 * {@link IdentityScope#newIds(int, String)} and nodes are added to the managed graphs in
+	 * one go (cf. {@link GraphFactoryAdapter#beginBulkBuild(int, int) beginBulkBuild(...)}).
+	 * 
+	 * @param n the number of nodes to make
+	 * @param proposedId a base for the node ids
+	 * @return the new nodes
+	 */
+	public TreeGraphNode[] makeNodes(int n, String proposedId) {
+		if (n<0)
+			throw new IllegalArgumentException("Negative number of nodes: "+n);
+		boolean bulk = isBulkBuilding();
+		if (!bulk)
+			beginBulkBuild(n, 0);
+		try {
+			Identity[] ids = scope.newIds(n, proposedId);
+			TreeGraphNode[] result = new TreeGraphNode[n];
+			for (int i = 0; i < n; i++) {
+				result[i] = new TreeGraphNode(ids[i], this);
+				addNodeToGraphs(result[i]);
+			}
+			return result;
+		}
+		finally {
+			if (!bulk)
+				endBulkBuild();
+		}
 	}
 
 	@Override
@@ -161,5 +199,22 @@ public class TreeGraphFactory extends GraphFactoryAdapter {
 			tg.onParentChanged();
 	}
 
+	protected void onParentChanged(TreeGraphNode node) {
+		for (TreeGraph<TreeGraphNode, ALEdge> tg : graphs)
+			tg.onParentChanged(node);
+	}
+
+	@Override
+	protected void onEdgeConnected(ALNode node, ALEdge edge) {
+		for (TreeGraph<TreeGraphNode, ALEdge> tg : graphs)
+			tg.onEdgeConnected(node, edge);
+	}
+
+	@Override
+	protected void onEdgeDisconnected(ALNode node, ALEdge edge) {
+		for (TreeGraph<TreeGraphNode, ALEdge> tg : graphs)
+			tg.onEdgeDisconnected(node, edge);
+	}
+
 
 }
@@ -36,6 +36,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import fr.cnrs.iees.omugi.graph.Direction;
 import fr.cnrs.iees.omugi.graph.Edge;
@@ -102,13 +103,17 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 				parent.connectChild(this);
 			}
 			this.parent = parent;
-			// this is bad code, but will see later if we implement
-			// a complete listening system between nodes and graphs/trees
-			if (factory() instanceof TreeGraphFactory)
-				((TreeGraphFactory)factory()).onParentChanged();
+			parentChanged();
 		}
 	}
 
+	// this is bad code, but will see later if we implement
+	// a complete listening system between nodes and graphs/trees
+	private void parentChanged() {
+		if (factory() instanceof TreeGraphFactory)
+			((TreeGraphFactory)factory()).onParentChanged(this);
+	}
+
 	// caution: cross recursion with connectParent
 	@Override
 	public void connectChild(TreeNode child) {
@@ -163,7 +168,7 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 	@Override
 	public Collection<? extends Node> nodes(Direction direction) {
 		Set<Node> list = new HashSet<>();
-		for (ALEdge e:edges.get(direction)) 
+		for (ALEdge e:edgeList(direction)) 
 			list.add(e.otherNode(this));
 		switch (direction) {
 		case IN:
@@ -177,6 +182,24 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 		return Collections.unmodifiableCollection(list);
 	}
 
+	/**
+	 * Visits all nodes linked in a given direction, parent being counted with the IN nodes
+	 * and children with the OUT nodes. 
+	 */
+	@Override
+	public void forEachNeighbour(Direction direction, Consumer<? super Node> action) {
+		super.forEachNeighbour(direction,action);
+		switch (direction) {
+		case IN:
+			if (parent!=null)
+				action.accept(parent);
+			break;
+		case OUT:
+			children.forEach(action);
+			break;
+		}
+	}
+
 	/**
 	 * Takes into account the tree links in the computation of the degree, the parent link being
 	 * counted with direction=IN and the child links being counted with direction=OUT
@@ -200,7 +223,7 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 	 */
 	@Override
 	public boolean isLeaf() {
-		return edges.get(Direction.OUT).isEmpty() && children.isEmpty();
+		return edgeList(Direction.OUT).isEmpty() && children.isEmpty();
 	}
 
 	/**
@@ -208,7 +231,7 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 	 */
 	@Override
 	public boolean isRoot() {
-		return edges.get(Direction.IN).isEmpty() && (parent==null);
+		return edgeList(Direction.IN).isEmpty() && (parent==null);
 	}
 
 	@Override
@@ -219,6 +242,7 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 			if (tn==parent) {
 				parent = null;
 				tn.disconnectFrom(this);
+				parentChanged();
 			}
 			if (children.contains(tn)) {
 				children.remove(tn);
@@ -239,10 +263,7 @@ public class TreeGraphNode extends ALNode implements TreeNode {
 				child.connectParent(null);
 			children.clear();
 		}
-		// this is bad code, but will see later if we implement
-		// a complete listening system between nodes and graphs/trees
-		if (factory() instanceof TreeGraphFactory)
-			((TreeGraphFactory)factory()).onParentChanged();
+		parentChanged();
 		// disconnect from cross-links
 		super.disconnect();
 	}
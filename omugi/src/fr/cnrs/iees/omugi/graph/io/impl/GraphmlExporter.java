@@ -138,24 +138,30 @@ public class GraphmlExporter implements GraphExporter {
 		types.put("String", "string");
 	}
 	
-	private String writeData(Element e) {
+	// record element property/attribute names and types
+	private void collectKeys(Element e) {
 		if (ReadOnlyDataHolder.class.isAssignableFrom(e.getClass())) {
 			ReadOnlyPropertyList de = ((ReadOnlyDataHolder)e).properties();
-			StringBuilder sb = new StringBuilder();
-			for (String key: de.getKeysAsSet()) {
-				// record element property/attribute name and type
+			for (String key: de.getKeysAsSet())
 				if (Node.class.isAssignableFrom(e.getClass()))
 					nodeKeys.put(key, ValidPropertyTypes.getType(de.getPropertyClassName(key)));
 				else if (Edge.class.isAssignableFrom(e.getClass()))
 					edgeKeys.put(key, ValidPropertyTypes.getType(de.getPropertyClassName(key)));
+		}
+	}
+	
+	private void writeData(Element e, PrintWriter w) throws IOException {
+		if (ReadOnlyDataHolder.class.isAssignableFrom(e.getClass())) {
+			ReadOnlyPropertyList de = ((ReadOnlyDataHolder)e).properties();
+			for (String key: de.getKeysAsSet()) {
 				// write element data
-				sb.append("      <data key=\"")
+				w.append("      <data key=\"")
 					.append(key)
 					.append("\">");
 				Object o = de.getPropertyValue(key);
 				if (o==null) {
 					// if type is unknown, put an empty String
-					sb.append("\"\"</data>\n");
+					w.append("\"\"</data>\n");
 				}
 				else if (Table.class.isAssignableFrom(o.getClass())) {
 					Table t = (Table) o;
@@ -165,17 +171,15 @@ public class GraphmlExporter implements GraphExporter {
 					char[] isep = new char[2];
 					isep[Table.DIMix] = DIM_ITEM_SEPARATOR;
 					isep[Table.TABLEix] = TABLE_ITEM_SEPARATOR;
-					sb.append("\n        ");
-					sb.append(t.toSaveableString(bdel, isep));
-					sb.append("\n      </data>\n");
+					w.append("\n        ");
+					t.appendSaveable(w, bdel, isep);
+					w.append("\n      </data>\n");
 				}
 				// TODO: other types of saveable properties ?
 				else 
-					sb.append(de.getPropertyValue(key)).append("</data>\n");
+					w.append(String.valueOf(o)).append("</data>\n");
 			}
-			return sb.toString();
 		}
-		return null;
 	}
 	
 	private void writeKeys(StringBuilder sb) {
@@ -247,38 +251,42 @@ public class GraphmlExporter implements GraphExporter {
 		return id;
 	}
 	
-	private void writeGraph(StringBuilder sb,Graph<? extends Node, ? extends Edge> graph) {
-		sb.append("  <graph id=\"G\" edgedefault=\"directed\">\n");
+	private void writeGraph(PrintWriter w,Graph<? extends Node, ? extends Edge> graph) 
+			throws IOException {
+		w.append("  <graph id=\"G\" edgedefault=\"directed\">\n");
 		for (Node node : graph.nodes()) {
-			sb.append("    <node id=\"" + localId(node.id()) + "\"");
-			String s = writeData(node);
-			if (s==null)
-				sb.append("/>\n");
+			w.append("    <node id=\"").append(String.valueOf(localId(node.id()))).append("\"");
+			if (isEmpty(node))
+				w.append("/>\n");
 			else {
-				sb.append(">\n");
-				sb.append(s);
-				sb.append("    </node>\n");
+				w.append(">\n");
+				writeData(node,w);
+				w.append("    </node>\n");
 			}
 		}
 		for (Edge edge : graph.edges()) {
-			sb.append("    <edge id=\"" + localId(edge.id()) 
+			w.append("    <edge id=\"" + localId(edge.id()) 
 				+ "\" source=\"" + localId(edge.startNode().id()) 
 				+ "\" target=\"" + localId(edge.endNode().id()) 
 				+ "\"");
-			String s = writeData(edge);
-			if (s==null)
-				sb.append("/>\n");
+			if (isEmpty(edge))
+				w.append("/>\n");
 			else {
-				sb.append(">\n");
-				sb.append(s);
-				sb.append("    </edge>\n");
+				w.append(">\n");
+				writeData(edge,w);
+				w.append("    </edge>\n");
 			}
 		}
-		sb.append("  </graph>\n");
+		w.append("  </graph>\n");
 	}
 
-	private void exportGraph(Graph<? extends Node, ? extends Edge> graph, PrintWriter writer) {
-		StringBuilder graphLines = new StringBuilder();
+	// true if the element has no <data> section
+	private boolean isEmpty(Element e) {
+		return !ReadOnlyDataHolder.class.isAssignableFrom(e.getClass());
+	}
+
+	private void exportGraph(Graph<? extends Node, ? extends Edge> graph, PrintWriter writer) 
+			throws IOException {
 		StringBuilder keyLines = new StringBuilder(); 
 		
 		writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
@@ -287,11 +295,15 @@ public class GraphmlExporter implements GraphExporter {
 		writer.println("    xsi:schemaLocation=\"http://graphml.graphdrawing.org/xmlns"); 
 		writer.println("    http://graphml.graphdrawing.org/xmlns/1.0/graphml.xsd\">");
 
-		writeGraph(graphLines,graph);
+		// keys must be written before the graph: a first pass collects them so that the
+		// graph itself can be streamed to the writer
+		for (Node node : graph.nodes())
+			collectKeys(node);
+		for (Edge edge : graph.edges())
+			collectKeys(edge);
 		writeKeys(keyLines);
-		
 		writer.print(keyLines.toString());
-		writer.print(graphLines.toString());
+		writeGraph(writer,graph);
 		
 		writer.println("</graphml>");
 		writer.close();
@@ -110,7 +110,12 @@ public class OmugiGraphExporter implements GraphExporter {
 						char[] isep = new char[2];
 						isep[Table.DIMix] = DIM_ITEM_SEPARATOR;
 						isep[Table.TABLEix] = TABLE_ITEM_SEPARATOR;
-						w.print(((Table) value).toSaveableString(bdel, isep));
+						try {
+							// streamed, as tables may be large
+							((Table) value).appendSaveable(w, bdel, isep);
+						} catch (IOException e) {
+							// never happens: PrintWriter does not throw IOExceptions
+						}
 					}
 					// other saveable properties
 					else
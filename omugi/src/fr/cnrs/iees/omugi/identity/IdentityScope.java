@@ -30,8 +30,10 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.identity;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnrs.iees.omhtk.utils.UniqueString;
 
 /**
  * <p>A scope over which {@link Identity} instances are guaranteed to be unique.</p> 
@@ -50,7 +52,23 @@ public interface IdentityScope {
 	/**
 	 * This field to make sure all scope instances have a different id
 	 */
-	static final Set<String> scopeIds = new HashSet<String>();
+	static final Set<String> scopeIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Records a new scope id in {@link IdentityScope#scopeIds scopeIds}. This is safe when scopes 
+	 * are created from many threads: the id is only returned once it has been added to the set.
+	 * 
+	 * @param name proposed name of the scope. Its uniqueness will be enforced by
+	 *             incrementing an appended number.
+	 * @return the recorded scope id
+	 */
+	static String newScopeId(String name) {
+		String id = name;
+		// another thread may record the same id between makeString(...) and add(...)
+		while (!scopeIds.add(id))
+			id = UniqueString.makeString(name,scopeIds);
+		return id;
+	}
 
 	/**
 	 * The scope identifier, unique within the application context. Uniqueness is guaranteed by
@@ -99,6 +117,22 @@ public interface IdentityScope {
 		return newId();
 	}
 
+	/**
+	 * <p>Makes a batch of new Identity instances, unique over this scope, all recorded in this
+	 * scope. Use this when creating many elements at once, e.g. when building large graphs.</p>
+	 * <p>The default implementation calls {@code newId(true,proposedId)} {@code n} times.</p>
+	 * 
+	 * @param n the number of identities to make
+	 * @param proposedId a base for the ids to be computed
+	 * @return an array of {@code n} new Identity instances, unique over this scope
+	 */
+	public default Identity[] newIds(int n, String proposedId) {
+		Identity[] result = new Identity[n];
+		for (int i=0; i<n; i++)
+			result[i] = newId(true,proposedId);
+		return result;
+	}
+
 	/**
 	 * <p><strong>WARNING</strong>: this method is conceptually flawed and should be refactored soon.
 	 * NEVER use it!</p>
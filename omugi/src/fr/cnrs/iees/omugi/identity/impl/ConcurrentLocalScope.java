@@ -0,0 +1,84 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.identity.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnrs.iees.omhtk.utils.UniqueString;
+import fr.cnrs.iees.omugi.identity.Identity;
+
+/**
+ * <p>A thread-safe {@link LocalScope}: ids can be made from many threads at the same time and
+ * are still unique over the scope.</p>
+ * 
+ * <p>Ids are recorded in a concurrent set. An id is only returned once it has been 
+ * successfully added to the set, so that two threads proposing the same id get different 
+ * ones. The exceptions are {@link ConcurrentLocalScope#newId(boolean, String) newId(false,...)},
+ * which does not record the id (another thread may take it before it is used), and
+ * {@link SimpleIdentity#rename(String, String) renaming}, which is not atomic.</p>
+ * 
+ * <p>{@link LocalScope#newIds(int, String) newIds(...)} adds ids one by one to the concurrent
+ * set: ids made by other threads at the same time are skipped, so that the appended numbers of a
+ * batch may not be contiguous.</p>
+ */
+public class ConcurrentLocalScope extends LocalScope {
+
+	/**
+	 * Constructor using the ConcurrentLocalScope simple class name as its Id.
+	 */
+	public ConcurrentLocalScope() {
+		this(ConcurrentLocalScope.class.getSimpleName());
+	}
+
+	/**
+	 * @param name proposed name of the scope. Its uniqueness will be enforced by
+	 *             incrementing an appended number.
+	 */
+	public ConcurrentLocalScope(String name) {
+		super(name);
+		ids = ConcurrentHashMap.newKeySet();
+	}
+
+	@Override
+	public Identity newId(boolean addToScope, String proposedId) {
+		if (!addToScope) {
+			if (!ids.contains(proposedId))
+				return new SimpleIdentity(proposedId, this);
+			return new SimpleIdentity(UniqueString.makeString(proposedId, ids), this);
+		}
+		String s = proposedId;
+		// another thread may record the same id between makeString(...) and add(...)
+		while (!ids.add(s))
+			s = UniqueString.makeString(proposedId, ids);
+		return new SimpleIdentity(s, this);
+	}
+
+}
@@ -32,7 +32,6 @@ package fr.cnrs.iees.omugi.identity.impl;
 
 import java.util.Objects;
 
-import fr.cnrs.iees.omhtk.utils.UniqueString;
 import fr.cnrs.iees.omugi.identity.Identity;
 import fr.cnrs.iees.omugi.identity.IdentityScope;
 
@@ -53,8 +52,7 @@ public class IntegerScope implements IdentityScope {
 	 */
 	public IntegerScope(String name) {
 		super();
-		id = UniqueString.makeString(name,scopeIds);
-		scopeIds.add(id);
+		id = IdentityScope.newScopeId(name);
 	}
 
 	@Override
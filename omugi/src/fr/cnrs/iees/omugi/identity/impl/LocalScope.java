@@ -78,8 +78,7 @@ public class LocalScope implements IdentityScope {
 	 */
 	public LocalScope(String name) {
 		super();
-		id = UniqueString.makeString(name,scopeIds);
-		scopeIds.add(id);
+		id = IdentityScope.newScopeId(name);
 	}
 
 	@Override
@@ -109,6 +108,28 @@ public class LocalScope implements IdentityScope {
 		return result;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Here, the proposed id is used as is if it does not exist yet, and then made unique by
+	 * appending an increasing number to it. This takes linear time in {@code n}, whatever the
+	 * number of ids already in this scope, whereas repeated calls to 
+	 * {@link LocalScope#newId(boolean, String) newId(...)} with the same proposed id take 
+	 * quadratic time.</p>
+	 */
+	@Override
+	public Identity[] newIds(int n, String proposedId) {
+		// NB: ids are added to the existing set, which grows as needed (amortized constant time)
+		Identity[] result = new Identity[n];
+		int suffix = 0;
+		for (int i=0; i<n; i++) {
+			String s = proposedId;
+			while (!ids.add(s))
+				s = proposedId + (++suffix);
+			result[i] = new SimpleIdentity(s, this);
+		}
+		return result;
+	}
+
 	@Override
 	public Identity newId(boolean addToScope, String... proposedIdComponents) {
 		StringBuilder sb = new StringBuilder();
@@ -63,8 +63,7 @@ public class PairLocalScope implements IdentityScope {
 	 */
 	public PairLocalScope(String name) {
 		super();
-		id = UniqueString.makeString(name,scopeIds);
-		scopeIds.add(id);
+		id = IdentityScope.newScopeId(name);
 	}
 	
 	/**
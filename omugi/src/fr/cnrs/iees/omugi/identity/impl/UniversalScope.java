@@ -32,7 +32,6 @@ package fr.cnrs.iees.omugi.identity.impl;
 
 import java.util.Objects;
 
-import fr.cnrs.iees.omhtk.utils.UniqueString;
 import fr.cnrs.iees.omugi.identity.*;
 
 /**
@@ -68,8 +67,7 @@ public class UniversalScope implements IdentityScope {
 	 */
 	public UniversalScope(String name) {
 		super();
-		id = UniqueString.makeString(name, scopeIds);
-		scopeIds.add(id);
+		id = IdentityScope.newScopeId(name);
 	}
 
 	@Override
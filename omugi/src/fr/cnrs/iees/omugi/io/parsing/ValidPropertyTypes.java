@@ -290,7 +290,13 @@ public class ValidPropertyTypes {
 		BooleanTable(BooleanTable.class.getCanonicalName(),	new BooleanTable(new Dimensioner(1)).clear()),
 		ByteTable(ByteTable.class.getCanonicalName(), new ByteTable(new Dimensioner(1)).clear()),
 		CharTable(CharTable.class.getCanonicalName(), new CharTable(new Dimensioner(1)).clear()),
-		ShortTable(ShortTable.class.getCanonicalName(), new ShortTable(new Dimensioner(1)).clear());
+		ShortTable(ShortTable.class.getCanonicalName(), new ShortTable(new Dimensioner(1)).clear()),
+		DoubleBufferTable(DoubleBufferTable.class.getCanonicalName(), new DoubleBufferTable(new Dimensioner(1)).clear()),
+		FloatBufferTable(FloatBufferTable.class.getCanonicalName(), new FloatBufferTable(new Dimensioner(1)).clear()),
+		IntBufferTable(IntBufferTable.class.getCanonicalName(), new IntBufferTable(new Dimensioner(1)).clear()),
+		LongBufferTable(LongBufferTable.class.getCanonicalName(), new LongBufferTable(new Dimensioner(1)).clear()),
+		DoubleSparseTable(DoubleSparseTable.class.getCanonicalName(), new DoubleSparseTable(new Dimensioner(1))),
+		IntSparseTable(IntSparseTable.class.getCanonicalName(), new IntSparseTable(new Dimensioner(1)));
 
 		private final String className;
 		private final Object defaultValue;
@@ -30,6 +30,9 @@
  **************************************************************************/
 package fr.cnrs.iees.omugi.io.parsing.impl;
 
+import java.util.List;
+
+import fr.cnrs.iees.omugi.graph.Tree;
 import fr.cnrs.iees.omugi.graph.TreeNode;
 
 /**
@@ -56,4 +59,17 @@ public class NodeReference {
 		return p.matches(anode);
 	}
 
+	/**
+	 * Finds all the nodes of a tree matching the reference passed as argument. To resolve many
+	 * references on the same tree, rather use a {@link TreeReferenceIndex}.
+	 * 
+	 * @param <N> the node type of the tree
+	 * @param tree the tree to search
+	 * @param reference the location reference
+	 * @return the (possibly empty) list of matching nodes
+	 */
+	public static <N extends TreeNode> List<N> findNodes(Tree<N> tree, String reference) {
+		return new TreeReferenceIndex<>(tree).resolve(reference);
+	}
+
 }
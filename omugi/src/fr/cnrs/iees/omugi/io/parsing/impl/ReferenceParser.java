@@ -38,6 +38,7 @@ import fr.cnrs.iees.omhtk.SaveableAsText;
 import fr.cnrs.iees.omugi.collections.tables.Table;
 import fr.cnrs.iees.omugi.graph.*;
 import fr.cnrs.iees.omugi.io.parsing.Parser;
+import fr.cnrs.iees.omugi.io.parsing.ValidPropertyTypes;
 import fr.cnrs.iees.omugi.io.parsing.impl.ReferenceTokenizer.token;
 import fr.cnrs.iees.omugi.properties.ReadOnlyPropertyList;
 
@@ -50,11 +51,70 @@ import fr.cnrs.iees.omugi.properties.ReadOnlyPropertyList;
 // tested OK with version 0.0.5 on 18/4/2019
 public class ReferenceParser extends Parser {
 	
+	//----------------------------------------------------
+	// delimiters used to write tables in references
+	private static final char[][] bdel = new char[2][2];
+	private static final char[] isep = new char[2];
+	static {
+		bdel[Table.DIMix] = DIM_BLOCK_DELIMITERS;
+		bdel[Table.TABLEix] = TABLE_BLOCK_DELIMITERS;
+		isep[Table.DIMix] = DIM_ITEM_SEPARATOR;
+		isep[Table.TABLEix] = TABLE_ITEM_SEPARATOR;
+	}
+	// marks values which could not be parsed into a property type
+	private static final Object UNPARSED = new Object();
+	
+	// the text form of a property value, as used in references
+	private static String render(Object value) {
+		if (value instanceof SaveableAsText)
+			return ((SaveableAsText) value).toSaveableString(bdel,isep);
+		return value.toString();
+	}
+	
 	//----------------------------------------------------
 	// what is needed for a property match
 	private class propMatch {
 		protected String name;
 		protected String value;
+		// the value parsed once into every property type met
+		private Map<Class<?>,Object> typedValues = new HashMap<>();
+		
+		// parses the value into a property type - the result must render as the value, 
+		// so that comparing typed values is the same as comparing their text forms
+		@SuppressWarnings("unchecked")
+		private Object parse(Class<?> type) {
+			Object result = null;
+			try {
+				if (String.class.equals(type))
+					result = value;
+				else if (Enum.class.isAssignableFrom(type))
+					result = ValidPropertyTypes.valueOf(value,(Class<? extends Enum<?>>) type);
+				else if (SaveableAsText.class.isAssignableFrom(type))
+					result = type.getMethod("valueOf",String.class,char[][].class,char[].class)
+						.invoke(null,value,bdel,isep);
+				else
+					result = type.getMethod("valueOf",String.class).invoke(null,value);
+			} catch (Exception e) {
+				return UNPARSED;
+			}
+			if ((result==null) || !type.isInstance(result) || !render(result).equals(value))
+				return UNPARSED;
+			return result;
+		}
+		
+		protected boolean matches(ReadOnlyPropertyList pl) {
+			// property is not found
+			if (!pl.hasProperty(name))
+				return false;
+			Object propValue = pl.getPropertyValue(name);
+			if (propValue==null)
+				return false;
+			Object typed = typedValues.computeIfAbsent(propValue.getClass(),(c)->parse(c));
+			if (typed==UNPARSED)
+				return render(propValue).equals(value);
+			return typed.equals(propValue);
+		}
+		
 		@Override // for debugging only
 		public String toString() {
 			return name+"="+value;
@@ -76,7 +136,8 @@ public class ReferenceParser extends Parser {
 	private ReferenceTokenizer tokenizer;
 	private nodeMatch lastNodeMatch = null;
 	private propMatch lastPropMatch = null;
-	private List<nodeMatch> matches = new LinkedList<nodeMatch>();
+	private List<nodeMatch> matches = new ArrayList<nodeMatch>();
+	private boolean parsed = false;
 	
 	public ReferenceParser(ReferenceTokenizer tokenizer) {
 		super();
@@ -85,6 +146,7 @@ public class ReferenceParser extends Parser {
 
 	@Override
 	protected void parse() {
+		parsed = true;
 		if (!tokenizer.tokenized())
 			tokenizer.tokenize();
 		// this is stupidly straightforward...
@@ -117,8 +179,14 @@ public class ReferenceParser extends Parser {
 		}
 	}
 	
+	/**
+	 * Checks if a node matches this reference.
+	 * 
+	 * @param node the node to check
+	 * @return {@code true} if the node and its parents match the reference
+	 */
 	public boolean matches(TreeNode node) {
-		if (lastNodeMatch==null)
+		if (!parsed)
 			parse();
 		// since node matches are stored in reverse order, the first one applies to the
 		// node passed as argument, and the following ones to its parents
@@ -139,29 +207,7 @@ public class ReferenceParser extends Parser {
 				// node has no properties
 				if (!(testNode instanceof ReadOnlyDataHolder))
 					return false;
-				ReadOnlyPropertyList pl = ((ReadOnlyDataHolder) testNode).properties();
-				// property is not found
-				if (!pl.hasProperty(pm.name))
-					return false;
-				// match String property values
-				if (String.class.isAssignableFrom(pl.getPropertyClass(pm.name))) {
-					if (!pl.getPropertyValue(pm.name).equals(pm.value))
-						return false;
-				}
-				// match Table property values
-				else if (SaveableAsText.class.isAssignableFrom(pl.getPropertyClass(pm.name))) {
-					SaveableAsText prop = (SaveableAsText) pl.getPropertyValue(pm.name);
-					char[][] bdel = new char[2][2];
-					bdel[Table.DIMix] = DIM_BLOCK_DELIMITERS;
-					bdel[Table.TABLEix] = TABLE_BLOCK_DELIMITERS;
-					char[] isep = new char[2];
-					isep[Table.DIMix] = DIM_ITEM_SEPARATOR;
-					isep[Table.TABLEix] = TABLE_ITEM_SEPARATOR;
-					if (!prop.toSaveableString(bdel,isep).equals(pm.value))
-						return false;
-				}
-				// match Primitive type property values
-				else if (!pl.getPropertyValue(pm.name).toString().equals(pm.value))
+				if (!pm.matches(((ReadOnlyDataHolder) testNode).properties()))
 					return false;
 			}
 			testNode = testNode.getParent();
@@ -169,6 +215,42 @@ public class ReferenceParser extends Parser {
 		return true;
 	}
 	
+	/**
+	 * Finds all the nodes of a tree matching this reference. Candidate nodes are looked up by id
+	 * or label in the index, and then checked by following their parent links.
+	 * 
+	 * @param <N> the node type of the tree
+	 * @param index the (label,id) index of the tree
+	 * @return the matching nodes
+	 */
+	public <N extends TreeNode> List<N> resolve(TreeReferenceIndex<N> index) {
+		if (!parsed)
+			parse();
+		Collection<N> candidates;
+		if (matches.isEmpty())
+			candidates = index.candidates("","");
+		else
+			candidates = index.candidates(matches.get(0).label,matches.get(0).name);
+		List<N> result = new ArrayList<>();
+		for (N node:candidates)
+			if (matches(node))
+				result.add(node);
+		return result;
+	}
+
+	/**
+	 * Finds all the nodes of a tree matching this reference. To resolve many references on the 
+	 * same tree, rather build a {@link TreeReferenceIndex} once and use 
+	 * {@link ReferenceParser#resolve(TreeReferenceIndex) resolve(index)}.
+	 * 
+	 * @param <N> the node type of the tree
+	 * @param tree the tree to search
+	 * @return the matching nodes
+	 */
+	public <N extends TreeNode> List<N> resolve(Tree<N> tree) {
+		return resolve(new TreeReferenceIndex<>(tree));
+	}
+
 	// for debugging only
 	@Override
 	public String toString() {
@@ -110,6 +110,9 @@ public class TreeGraphParser extends EdgeAndNodeSetParser {
 		processGraphProperties(graphProps,log);
 		setupFactories(log);
 		graph = (TreeGraph<TreeGraphNode, ALEdge>) setupGraph(log);
+		// roots are computed once all parents are set
+		if (graph != null)
+			graph.beginBulkBuild();
 		// make tree nodes
 		Map<String, TreeGraphNode> nodes = new HashMap<>();
 		for (treeNodeSpec ns : nodeSpecs) {
@@ -138,6 +141,8 @@ public class TreeGraphParser extends EdgeAndNodeSetParser {
 			else
 				nodes.put(nodeId, n);
 		}
+		if (graph != null)
+			graph.endBulkBuild();
 		// make cross links
 		for (edgeSpec es : edgeSpecs) {
 			SimplePropertyList pl = null;
@@ -204,6 +204,9 @@ public class TreeParser extends NodeSetParser {
 		processGraphProperties(treeProps,log);
 		setupFactories(log);
 		tree = (Tree<? extends TreeNode>) setupGraph(log);
+		// roots are computed once all parents are set
+		if (tree != null)
+			tree.beginBulkBuild();
 		// make tree nodes
 		Map<String, TreeNode> nodes = new HashMap<>();
 		for (treeNodeSpec ns : nodeSpecs) {
@@ -246,6 +249,8 @@ public class TreeParser extends NodeSetParser {
 				}
 			}
 		}
+		if (tree != null)
+			tree.endBulkBuild();
 	}
 
 
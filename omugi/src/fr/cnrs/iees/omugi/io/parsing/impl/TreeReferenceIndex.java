@@ -0,0 +1,120 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.io.parsing.impl;
+
+import java.util.*;
+
+import fr.cnrs.iees.omugi.graph.Tree;
+import fr.cnrs.iees.omugi.graph.TreeNode;
+
+/**
+ * <p>An index of the nodes of a {@link Tree} by label ({@link TreeNode#classId() classId()}) and
+ * name ({@link TreeNode#id() id()}), used to resolve references (cf. {@link ReferenceParser}).</p>
+ * <p>Resolving a reference without an index means checking every node of the tree against it.
+ * With an index, only the nodes matching the last {@code label:name} item of the reference are
+ * checked, by following their parent links. The index is built once and can be used for any
+ * number of references, as long as the tree does not gain or lose nodes (parent changes do
+ * not matter).</p>
+ * 
+ * @param <N> the node type of the tree
+ */
+public class TreeReferenceIndex<N extends TreeNode> {
+
+	private final List<N> nodes = new ArrayList<>();
+	private final Map<String,N> byName = new HashMap<>();
+	private final Map<String,List<N>> byLabel = new HashMap<>();
+
+	/**
+	 * Indexes all the nodes of a tree.
+	 * 
+	 * @param tree the tree to index
+	 */
+	public TreeReferenceIndex(Tree<N> tree) {
+		super();
+		for (N node:tree.nodes()) {
+			nodes.add(node);
+			byName.put(node.id(),node);
+			byLabel.computeIfAbsent(node.classId(),(l)->new ArrayList<>()).add(node);
+		}
+	}
+
+	/**
+	 * The nodes which label and name match those passed as arguments. An empty label or name
+	 * matches any node.
+	 * 
+	 * @param label the node label (classId), or an empty String
+	 * @param name the node name (id), or an empty String
+	 * @return the (possibly empty) list of matching nodes
+	 */
+	public List<N> candidates(String label, String name) {
+		boolean anyLabel = (label==null) || label.isEmpty();
+		if ((name!=null) && !name.isEmpty()) {
+			N node = byName.get(name);
+			if ((node==null) || !(anyLabel || node.classId().equals(label)))
+				return Collections.emptyList();
+			return Collections.singletonList(node);
+		}
+		if (anyLabel)
+			return Collections.unmodifiableList(nodes);
+		return Collections.unmodifiableList(byLabel.getOrDefault(label,Collections.emptyList()));
+	}
+
+	/**
+	 * Finds all the nodes of the indexed tree matching a reference.
+	 * 
+	 * @param reference the reference to resolve
+	 * @return the matching nodes
+	 */
+	public List<N> resolve(String reference) {
+		if (reference == null)
+			return Collections.emptyList();
+		return resolve(new ReferenceTokenizer(reference).parser());
+	}
+
+	/**
+	 * Finds all the nodes of the indexed tree matching a reference. Use this to resolve the same
+	 * reference many times (e.g. on different trees), as it is parsed only once.
+	 * 
+	 * @param reference the parsed reference to resolve
+	 * @return the matching nodes
+	 */
+	public List<N> resolve(ReferenceParser reference) {
+		return reference.resolve(this);
+	}
+
+	/**
+	 * @return the number of nodes in this index
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+}
@@ -0,0 +1,190 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.*;
+
+import fr.cnrs.iees.omugi.io.parsing.ValidPropertyTypes;
+
+class BufferTableTest {
+
+	private DoubleBufferTable dt;
+	
+	@BeforeEach
+	void init() {
+		dt = new DoubleBufferTable(new Dimensioner(4),new Dimensioner(3));
+	}
+	
+	private void show(String method,String text) {
+//		System.out.println(method+": "+text);
+	}
+
+	@Test
+	final void testGetSet() {
+		assertFalse(dt.isMapped());
+		assertEquals(dt.size(),12);
+		dt.set(2.5,3,1);
+		assertEquals(dt.get(3,1),2.5);
+		assertEquals(dt.getByInt(3,1),2.5);
+		assertEquals(dt.getWithFlatIndex(10),2.5);
+		dt.setWithFlatIndex(-1.0,0);
+		assertEquals(dt.get(0,0),-1.0);
+		show("testGetSet",dt.toString());
+		assertEquals(dt.toString(),"{[4,3],-1.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0...}");
+	}
+
+	@Test
+	final void testCloneAndCopy() {
+		dt.fillWith(1.5);
+		DoubleBufferTable dt2 = dt.clone();
+		assertEquals(dt2,dt);
+		DoubleTable heap = new DoubleTable(dt.getDimensioners());
+		heap.copy(dt);
+		assertEquals(heap.get(2,2),1.5);
+		heap.set(4.0,1,1);
+		dt2.copy(heap);
+		assertEquals(dt2.get(1,1),4.0);
+		assertEquals(dt2.get(0,1),1.5);
+		assertNotEquals(dt2,dt);
+	}
+	
+	@Test
+	final void testMapAndOpen() throws IOException {
+		Path file = Files.createTempFile("omugi", ".tab");
+		try {
+			IntBufferTable it = IntBufferTable.map(file,new Dimensioner(2),new Dimensioner(3),new Dimensioner(5));
+			assertTrue(it.isMapped());
+			for (int i=0; i<it.size(); i++)
+				it.setWithFlatIndex(i*i,i);
+			it.force();
+			IntBufferTable it2 = IntBufferTable.open(file);
+			assertEquals(it2.ndim(),3);
+			assertEquals(it2.size(2),5);
+			assertEquals(it2.get(1,2,4),29*29);
+			assertEquals(it2,it);
+			assertThrows(IllegalArgumentException.class,()->DoubleBufferTable.open(file));
+			// a truncated file is not extended
+			long size = Files.size(file);
+			try (FileChannel channel = FileChannel.open(file,java.nio.file.StandardOpenOption.WRITE)) {
+				channel.truncate(size-Integer.BYTES);
+			}
+			assertThrows(IllegalArgumentException.class,()->IntBufferTable.open(file));
+			assertEquals(Files.size(file),size-Integer.BYTES);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	final void testSegments() {
+		// 4 values per segment
+		DoubleBufferTable st = new DoubleBufferTable(2,new Dimensioner(5),new Dimensioner(3));
+		assertEquals(st.data.length,4);
+		assertEquals(st.data[3].capacity(),3);
+		for (int i=0; i<st.size(); i++)
+			st.setWithFlatIndex(i+0.5,i);
+		assertEquals(st.get(4,2),14.5);
+		assertEquals(st.get(1,1),4.5);
+		DoubleBufferTable dt2 = new DoubleBufferTable(st.getDimensioners()).copy(st);
+		assertEquals(dt2,st);
+		assertEquals(dt2.hashCode(),st.hashCode());
+		DoubleTable heap = new DoubleTable(st.getDimensioners()).copy(st);
+		assertEquals(heap.getWithFlatIndex(13),13.5);
+		st.fillWith(0.0).copy(heap);
+		assertEquals(st.getWithFlatIndex(13),13.5);
+		// binary form
+		ByteBuffer buffer = ByteBuffer.allocate((int) st.binarySize());
+		st.writeBinary(buffer);
+		buffer.flip();
+		assertEquals(Table.readBinary(buffer),heap);
+		ByteBuffer values = ByteBuffer.allocate((int) st.binaryDataSize());
+		st.writeBinaryData(values);
+		assertEquals(values.remaining(),0);
+		values.flip();
+		DoubleBufferTable st2 = new DoubleBufferTable(2,st.getDimensioners());
+		st2.readBinaryData(values);
+		assertEquals(values.remaining(),0);
+		assertEquals(st2,st);
+		// ranges across segments
+		values.clear().limit(7*Double.BYTES);
+		st.writeBinaryData(values,3,10);
+		values.flip();
+		st2.fillWith(0.0).readBinaryData(values,3,10);
+		assertEquals(st2.getWithFlatIndex(2),0.0);
+		assertEquals(st2.getWithFlatIndex(3),3.5);
+		assertEquals(st2.getWithFlatIndex(9),9.5);
+		assertEquals(st2.getWithFlatIndex(10),0.0);
+	}
+
+	@Test
+	final void testCopyChecks() {
+		assertThrows(IllegalArgumentException.class,
+			()->dt.copy(new DoubleTable(new Dimensioner(3),new Dimensioner(4))));
+		assertThrows(IllegalArgumentException.class,
+			()->dt.copy(new IntTable(new Dimensioner(4),new Dimensioner(3))));
+		assertThrows(IllegalArgumentException.class,
+			()->new LongBufferTable(new Dimensioner(2)).copy(new LongTable(new Dimensioner(3))));
+		long count = dt.modificationCount();
+		assertThrows(IllegalArgumentException.class,()->dt.copy(new FloatBufferTable(new Dimensioner(12))));
+		assertEquals(dt.modificationCount(),count);
+		DoubleSparseTable sparse = new DoubleSparseTable(dt.getDimensioners());
+		sparse.set(3.0,2,1);
+		dt.fillWith(1.0).copy(sparse);
+		assertEquals(dt.get(2,1),3.0);
+		assertEquals(dt.get(0,0),0.0);
+	}
+
+	@Test
+	final void testValueOf() {
+		dt.set(2.5,3,1);
+		String s = dt.toSaveableString();
+		DoubleBufferTable dt2 = DoubleBufferTable.valueOf(s);
+		assertEquals(dt2,dt);
+		assertEquals(DoubleTable.valueOf(s).toSaveableString(),s);
+		IntBufferTable it = IntBufferTable.valueOf("([2]3,-4)");
+		assertEquals(it.get(1),-4);
+		assertThrows(IllegalArgumentException.class,()->IntBufferTable.valueOf("([2]3,-4,5)"));
+		assertTrue(ValidPropertyTypes.isValid("DoubleBufferTable"));
+		assertEquals(ValidPropertyTypes.typeOf(dt2),"DoubleBufferTable");
+		assertEquals(ValidPropertyTypes.getDefaultValue("LongBufferTable").toString(),
+			new LongBufferTable(new Dimensioner(1)).toString());
+	}
+
+}
@@ -0,0 +1,182 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.*;
+
+class DoubleTableTest {
+
+	private DoubleTable dt;
+	
+	@BeforeEach
+	void init() {
+		// a 2x3x4 table containing 0..23
+		dt = new DoubleTable(new Dimensioner(2),new Dimensioner(3),new Dimensioner(4));
+		for (int i=0; i<dt.size(); i++)
+			dt.setWithFlatIndex((double)i,i);
+	}
+	
+	private void show(String method,String text) {
+//		System.out.println(method+": "+text);
+	}
+
+	@Test
+	final void testElementWiseOps() {
+		DoubleTable dt2 = dt.clone().fillWith(2.0);
+		dt.add(dt2);
+		assertEquals(dt.get(1,2,3),25.0);
+		dt.multiply(dt2);
+		assertEquals(dt.get(1,2,3),50.0);
+		dt.divide(dt2).subtract(dt2);
+		assertEquals(dt.get(1,2,3),23.0);
+		dt.axpy(-0.5,dt2);
+		assertEquals(dt.get(0,0,0),-1.0);
+		DoubleTable dt3 = new DoubleTable(new Dimensioner(24));
+		assertThrows(IllegalArgumentException.class,()->dt.add(dt3));
+	}
+
+	@Test
+	final void testScalarOps() {
+		dt.add(1.0).multiply(2.0);
+		assertEquals(dt.get(0,0,0),2.0);
+		assertEquals(dt.get(1,2,3),48.0);
+	}
+
+	@Test
+	final void testReductions() {
+		assertEquals(dt.sum(),276.0);
+		assertEquals(dt.mean(),11.5);
+		assertEquals(dt.min(),0.0);
+		assertEquals(dt.max(),23.0);
+	}
+
+	@Test
+	final void testReductionsAlongDimension() {
+		DoubleTable s0 = dt.sum(0);
+		show("testReductionsAlongDimension",s0.toString());
+		assertEquals(s0.ndim(),2);
+		assertEquals(s0.size(0),3);
+		assertEquals(s0.size(1),4);
+		assertEquals(s0.get(2,3),11.0+23.0);
+		DoubleTable s1 = dt.sum(1);
+		assertEquals(s1.get(1,0),12.0+16.0+20.0);
+		DoubleTable s2 = dt.sum(2);
+		assertEquals(s2.get(0,1),4.0+5.0+6.0+7.0);
+		assertEquals(dt.mean(2).get(0,1),5.5);
+		assertEquals(dt.min(1).get(1,3),15.0);
+		assertEquals(dt.max(1).get(1,3),23.0);
+		DoubleTable all = dt.sum(2).sum(1).sum(0);
+		assertEquals(all.size(),1);
+		assertEquals(all.get(0),276.0);
+	}
+
+	@Test
+	final void testIntReductions() {
+		IntTable it = new IntTable(new Dimensioner(3),new Dimensioner(2));
+		it.fillWith(Integer.MAX_VALUE);
+		assertEquals(it.sum(),6L*Integer.MAX_VALUE);
+		LongTable s = it.sum(0);
+		assertEquals(s.get(1),3L*Integer.MAX_VALUE);
+		it.set(-5,2,1);
+		assertEquals(it.min(),-5);
+		assertEquals(it.min(0).get(1),-5);
+		assertEquals(it.mean(1).get(2),(Integer.MAX_VALUE-5)/2.0);
+	}
+
+	@Test
+	final void testEmptyReductions() {
+		DoubleTable empty = new DoubleTable(new Dimensioner(0),new Dimensioner(3));
+		DoubleTable s0 = empty.sum(0);
+		assertEquals(s0.size(),3);
+		assertEquals(s0.get(1),0.0);
+		assertEquals(empty.min(0).get(1),Double.POSITIVE_INFINITY);
+		assertTrue(Double.isNaN(empty.mean(0).get(2)));
+		assertEquals(empty.sum(1).size(),0);
+		IntTable it = new IntTable(new Dimensioner(2),new Dimensioner(0));
+		assertEquals(it.sum(0).size(),0);
+		assertEquals(it.max(1).get(0),Integer.MIN_VALUE);
+		assertTrue(Double.isNaN(it.mean(1).get(1)));
+		assertEquals(new LongTable(new Dimensioner(0)).sum(0).size(),1);
+		assertEquals(new FloatTable(new Dimensioner(0),new Dimensioner(2)).max(1).size(),0);
+	}
+
+	@Test
+	final void testValueOf() {
+		DoubleTable dt2 = DoubleTable.valueOf(dt.toSaveableString());
+		assertEquals(dt2,dt);
+		dt2 = DoubleTable.valueOf("([2]1.5e3, -0.25 )",
+			new char[][] {{'(',')'},{'[',']'}}, new char[] {',',';'});
+		assertEquals(dt2.get(0),1500.0);
+		assertEquals(dt2.get(1),-0.25);
+		// random values must be read exactly as Double.valueOf() does
+		Random rng = new Random(42);
+		DoubleTable big = new DoubleTable(new Dimensioner(100),new Dimensioner(50));
+		for (int i=0; i<big.size(); i++)
+			big.setWithFlatIndex(Math.pow(10,rng.nextInt(40)-20)*rng.nextGaussian(),i);
+		big.setWithFlatIndex(Double.NaN,3);
+		big.setWithFlatIndex(Double.NEGATIVE_INFINITY,4);
+		big.setWithFlatIndex(-0.0,5);
+		big.setWithFlatIndex(Double.MIN_VALUE,6);
+		big.setWithFlatIndex(0.1,7);
+		assertEquals(DoubleTable.valueOf(big.toSaveableString()),big);
+		assertThrows(IllegalArgumentException.class,()->DoubleTable.valueOf("([3]1.0,2.0)"));
+		assertThrows(IllegalArgumentException.class,()->DoubleTable.valueOf("([1]1.0,2.0)"));
+		assertThrows(NumberFormatException.class,()->DoubleTable.valueOf("([2]1.0,2.0x)"));
+	}
+
+	@Test
+	final void testValueOfOtherTypes() {
+		FloatTable ft = FloatTable.valueOf("([4]0.1,-3.5E-3,1e12,16777217)");
+		assertEquals(ft.get(0),0.1f);
+		assertEquals(ft.get(1),-3.5E-3f);
+		assertEquals(ft.get(2),1e12f);
+		assertEquals(ft.get(3),16777217f);
+		LongTable lt = LongTable.valueOf("([3]-9223372036854775808,+12, 9223372036854775807)");
+		assertEquals(lt.get(0),Long.MIN_VALUE);
+		assertEquals(lt.get(1),12L);
+		assertEquals(lt.get(2),Long.MAX_VALUE);
+		assertThrows(NumberFormatException.class,()->LongTable.valueOf("([1]9223372036854775808)"));
+		assertThrows(NumberFormatException.class,()->ByteTable.valueOf("([1]128)"));
+		IntTable it = IntTable.valueOf("([2,2]1,2,3,4)");
+		assertEquals(it.get(1,0),3);
+		BooleanTable bt = BooleanTable.valueOf("([3]true,TRUE,yes)");
+		assertTrue(bt.get(0));
+		assertTrue(bt.get(1));
+		assertFalse(bt.get(2));
+		CharTable ct = CharTable.valueOf("([3]a,b,c)");
+		assertEquals(ct.get(2),'c');
+	}
+
+}
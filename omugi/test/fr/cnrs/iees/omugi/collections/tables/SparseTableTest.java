@@ -0,0 +1,171 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.*;
+
+import fr.cnrs.iees.omugi.io.parsing.ValidPropertyTypes;
+
+class SparseTableTest {
+
+	private DoubleSparseTable dt;
+	
+	@BeforeEach
+	void init() {
+		dt = new DoubleSparseTable(new Dimensioner(4),new Dimensioner(3));
+	}
+	
+	private void show(String method,String text) {
+//		System.out.println(method+": "+text);
+	}
+
+	@Test
+	final void testGetSet() {
+		assertEquals(dt.size(),12);
+		assertEquals(dt.occupiedCells(),0);
+		dt.set(2.5,3,1);
+		assertEquals(dt.get(3,1),2.5);
+		assertEquals(dt.getByInt(3,1),2.5);
+		assertEquals(dt.getWithFlatIndex(10),2.5);
+		assertEquals(dt.get(2,1),0.0);
+		dt.setWithFlatIndex(-1.0,0);
+		assertEquals(dt.get(0,0),-1.0);
+		assertEquals(dt.occupiedCells(),2);
+		show("testGetSet",dt.toString());
+		assertEquals(dt.toString(),"{[4,3],-1.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0...}");
+		// setting zero frees the cell
+		dt.set(0.0,3,1);
+		assertEquals(dt.occupiedCells(),1);
+		assertEquals(dt.get(3,1),0.0);
+		assertEquals(dt.get(0,0),-1.0);
+	}
+
+	@Test
+	final void testAgainstDense() {
+		// random sets and resets, compared with a dense table
+		IntTable dense = new IntTable(new Dimensioner(50),new Dimensioner(40));
+		IntSparseTable sparse = new IntSparseTable(new Dimensioner(50),new Dimensioner(40));
+		Random rng = new Random(42);
+		for (int n=0; n<20000; n++) {
+			int i = rng.nextInt(dense.size());
+			int v = rng.nextInt(3)==0 ? 0 : rng.nextInt(100)+1;
+			dense.setWithFlatIndex(v,i);
+			sparse.setWithFlatIndex(v,i);
+		}
+		int nonZero = 0;
+		for (int i=0; i<dense.size(); i++) {
+			assertEquals(sparse.getWithFlatIndex(i),dense.getWithFlatIndex(i));
+			if (dense.getWithFlatIndex(i)!=0)
+				nonZero++;
+		}
+		assertEquals(sparse.occupiedCells(),nonZero);
+		assertEquals(sparse.toSaveableString(),dense.toSaveableString());
+		IntTable back = new IntTable(dense.getDimensioners());
+		back.copy(sparse);
+		assertEquals(back,dense);
+	}
+	
+	@Test
+	final void testOccupiedIndexes() {
+		dt.set(1.0,0,2);
+		dt.set(2.0,2,0);
+		dt.set(3.0,3,2);
+		Set<Integer> found = new TreeSet<>();
+		for (PrimitiveIterator.OfInt it = dt.occupiedIndexes(); it.hasNext(); )
+			found.add(it.nextInt());
+		assertEquals(found,Set.of(2,6,11));
+		dt.clear();
+		assertFalse(dt.occupiedIndexes().hasNext());
+		assertEquals(dt.get(3,2),0.0);
+	}
+
+	@Test
+	final void testValueOfAndClone() {
+		dt.set(1.5,1,1);
+		dt.set(-3.0,2,0);
+		String s = dt.toSaveableString();
+		show("testValueOfAndClone",s);
+		// same text as a dense table
+		DoubleTable dense = DoubleTable.valueOf(s);
+		assertEquals(dense.toSaveableString(),s);
+		DoubleSparseTable dt2 = DoubleSparseTable.valueOf(s);
+		assertEquals(dt2.occupiedCells(),2);
+		assertEquals(dt2,dt);
+		assertEquals(dt2.hashCode(),dt.hashCode());
+		DoubleSparseTable dt3 = dt.clone();
+		assertEquals(dt3,dt);
+		dt3.set(0.5,0,0);
+		assertNotEquals(dt3,dt);
+		dt3.copy(dense);
+		assertEquals(dt3,dt);
+	}
+	
+	@Test
+	final void testNegativeZero() {
+		dt.set(-0.0,1,1);
+		assertEquals(dt.occupiedCells(),1);
+		assertEquals(Double.doubleToRawLongBits(dt.get(1,1)),Double.doubleToRawLongBits(-0.0));
+		DoubleTable dense = new DoubleTable(dt.getDimensioners()).copy(dt);
+		assertEquals(new DoubleSparseTable(dt.getDimensioners()).copy(dense),dt);
+		assertEquals(DoubleSparseTable.valueOf(dt.toSaveableString()),dt);
+		dt.set(0.0,1,1);
+		assertEquals(dt.occupiedCells(),0);
+	}
+
+	@Test
+	final void testCopyChecks() {
+		assertThrows(IllegalArgumentException.class,
+			()->dt.copy(new DoubleTable(new Dimensioner(3),new Dimensioner(4))));
+		assertThrows(IllegalArgumentException.class,
+			()->dt.copy(new IntTable(new Dimensioner(4),new Dimensioner(3))));
+		assertThrows(IllegalArgumentException.class,
+			()->new IntSparseTable(new Dimensioner(2)).copy(new DoubleTable(new Dimensioner(2))));
+		IntSparseTable it = new IntSparseTable(new Dimensioner(3)).copy(IntTable.valueOf("([3]0,7,0)"));
+		assertEquals(it.occupiedCells(),1);
+		assertEquals(it.get(1),7);
+	}
+
+	@Test
+	final void testPropertyType() {
+		assertTrue(ValidPropertyTypes.isValid("DoubleSparseTable"));
+		assertTrue(ValidPropertyTypes.isValid("IntSparseTable"));
+		assertEquals(ValidPropertyTypes.typeOf(dt),"DoubleSparseTable");
+		assertEquals(ValidPropertyTypes.getDefaultValue("IntSparseTable").toString(),"{[1],0}");
+	}
+
+}
@@ -32,6 +32,20 @@ package fr.cnrs.iees.omugi.collections.tables;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 import org.junit.jupiter.api.*;
 
 import fr.cnrs.iees.omhtk.SaveableAsText;
@@ -81,6 +95,35 @@ class TableTest {
 		}
 	}
 
+	@Test
+	void testGetFlatIndexByIntFixedArity() {
+		for (int i=0; i<5; i++)
+			for (int j=0; j<3; j++)
+				for (int k=0; k<2; k++)
+					assertEquals(tb.getFlatIndexByInt(i,j,k),tb.getFlatIndexByInt(new int[] {i,j,k}));
+		assertThrows(IllegalArgumentException.class,()->tb.getFlatIndexByInt(1,0));
+		assertThrows(IllegalArgumentException.class,()->tb.getFlatIndexByInt(1));
+	}
+
+	@Test
+	void testFixedArityAccessors() {
+		BooleanTable bt = (BooleanTable) tb;
+		bt.set(true,1,0,1);
+		assertTrue(bt.get(1,0,1));
+		assertTrue(bt.getWithFlatIndex(7));
+		DoubleTable dt = new DoubleTable(new Dimensioner(4),new Dimensioner(3));
+		dt.set(2.5,3,1);
+		assertEquals(dt.get(3,1),2.5);
+		assertEquals(dt.getByInt(3,1),2.5);
+		assertEquals(dt.getWithFlatIndex(10),2.5);
+		IntTable it = new IntTable(new Dimensioner(6));
+		it.set(42,5);
+		assertEquals(it.get(5),42);
+		assertThrows(IllegalArgumentException.class,()->it.get(0,1));
+		Table t = dt;
+		assertThrows(UnsupportedOperationException.class,()->t.set('a',0,0));
+	}
+
 	@Test
 	void testGetIndexes() {
 		int[] index = {1,0,1};
@@ -141,6 +184,128 @@ class TableTest {
 			+ "false false false false false false false false false false false false)");
 	}
 	
+	@Test
+	void testAppendSaveable() throws IOException {
+		char[][] bdel = {SaveableAsText.BRACKETS,SaveableAsText.TRIANGULAR_BRACKETS};
+		char[] isep = {SaveableAsText.BLANK,SaveableAsText.PLUS};
+		StringWriter w = new StringWriter();
+		tb.appendSaveable(w, bdel, isep);
+		assertEquals(w.toString(),tb.toSaveableString(bdel, isep));
+		// large enough to be written in several chunks
+		DoubleTable dt = new DoubleTable(new Dimensioner(100),new Dimensioner(100));
+		for (int i=0; i<dt.size(); i++)
+			dt.setWithFlatIndex(i/7.0,i);
+		w = new StringWriter();
+		dt.appendSaveable(w, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+		assertEquals(w.toString(),dt.toSaveableString());
+		assertEquals(DoubleTable.valueOf(w.toString()),dt);
+		StringTable st = new StringTable(new Dimensioner(2));
+		st.setWithFlatIndex("a,b", 0);
+		StringBuilder sb = new StringBuilder("x=");
+		st.appendSaveable(sb, Table.getDefaultDelimiters(), Table.getDefaultSeparators());
+		assertEquals(sb.toString(),"x=([2]\"a,b\",\"\")");
+	}
+	
+	@Test
+	void testBinary() throws IOException {
+		// all table types, through a ByteBuffer
+		DoubleTable dt = new DoubleTable(new Dimensioner("a","b","c"),new Dimensioner(4));
+		for (int i=0; i<dt.size(); i++)
+			dt.setWithFlatIndex(i/3.0,i);
+		IntTable it = new IntTable(new Dimensioner(7));
+		it.fillWith(-12345);
+		StringTable st = new StringTable(new Dimensioner(3));
+		st.setWithFlatIndex("été",0);
+		st.setWithFlatIndex(null,2);
+		tb.fillWith(true);
+		Table[] tables = {dt, it, st, tb,
+			new FloatTable(new Dimensioner(2)).fillWith(1.5f),
+			new LongTable(new Dimensioner(2)).fillWith(Long.MIN_VALUE),
+			new ShortTable(new Dimensioner(2)).fillWith((short)-3),
+			new ByteTable(new Dimensioner(2)).fillWith((byte)7),
+			new CharTable(new Dimensioner(2)).fillWith('x'),
+			new DoubleBufferTable(new Dimensioner(3)).fillWith(2.0)};
+		int size = 0;
+		for (Table t:tables)
+			size += t.binarySize();
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		for (Table t:tables)
+			t.writeBinary(buffer);
+		assertEquals(buffer.remaining(),0);
+		assertEquals(buffer.order(),ByteOrder.BIG_ENDIAN);
+		buffer.flip();
+		for (Table t:tables) {
+			Table t2 = Table.readBinary(buffer);
+			if (t instanceof DoubleBufferTable)
+				assertEquals(t2,new DoubleTable(t.getDimensioners()).copy(t));
+			else
+				assertEquals(t2,t);
+			assertEquals(t2.toSaveableString(),t.toSaveableString());
+		}
+		Table dt2 = Table.readBinary(ByteBuffer.wrap(toBytes(dt)));
+		assertEquals(dt2.getDimensioners()[0].getName(1),"b");
+		assertEquals(dt.binarySize(),16+4+8+(3*5)+8+12*8);
+		// through DataOutput/DataInput
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(toBytes(dt,it,st)));
+		assertEquals(Table.readBinary(in),dt);
+		assertEquals(Table.readBinary(in),it);
+		assertEquals(Table.readBinary(in),st);
+		assertThrows(EOFException.class,()->Table.readBinary(in));
+		assertThrows(IllegalArgumentException.class,
+			()->Table.readBinary(ByteBuffer.wrap(tb.toSaveableString().getBytes())));
+		// through a FileChannel
+		Path file = Files.createTempFile("omugi", ".bin");
+		try {
+			try (FileChannel out = FileChannel.open(file,StandardOpenOption.WRITE)) {
+				dt.writeBinary(out);
+				st.writeBinary(out);
+			}
+			try (FileChannel cin = FileChannel.open(file)) {
+				assertEquals(Table.readBinary(cin),dt);
+				assertEquals(Table.readBinary(cin),st);
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	void testBinaryStreaming() throws IOException {
+		// values spanning many stream chunks
+		DoubleTable dt = new DoubleTable(new Dimensioner(700),new Dimensioner(500));
+		for (int i=0; i<dt.size(); i++)
+			dt.setWithFlatIndex(Math.sqrt(i),i);
+		ByteBuffer buffer = ByteBuffer.allocate((int) dt.binarySize());
+		dt.writeBinary(buffer);
+		byte[] bytes = toBytes(dt);
+		assertEquals(buffer.flip(),ByteBuffer.wrap(bytes));
+		assertEquals(Table.readBinary(new DataInputStream(new ByteArrayInputStream(bytes))),dt);
+		// a String bigger than a stream chunk
+		StringTable st = new StringTable(new Dimensioner(3));
+		st.setWithFlatIndex("x".repeat(3<<20),1);
+		assertEquals(Table.readBinary(new DataInputStream(new ByteArrayInputStream(toBytes(st)))),st);
+		// sizes above 2^31 bytes
+		DoubleSparseTable big = new DoubleSparseTable(new Dimensioner(1<<15),new Dimensioner(1<<15));
+		assertEquals(big.binarySize(),20+4+2*8+(8L<<30));
+		assertThrows(IllegalStateException.class,()->big.writeBinary(ByteBuffer.allocate(16)));
+		// long data size header (format version 2)
+		IntTable it = new IntTable(new Dimensioner(3)).fillWith(7);
+		ByteBuffer v1 = ByteBuffer.wrap(toBytes(it)).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer v2 = ByteBuffer.allocate(v1.capacity()+4).order(ByteOrder.LITTLE_ENDIAN);
+		v2.putInt(v1.getInt()).putShort((short)2).putShort(v1.getShort(6)).putInt(v1.getInt(8))
+			.putLong(v1.getInt(12)).put(v1.position(16));
+		assertEquals(Table.readBinary(new DataInputStream(new ByteArrayInputStream(v2.array()))),it);
+	}
+
+	private byte[] toBytes(Table... tables) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (Table t:tables)
+			t.writeBinary(out);
+		return bytes.toByteArray();
+	}
+
 	@Test
 	void testEquals() {
 		tb.fillWith(true);
@@ -160,4 +325,32 @@ class TableTest {
 		assertFalse(tb3.equals(tb4));
 	}
 	
+	@Test
+	void testModificationCount() {
+		assertEquals(tb.modificationCount(),0L);
+		int h0 = tb.hashCode();
+		tb.setWithFlatIndex(true,5);
+		assertEquals(tb.modificationCount(),1L);
+		int h1 = tb.hashCode();
+		assertNotEquals(h1,h0);
+		BooleanTable tb2 = new BooleanTable(tb.getDimensioners());
+		tb2.copy(tb);
+		assertEquals(tb2.hashCode(),h1);
+		tb.clear();
+		assertEquals(tb.hashCode(),h0);
+		DoubleTable dt = new DoubleTable(new Dimensioner(3));
+		long n = dt.modificationCount();
+		dt.add(1.0);
+		dt.set(2.0,1);
+		dt.fillWith(3.0);
+		assertEquals(dt.modificationCount(),n+3);
+		// reductions do not modify the table
+		dt.sum(0);
+		assertEquals(dt.modificationCount(),n+3);
+		StringTable st = new StringTable(new Dimensioner(2));
+		int hs = st.hashCode();
+		st.setByInt("a",0);
+		assertNotEquals(st.hashCode(),hs);
+	}
+
 }
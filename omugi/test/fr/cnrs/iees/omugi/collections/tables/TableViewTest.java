@@ -0,0 +1,128 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.collections.tables;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.*;
+
+import au.edu.anu.omhtk.util.IntegerRange;
+
+class TableViewTest {
+
+	private DoubleTable dt;
+	
+	@BeforeEach
+	void init() {
+		dt = new DoubleTable(new Dimensioner(4),new Dimensioner(5),new Dimensioner(3));
+		for (int i=0; i<dt.size(); i++)
+			dt.setWithFlatIndex((double)i,i);
+	}
+	
+	private void show(String method,String text) {
+//		System.out.println(method+": "+text);
+	}
+
+	@Test
+	final void testIndexString() {
+		TableView<DoubleTable> view = new TableView<>(dt,"[1:3|2;4|]");
+		show("testIndexString",view.toString());
+		assertEquals(view.ndim(),3);
+		assertEquals(view.size(),18);
+		assertEquals(view.size(1),2);
+		// same cells, same order as IndexString.stringToIndex(...)
+		int[][] expected = IndexString.stringToIndex("[1:3|2;4|]",dt);
+		PrimitiveIterator.OfInt it = view.flatIndexes();
+		for (int i=0; i<expected.length; i++) {
+			int flat = dt.getFlatIndexByInt(expected[i]);
+			assertEquals(it.nextInt(),flat);
+			assertEquals(view.getTableFlatIndex(i),flat);
+		}
+		assertFalse(it.hasNext());
+		assertArrayEquals(view.flatIndexStream().toArray(),view.flatIndexStream().parallel().toArray());
+		assertEquals(view.getFlatIndexByInt(2,1,0),dt.getFlatIndexByInt(3,4,0));
+	}
+
+	@Test
+	final void testRanges() {
+		TableView<DoubleTable> view = new TableView<>(dt,
+			new IntegerRange(1,2),new IntegerRange(0,4),new IntegerRange(1,1));
+		assertEquals(view.size(),10);
+		assertEquals(view.toString(),"{[2,5,1],16.0,19.0,22.0,25.0,28.0,31.0,34.0,37.0,40.0,43.0}");
+		assertThrows(IndexOutOfBoundsException.class,
+			()->new TableView<>(dt,new IntegerRange(1,4),new IntegerRange(0,4),new IntegerRange(1,1)));
+	}
+	
+	@Test
+	final void testReadWrite() {
+		TableView<DoubleTable> view = new TableView<>(dt,"[-0||1]");
+		double[] sum = new double[1];
+		view.forEachFlatIndex(i->sum[0] += view.table().getWithFlatIndex(i));
+		double expected = 0.0;
+		for (int i=1; i<4; i++)
+			for (int j=0; j<5; j++)
+				expected += dt.get(i,j,1);
+		assertEquals(sum[0],expected);
+		// writes go to the backing table
+		view.forEachFlatIndex(i->view.table().setWithFlatIndex(-1.0,i));
+		assertEquals(dt.get(2,3,1),-1.0);
+		assertEquals(dt.get(0,3,1),10.0);
+		assertEquals(dt.get(2,3,0),39.0);
+	}
+
+	@Test
+	final void testTypedViews() {
+		DoubleTableView view = new DoubleTableView(dt,"[1:3|2;4|]");
+		assertEquals(view.getByInt(2,1,0),dt.get(3,4,0));
+		assertEquals(view.getWithViewIndex(4),dt.getWithFlatIndex(view.getTableFlatIndex(4)));
+		view.setByInt(-2.0,0,0,1);
+		assertEquals(dt.get(1,2,1),-2.0);
+		view.setWithViewIndex(-3.0,17);
+		assertEquals(dt.get(3,4,2),-3.0);
+		view.fillWith(0.0);
+		assertEquals(dt.get(2,4,1),0.0);
+		assertEquals(dt.get(2,3,1),40.0);
+		IntTable it = new IntTable(new Dimensioner(3),new Dimensioner(3));
+		IntTableView iv = new IntTableView(it,new IntegerRange(1,2),new IntegerRange(0,0)).fillWith(5);
+		assertEquals(iv.getByInt(1,0),5);
+		assertEquals(it.get(2,0),5);
+		assertEquals(it.get(0,0),0);
+		assertEquals(it.get(1,1),0);
+		LongTableView lv = new LongTableView(new LongTable(new Dimensioner(2)),"[1]");
+		lv.setWithViewIndex(7L,0);
+		assertEquals(lv.table().get(1),7L);
+		FloatTableView fv = new FloatTableView(new FloatTable(new Dimensioner(2)),"[]");
+		assertEquals(fv.fillWith(1f).table().sum(),2.0);
+	}
+
+}
@@ -0,0 +1,111 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.cnrs.iees.omugi.graph.impl.ALEdge;
+import fr.cnrs.iees.omugi.graph.impl.ALGraph;
+import fr.cnrs.iees.omugi.graph.impl.ALGraphFactory;
+import fr.cnrs.iees.omugi.graph.impl.ALNode;
+
+/**
+ * <p>A (crude) benchmark of connected component searches. Not a test: run it by hand as
+ * <pre>java fr.cnrs.iees.omugi.graph.ConnectedComponentsBenchmark [nNodes] [linksPerNode]</pre>
+ * It builds a random graph and times the {@code firstDepthSearch} and {@code unionFind} algorithms,
+ * then the {@code shiloachVishkin} algorithm in pools of 1, 2, 4... and finally N threads, N being
+ * the number of available processors.</p>
+ */
+public class ConnectedComponentsBenchmark {
+
+	private static final int REPEATS = 5;
+
+	// the graph with its search pool set from outside
+	private static class BenchGraph extends ALGraph<ALNode,ALEdge> {
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		BenchGraph(ALGraphFactory factory) {
+			super(factory);
+		}
+		@Override
+		public ForkJoinPool searchPool() {
+			return pool;
+		}
+	}
+
+	// best time of a few runs, in ms
+	private static double time(Graph<?,?> graph, Graph.searchAlgorithm algorithm) {
+		long best = Long.MAX_VALUE;
+		int nComponents = 0;
+		for (int i=0; i<REPEATS; i++) {
+			long t = System.nanoTime();
+			nComponents = graph.connectedComponents(algorithm).size();
+			best = Math.min(best,System.nanoTime()-t);
+		}
+		System.out.print("("+nComponents+" components) ");
+		return best/1e6;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int nNodes = args.length>0 ? Integer.parseInt(args[0]) : 200000;
+		double linksPerNode = args.length>1 ? Double.parseDouble(args[1]) : 0.5;
+		ALGraphFactory f = new ALGraphFactory("bench");
+		BenchGraph graph = new BenchGraph(f);
+		Random rng = new Random(42);
+		ALNode[] nodes = new ALNode[nNodes];
+		for (int i=0; i<nNodes; i++) {
+			nodes[i] = f.makeNode("n"+i);
+			graph.addNode(nodes[i]);
+		}
+		int nLinks = (int) (nNodes*linksPerNode);
+		for (int i=0; i<nLinks; i++)
+			f.makeEdge(nodes[rng.nextInt(nNodes)],nodes[rng.nextInt(nNodes)],"e"+i);
+		System.out.println(nNodes+" nodes, "+nLinks+" edges");
+		// firstDepthSearch is recursive: give it a large stack
+		Thread dfs = new Thread(null,()->
+			System.out.println("firstDepthSearch: "+time(graph,Graph.searchAlgorithm.firstDepthSearch)+" ms"),
+			"dfs",1L<<30);
+		dfs.start();
+		dfs.join();
+		System.out.println("unionFind: "+time(graph,Graph.searchAlgorithm.unionFind)+" ms");
+		int nCores = Runtime.getRuntime().availableProcessors();
+		// doubling the pool size, the last step being clamped to the number of cores
+		for (int threads=1; ; threads=Math.min(2*threads,nCores)) {
+			graph.pool = new ForkJoinPool(threads);
+			System.out.println("shiloachVishkin, "+threads+" threads: "
+				+time(graph,Graph.searchAlgorithm.shiloachVishkin)+" ms");
+			graph.pool.shutdown();
+			if (threads==nCores)
+				break;
+		}
+	}
+
+}
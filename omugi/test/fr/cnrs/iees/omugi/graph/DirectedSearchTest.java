@@ -0,0 +1,88 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class DirectedSearchTest {
+
+	// 0 -> 1 -> 2 -> 0,  2 -> 3,  3 -> 4 -> 3,  5
+	int[] offsets = {0,1,2,4,5,6,6};
+	int[] targets = {1,2,0,3,4,3};
+
+	@Test
+	void testStrongComponentIds() {
+		assertArrayEquals(DirectedSearch.strongComponentIds(offsets,targets),new int[] {0,0,0,1,1,2});
+		// a dag: every node in its own component
+		assertArrayEquals(DirectedSearch.strongComponentIds(new int[] {0,2,3,3},new int[] {1,2,2}),
+			new int[] {0,1,2});
+	}
+
+	@Test
+	void testTopologicalOrder() {
+		assertNull(DirectedSearch.topologicalOrder(offsets,targets));
+		// 3 -> 1 -> 0,  3 -> 2 -> 0
+		assertArrayEquals(DirectedSearch.topologicalOrder(new int[] {0,0,1,2,4},new int[] {0,0,1,2}),
+			new int[] {3,1,2,0});
+		// self-loop
+		assertNull(DirectedSearch.topologicalOrder(new int[] {0,1},new int[] {0}));
+	}
+
+	@Test
+	void testCycle() {
+		assertArrayEquals(DirectedSearch.cycle(offsets,targets),new int[] {0,1,2});
+		assertArrayEquals(DirectedSearch.cycle(new int[] {0,1},new int[] {0}),new int[] {0});
+		assertEquals(DirectedSearch.cycle(new int[] {0,2,3,3},new int[] {1,2,2}).length,0);
+	}
+
+	@Test
+	void testDeepGraph() {
+		// a chain of 1M nodes, closed into a cycle: no recursion, no stack overflow
+		int n = 1000000;
+		int[] offsets = new int[n+1];
+		int[] targets = new int[n];
+		for (int i=0; i<n; i++) {
+			offsets[i+1] = i+1;
+			targets[i] = (i+1)%n;
+		}
+		int[] ids = DirectedSearch.strongComponentIds(offsets,targets);
+		assertEquals(ids[n-1],0);
+		assertEquals(DirectedSearch.cycle(offsets,targets).length,n);
+		assertNull(DirectedSearch.topologicalOrder(offsets,targets));
+		// opening the cycle: the last node has no more links
+		offsets[n] = n-1;
+		assertEquals(DirectedSearch.topologicalOrder(offsets,targets)[n-1],n-1);
+		assertEquals(DirectedSearch.strongComponentIds(offsets,targets)[n-1],n-1);
+	}
+
+}
@@ -0,0 +1,76 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class DisjointSetsTest {
+
+	@Test
+	void testUnion() {
+		DisjointSets sets = new DisjointSets(6);
+		assertEquals(sets.size(),6);
+		assertFalse(sets.connected(1,4));
+		assertTrue(sets.union(4,1));
+		assertTrue(sets.union(5,3));
+		assertFalse(sets.union(1,4));
+		assertTrue(sets.union(3,4));
+		assertTrue(sets.connected(1,5));
+		assertFalse(sets.connected(0,5));
+		assertEquals(sets.find(5),1);
+		assertArrayEquals(sets.componentIds(),new int[] {0,1,2,1,1,1});
+	}
+
+	@Test
+	void testConcurrentUnion() {
+		// a random forest: the same unions sequentially and in parallel
+		int n = 200000;
+		Random rng = new Random(7);
+		int[] a = new int[n/2];
+		int[] b = new int[n/2];
+		for (int i=0; i<a.length; i++) {
+			a[i] = rng.nextInt(n);
+			b[i] = rng.nextInt(n);
+		}
+		DisjointSets seq = new DisjointSets(n);
+		for (int i=0; i<a.length; i++)
+			seq.union(a[i],b[i]);
+		DisjointSets par = new DisjointSets(n);
+		IntStream.range(0,a.length).parallel().forEach(i->par.union(a[i],b[i]));
+		assertArrayEquals(par.componentIds(),seq.componentIds());
+	}
+
+}
@@ -0,0 +1,93 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IndexedDoubleHeapTest {
+
+	@Test
+	void testOffer() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(5);
+		assertTrue(heap.isEmpty());
+		assertTrue(heap.offer(3,4.0));
+		assertTrue(heap.offer(1,2.0));
+		assertTrue(heap.offer(4,3.0));
+		assertEquals(heap.size(),3);
+		assertTrue(heap.contains(4));
+		assertFalse(heap.contains(0));
+		// decrease key
+		assertTrue(heap.offer(3,1.0));
+		// no increase
+		assertFalse(heap.offer(1,5.0));
+		assertEquals(heap.peekPriority(),1.0);
+		assertEquals(heap.poll(),3);
+		assertEquals(heap.poll(),1);
+		assertEquals(heap.poll(),4);
+		assertThrows(NoSuchElementException.class,()->heap.poll());
+		heap.offer(0,1.0);
+		heap.clear();
+		assertFalse(heap.contains(0));
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	void testOrder() {
+		// same order as a PriorityQueue
+		int n = 10000;
+		Random rng = new Random(3);
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+		double[] p = new double[n];
+		for (int i=0; i<n; i++) {
+			p[i] = rng.nextDouble();
+			heap.offer(i,p[i]);
+		}
+		// lower some priorities
+		for (int i=0; i<n; i+=7) {
+			p[i] = p[i]/2;
+			heap.offer(i,p[i]);
+		}
+		PriorityQueue<Double> expected = new PriorityQueue<>();
+		for (double d:p)
+			expected.add(d);
+		while (!heap.isEmpty()) {
+			int i = heap.poll();
+			assertEquals(p[i],(double)expected.poll());
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelComponentsTest {
+
+	@Test
+	void testComponentIds() {
+		// 0-1-2  3  4-5 (with a self-loop on 3 and a duplicate link)
+		int[] start = {2,4,1,3,5};
+		int[] end =   {1,5,0,3,4};
+		int[] ids = new ParallelComponents().componentIds(6,start,end);
+		assertArrayEquals(ids,new int[] {0,0,0,1,2,2});
+		assertArrayEquals(new ParallelComponents().componentIds(3,new int[0],new int[0]),
+			new int[] {0,1,2});
+		assertThrows(IllegalArgumentException.class,
+			()->new ParallelComponents().componentIds(3,new int[1],new int[0]));
+	}
+
+	@Test
+	void testAgainstUnionFind() {
+		// a random sparse graph, large enough to be split into many tasks
+		int n = 100000;
+		Random rng = new Random(17);
+		int[] start = new int[n/2];
+		int[] end = new int[n/2];
+		for (int i=0; i<start.length; i++) {
+			start[i] = rng.nextInt(n);
+			end[i] = rng.nextInt(n);
+		}
+		DisjointSets sets = new DisjointSets(n);
+		for (int i=0; i<start.length; i++)
+			sets.union(start[i],end[i]);
+		int[] expected = sets.componentIds();
+		for (int threads=1; threads<=4; threads*=2) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			assertArrayEquals(new ParallelComponents(pool).componentIds(n,start,end),expected);
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testLongChain() {
+		// worst case for label propagation: a chain numbered backwards
+		int n = 50000;
+		int[] start = new int[n-1];
+		int[] end = new int[n-1];
+		for (int i=0; i<n-1; i++) {
+			start[i] = n-1-i;
+			end[i] = n-2-i;
+		}
+		int[] ids = new ParallelComponents().componentIds(n,start,end);
+		for (int i=0; i<n; i++)
+			assertEquals(ids[i],0);
+	}
+
+}
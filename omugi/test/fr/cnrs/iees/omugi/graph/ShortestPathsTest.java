@@ -0,0 +1,147 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.graph.impl.ALEdge;
+import fr.cnrs.iees.omugi.graph.impl.ALGraph;
+import fr.cnrs.iees.omugi.graph.impl.ALGraphFactory;
+import fr.cnrs.iees.omugi.graph.impl.ALNode;
+import fr.cnrs.iees.omugi.properties.SimplePropertyList;
+import fr.cnrs.iees.omugi.properties.impl.SimplePropertyListImpl;
+
+class ShortestPathsTest {
+
+	ALGraphFactory f = null;
+	ALGraph<ALNode,ALEdge> graph = null;
+	ALNode a, b, c, d, e;
+	
+	// little weighted test graph:
+	//
+	//  a ---1--> b ---1--> c ---1--> d
+	//  |                             ^
+	//  +------------5----------------+      e
+	
+	private SimplePropertyList weight(double w) {
+		SimplePropertyList props = new SimplePropertyListImpl("weight");
+		props.setProperty("weight",w);
+		return props;
+	}
+
+	@BeforeEach
+	void init() {
+		f = new ALGraphFactory("sp");
+		graph = new ALGraph<ALNode,ALEdge>(f);
+		a = f.makeNode("a");
+		b = f.makeNode("b");
+		c = f.makeNode("c");
+		d = f.makeNode("d");
+		e = f.makeNode("e");
+		f.makeEdge(a,b,"ab",weight(1.0));
+		f.makeEdge(b,c,"bc",weight(1.0));
+		f.makeEdge(c,d,"cd",weight(1.0));
+		f.makeEdge(a,d,"ad",weight(5.0));
+		for (ALNode n:List.of(a,b,c,d,e))
+			graph.addNode(n);
+	}
+
+	@Test
+	void testHopDistances() {
+		ShortestPaths<ALNode> sp = new ShortestPaths<>(graph);
+		int[] hops = sp.hopDistances(a);
+		assertEquals(hops[sp.indexOf(a)],0);
+		assertEquals(hops[sp.indexOf(d)],1);
+		assertEquals(hops[sp.indexOf(c)],2);
+		assertEquals(hops[sp.indexOf(e)],-1);
+		assertEquals(sp.path(a,d),List.of(a,d));
+		assertThrows(IllegalArgumentException.class,()->sp.hopDistances(f.makeNode("out")));
+	}
+
+	@Test
+	void testDijkstra() {
+		ShortestPaths<ALNode> sp = new ShortestPaths<>(graph,"weight");
+		double[] dist = sp.distances(a);
+		assertEquals(dist[sp.indexOf(d)],3.0);
+		assertEquals(dist[sp.indexOf(e)],Double.POSITIVE_INFINITY);
+		assertEquals(sp.distance(a,d),3.0);
+		assertEquals(sp.path(a,d),List.of(a,b,c,d));
+		assertEquals(sp.path(d,a),List.of());
+		assertEquals(sp.path(a,a),List.of(a));
+		// weights from a function
+		ShortestPaths<ALNode> sp2 = new ShortestPaths<>(graph,(x)->x.id().equals("ad")?2.0:1.0);
+		assertEquals(sp2.path(a,d),List.of(a,d));
+		// invalid weights
+		assertThrows(IllegalArgumentException.class,()->new ShortestPaths<>(graph,(x)->-1.0));
+		f.makeEdge(d,e,"de");
+		assertThrows(IllegalArgumentException.class,()->new ShortestPaths<>(graph,"weight"));
+	}
+
+	@Test
+	void testAStar() {
+		// a grid, with the manhattan distance as heuristic
+		ALGraphFactory gf = new ALGraphFactory("grid");
+		ALGraph<ALNode,ALEdge> grid = new ALGraph<ALNode,ALEdge>(gf);
+		int size = 100;
+		ALNode[][] cells = new ALNode[size][size];
+		for (int i=0; i<size; i++)
+			for (int j=0; j<size; j++) {
+				cells[i][j] = gf.makeNode("c"+i+"_"+j);
+				grid.addNode(cells[i][j]);
+			}
+		for (int i=0; i<size; i++)
+			for (int j=0; j<size; j++) {
+				if (i+1<size) {
+					gf.makeEdge(cells[i][j],cells[i+1][j],"v"+i+"_"+j);
+					gf.makeEdge(cells[i+1][j],cells[i][j],"w"+i+"_"+j);
+				}
+				if (j+1<size) {
+					gf.makeEdge(cells[i][j],cells[i][j+1],"h"+i+"_"+j);
+					gf.makeEdge(cells[i][j+1],cells[i][j],"k"+i+"_"+j);
+				}
+			}
+		ShortestPaths<ALNode> sp = new ShortestPaths<>(grid);
+		ALNode target = cells[size-1][size-1];
+		List<ALNode> path = sp.path(cells[0][0],target,(n)->{
+			String[] ij = n.id().substring(1).split("_");
+			return 2*(size-1)-Integer.parseInt(ij[0])-Integer.parseInt(ij[1]);
+		});
+		assertEquals(path.size(),2*size-1);
+		assertEquals(path.size()-1,(int)sp.distance(cells[0][0],target));
+		assertEquals(sp.hopDistances(cells[0][0])[sp.indexOf(target)],2*size-2);
+	}
+
+}
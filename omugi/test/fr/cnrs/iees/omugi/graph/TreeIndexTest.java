@@ -0,0 +1,162 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.graph.impl.SimpleTree;
+import fr.cnrs.iees.omugi.graph.impl.SimpleTreeFactory;
+import fr.cnrs.iees.omugi.graph.impl.SimpleTreeNode;
+
+class TreeIndexTest {
+
+	SimpleTreeFactory f = null;
+	SimpleTree<SimpleTreeNode> tree = null;
+	SimpleTreeNode tn1, tn2, tn3, tn4, tn5;
+	
+	// little test tree:
+	//
+	//        tn1
+	//       /   \
+	//     tn2   tn3
+	//    /   \
+	//  tn4   tn5
+	
+	@BeforeEach
+	void init() {
+		f = new SimpleTreeFactory("tix");
+		tree = new SimpleTree<>(f);
+		tn1 = f.makeNode("tn1");
+		tn2 = f.makeNode("tn2");
+		tn3 = f.makeNode("tn3");
+		tn4 = f.makeNode("tn4");
+		tn5 = f.makeNode("tn5");
+		tn2.connectParent(tn1);
+		tn3.connectParent(tn1);
+		tn4.connectParent(tn2);
+		tn5.connectParent(tn2);
+	}
+
+	@Test
+	void testDepthAndRanges() {
+		TreeIndex<SimpleTreeNode> index = tree.index();
+		assertEquals(index.size(),5);
+		assertEquals(index.indexOf(tn1),0);
+		assertEquals(index.node(0),tn1);
+		assertEquals(index.depth(tn1),0);
+		assertEquals(index.depth(tn3),1);
+		assertEquals(index.depth(tn5),2);
+		assertEquals(index.subTreeSize(tn2),3);
+		assertEquals(index.subTreeEnd(tn2)-index.indexOf(tn2),2);
+		assertEquals(new HashSet<>(index.subTree(tn2)),new HashSet<>(List.of(tn2,tn4,tn5)));
+		assertEquals(index.subTree(tn2).get(0),tn2);
+		assertEquals(index.subTree(tn3),List.of(tn3));
+		assertEquals(index.subTree(tn1).size(),5);
+	}
+
+	@Test
+	void testAncestors() {
+		TreeIndex<SimpleTreeNode> index = tree.index();
+		assertTrue(index.isAncestor(tn1,tn5));
+		assertTrue(index.isAncestor(tn2,tn4));
+		assertFalse(index.isAncestor(tn3,tn4));
+		assertFalse(index.isAncestor(tn4,tn2));
+		assertFalse(index.isAncestor(tn2,tn2));
+		assertEquals(index.ancestor(tn5,0),tn5);
+		assertEquals(index.ancestor(tn5,1),tn2);
+		assertEquals(index.ancestor(tn5,2),tn1);
+		assertNull(index.ancestor(tn5,3));
+		assertEquals(index.lowestCommonAncestor(tn4,tn5),tn2);
+		assertEquals(index.lowestCommonAncestor(tn4,tn3),tn1);
+		assertEquals(index.lowestCommonAncestor(tn2,tn5),tn2);
+		assertEquals(index.lowestCommonAncestor(tn3,tn3),tn3);
+		assertThrows(IllegalArgumentException.class,()->index.depth(new SimpleTreeFactory("other").makeNode("x")));
+	}
+
+	@Test
+	void testInvalidation() {
+		TreeIndex<SimpleTreeNode> index = tree.index();
+		assertSame(tree.index(),index);
+		// reparenting
+		tn3.connectParent(tn5);
+		TreeIndex<SimpleTreeNode> index2 = tree.index();
+		assertNotSame(index2,index);
+		assertEquals(index2.depth(tn3),3);
+		assertTrue(index2.isAncestor(tn2,tn3));
+		// a new root
+		SimpleTreeNode tn6 = f.makeNode("tn6");
+		TreeIndex<SimpleTreeNode> index3 = tree.index();
+		assertEquals(index3.size(),6);
+		assertNull(index3.lowestCommonAncestor(tn6,tn3));
+		assertEquals(index3.depth(tn6),0);
+	}
+
+	@Test
+	void testParentOutsideTree() {
+		// tn2 and tn3 keep tn1 as parent, but tn1 is no longer in the tree
+		tree.removeNode(tn1);
+		TreeIndex<SimpleTreeNode> index = tree.index();
+		assertEquals(index.size(),4);
+		assertEquals(index.indexOf(tn1),-1);
+		assertEquals(index.depth(tn2),0);
+		assertEquals(index.depth(tn3),0);
+		assertEquals(index.depth(tn5),1);
+		assertEquals(index.subTreeSize(tn2),3);
+		assertNull(index.lowestCommonAncestor(tn4,tn3));
+	}
+
+	@Test
+	void testDeepTree() {
+		// a long chain with a side branch at every node
+		SimpleTreeNode last = tn5;
+		for (int i=0; i<100000; i++) {
+			SimpleTreeNode n = f.makeNode("c"+i);
+			n.connectParent(last);
+			f.makeNode("s"+i).connectParent(last);
+			last = n;
+		}
+		TreeIndex<SimpleTreeNode> index = tree.index();
+		assertEquals(index.depth(last),100002);
+		assertTrue(index.isAncestor(tn2,last));
+		assertEquals(index.ancestor(last,100000),tn5);
+		SimpleTreeNode side = tree.findNode("s500");
+		assertEquals(index.lowestCommonAncestor(side,last),index.ancestor(side,1));
+		assertEquals(index.lowestCommonAncestor(last,tn3),tn1);
+		assertEquals(index.subTreeSize(tn5),200001);
+	}
+
+}
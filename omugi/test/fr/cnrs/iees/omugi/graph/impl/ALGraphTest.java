@@ -33,12 +33,16 @@ package fr.cnrs.iees.omugi.graph.impl;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import fr.cnrs.iees.omugi.graph.Direction;
 import fr.cnrs.iees.omugi.graph.Edge;
+import fr.cnrs.iees.omugi.graph.Graph;
 import fr.cnrs.iees.omugi.graph.Node;
 
 class ALGraphTest {
@@ -138,6 +142,44 @@ class ALGraphTest {
 		assertEquals(graph.nEdges(),5);
 	}
 
+	@Test
+	void testFindEdge() {
+		assertEquals(graph.findEdge(e4.id()),e4);
+		assertNull(graph.findEdge("unknown"));
+		// new edges are indexed
+		Edge e6 = f.makeEdge(n4,n1,"e6");
+		assertEquals(graph.findEdge(e6.id()),e6);
+		assertEquals(graph.nEdges(),6);
+		// reconnected edges too
+		e6.connect(n3,n1);
+		assertEquals(graph.findEdge(e6.id()),e6);
+		assertEquals(graph.nEdges(),6);
+		// disconnected edges are forgotten
+		e6.disconnect();
+		assertNull(graph.findEdge(e6.id()));
+		n2.disconnect();
+		assertNull(graph.findEdge(e1.id()));
+		assertNull(graph.findEdge(e3.id()));
+		assertEquals(graph.nEdges(),1);
+		assertEquals(graph.nEdges(),graph.edges().size());
+		// as well as edges of removed nodes
+		graph.removeNode(n3);
+		assertNull(graph.findEdge(e5.id()));
+		assertEquals(graph.nEdges(),0);
+	}
+
+	@Test
+	void testRenameEdge() {
+		String oldId = e4.id();
+		e4.rename(oldId,"e4bis");
+		assertEquals(graph.findEdge("e4bis"),e4);
+		assertNull(graph.findEdge(oldId));
+		// a failed renaming leaves the edge indexed under its id
+		assertThrows(IllegalArgumentException.class,()->e4.rename("e4bis",e1.id()));
+		assertEquals(graph.findEdge("e4bis"),e4);
+		assertEquals(graph.nEdges(),5);
+	}
+
 	@Test
 	void testNodeFactory() {
 		assertEquals(graph.nodeFactory(),f);
@@ -199,6 +241,126 @@ class ALGraphTest {
 		Collection<Set<Node>> result = graph.connectedComponents();
 		show("testConnectedComponents",result.toString());
 		assertEquals(result.size(),3);		
+		// all algorithms find the same components
+		Set<Set<Node>> expected = new HashSet<>(result);
+		for (Graph.searchAlgorithm a:Graph.searchAlgorithm.values())
+			assertEquals(new HashSet<>(graph.connectedComponents(a)),expected);
+	}
+
+	@Test
+	void testLargeConnectedComponents() {
+		// a long chain and many isolated nodes
+		ALNode last = f.makeNode("chain");
+		graph.addNode(last);
+		for (int i=0; i<50000; i++) {
+			ALNode n = f.makeNode("c"+i);
+			graph.addNode(n);
+			f.makeEdge(last,n,"l"+i);
+			last = n;
+			graph.addNode(f.makeNode("i"+i));
+		}
+		Set<Set<Node>> expected = new HashSet<>(graph.connectedComponents(Graph.searchAlgorithm.unionFind));
+		assertEquals(expected.size(),50002);
+		assertEquals(new HashSet<>(graph.connectedComponents(Graph.searchAlgorithm.breadthFirstSearch)),expected);
+		assertEquals(new HashSet<>(graph.connectedComponents(Graph.searchAlgorithm.parallelUnionFind)),expected);
+		assertEquals(new HashSet<>(graph.connectedComponents(Graph.searchAlgorithm.shiloachVishkin)),expected);
+	}
+
+	@Test
+	void testStronglyConnectedComponents() {
+		Collection<Set<ALNode>> result = graph.stronglyConnectedComponents();
+		show("testStronglyConnectedComponents",result.toString());
+		assertEquals(result.size(),3);
+		assertTrue(result.contains(Set.of(n1,n2)));
+		assertTrue(result.contains(Set.of(n3)));
+		assertTrue(result.contains(Set.of(n4)));
+	}
+
+	@Test
+	void testTopologicalSort() {
+		// the fixture has cycles n1-n2 and n2-n2
+		List<ALNode> cycle = graph.findCycle();
+		show("testTopologicalSort",cycle.toString());
+		assertFalse(cycle.isEmpty());
+		for (int i=0; i<cycle.size(); i++) {
+			ALNode next = cycle.get((i+1)%cycle.size());
+			assertTrue(cycle.get(i).edges(Direction.OUT).stream().anyMatch(e->e.endNode()==next));
+		}
+		assertThrows(IllegalStateException.class,()->graph.topologicalSort());
+		((ALEdge)e2).disconnect();
+		((ALEdge)e3).disconnect();
+		assertTrue(graph.findCycle().isEmpty());
+		assertEquals(graph.topologicalSort(),List.of(n1,n2,n3,n4));
+		// a long dependency chain numbered backwards
+		ALNode first = f.makeNode("first");
+		graph.addNode(first);
+		ALNode last = first;
+		for (int i=0; i<50000; i++) {
+			ALNode n = f.makeNode("d"+i);
+			f.makeEdge(n,last,"dep"+i);
+			graph.addNode(n);
+			last = n;
+		}
+		List<ALNode> order = graph.topologicalSort();
+		assertEquals(order.size(),graph.nNodes());
+		assertEquals(order.get(order.size()-1),first);
+		assertEquals(graph.stronglyConnectedComponents().size(),graph.nNodes());
+		// closing the chain makes a single big cycle
+		f.makeEdge(first,last,"loop");
+		assertEquals(graph.findCycle().size(),50001);
+	}
+
+	@Test
+	void testBulkBuild() {
+		// batches of nodes and edges: a chain
+		int n = 100000;
+		ALNode[] nodes = f.makeNodes(n,"b");
+		assertEquals(graph.nNodes(),n+4);
+		int[] start = new int[n-1];
+		int[] end = new int[n-1];
+		for (int i=0; i<n-1; i++) {
+			start[i] = i;
+			end[i] = i+1;
+		}
+		ALEdge[] edges = f.makeEdges(nodes,start,end,"l");
+		assertEquals(graph.nEdges(),5+n-1);
+		assertEquals(graph.findEdge(edges[10].id()),edges[10]);
+		assertEquals(nodes[10].degree(Direction.OUT),1);
+		assertEquals(edges[10].endNode(),nodes[11]);
+		// ids are unique
+		Set<String> ids = new HashSet<>();
+		for (ALNode node:nodes)
+			assertTrue(ids.add(node.id()));
+		assertFalse(ids.contains(n1.id()));
+		// bulk-build mode: graphs are only updated at the end
+		f.beginBulkBuild(10,10);
+		assertTrue(f.isBulkBuilding());
+		ALNode n5 = f.makeNode("n5");
+		Edge e6 = f.makeEdge(n1,n5,"e6");
+		Edge e7 = f.makeEdge(n5,n2,"e7");
+		Edge e8 = f.makeEdge(n5,n3,"e8");
+		((ALEdge)e8).disconnect();
+		assertFalse(graph.contains(n5));
+		assertNull(graph.findEdge(e6.id()));
+		f.endBulkBuild();
+		assertFalse(f.isBulkBuilding());
+		assertTrue(graph.contains(n5));
+		assertEquals(graph.findEdge(e6.id()),e6);
+		assertEquals(graph.findEdge(e7.id()),e7);
+		assertNull(graph.findEdge(e8.id()));
+		assertEquals(graph.nEdges(),5+n-1+2);
+		assertThrows(IllegalArgumentException.class,()->f.makeEdges(nodes,new int[2],new int[1],"x"));
+		// bad indexes are rejected before entering bulk-build mode
+		int nEdges = graph.nEdges();
+		assertThrows(IllegalArgumentException.class,
+			()->f.makeEdges(nodes,new int[] {0,1},new int[] {1,nodes.length},"x"));
+		assertThrows(IllegalArgumentException.class,
+			()->f.makeEdges(nodes,new int[] {-1},new int[] {0},"x"));
+		assertFalse(f.isBulkBuilding());
+		assertEquals(graph.nEdges(),nEdges);
+		assertThrows(IllegalArgumentException.class,()->f.makeNodes(-1,"x"));
+		assertFalse(f.isBulkBuilding());
+		assertTrue(graph.contains(f.makeNode("after")));
 	}
 
 }
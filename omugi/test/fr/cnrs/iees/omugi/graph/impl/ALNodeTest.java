@@ -32,7 +32,9 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -180,6 +182,26 @@ class ALNodeTest {
 		assertEquals(n,4);
 	}
 
+	@Test
+	void testForEach() {
+		List<Node> found = new ArrayList<>();
+		n2.forEachNeighbour(Direction.IN,found::add);
+		assertEquals(found.size(),2);
+		assertTrue(found.containsAll(n2.nodes(Direction.IN)));
+		found.clear();
+		n2.forEachNeighbour(Direction.OUT,found::add);
+		assertEquals(found.size(),3);
+		assertTrue(found.containsAll(n2.nodes(Direction.OUT)));
+		List<Edge> edges = new ArrayList<>();
+		n2.forEachEdge(Direction.OUT,edges::add);
+		assertEquals(edges.size(),3);
+		assertTrue(edges.containsAll(n2.edges(Direction.OUT)));
+		edges.clear();
+		// e3 loops on n2 so it is visited twice
+		n2.forEachEdge(edges::add);
+		assertEquals(edges.size(),5);
+	}
+
 	@Test
 	void testNodesDirection() {
 		int i=0;
@@ -262,6 +284,25 @@ class ALNodeTest {
 		assertTrue(n2.traversal(2,Direction.OUT).contains(n3));
 	}
 	
+	@Test
+	void testLongTraversal() {
+		// a long chain would overflow the stack of a recursive search
+		Node first = f.makeNode("chain");
+		Node last = first;
+		for (int i=0; i<100000; i++) {
+			Node n = f.makeNode("c"+i);
+			f.makeEdge(last,n,"l"+i);
+			last = n;
+		}
+		assertEquals(first.traversal().size(),100001);
+		assertEquals(first.traversal(Direction.OUT).size(),100001);
+		assertEquals(first.traversal(Direction.IN).size(),1);
+		// a shortcut: last must be found at distance 1 even if also reachable through the chain
+		f.makeEdge(first,last,"shortcut");
+		assertTrue(first.traversal(2).contains(last));
+		assertEquals(first.traversal(2).size(),3);
+	}
+
 	@Test
 	void testTraversalInt() {
 //		for (Node n:n2.traversal(5))
@@ -0,0 +1,171 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+import fr.cnrs.iees.omugi.graph.Edge;
+
+class ConcurrentGraphTest {
+
+	static final int nThreads = 8;
+	static final int nPerThread = 500;
+
+	ConcurrentGraphFactory f;
+	ConcurrentGraph<ALNode,ALEdge> graph;
+	ALNode hub;
+
+	@BeforeEach
+	void init() {
+		f = new ConcurrentGraphFactory("cgt");
+		graph = new ConcurrentGraph<>(f);
+		hub = f.makeNode("hub");
+	}
+
+	// every thread builds a chain of nodes, all linked to the hub
+	private void buildInParallel() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> tasks = new ArrayList<>();
+		for (int t=0; t<nThreads; t++)
+			tasks.add(pool.submit(() -> {
+				start.await();
+				ALNode previous = null;
+				for (int i=0; i<nPerThread; i++) {
+					ALNode n = f.makeNode("n");
+					n.connectTo(Direction.IN,hub);
+					if (previous!=null)
+						previous.connectTo(Direction.OUT,n);
+					previous = n;
+				}
+				return null;
+			}));
+		start.countDown();
+		for (Future<?> task:tasks)
+			task.get();
+		pool.shutdown();
+	}
+
+	@Test
+	void testParallelBuild() throws Exception {
+		buildInParallel();
+		assertEquals(graph.nNodes(),nThreads*nPerThread+1);
+		assertEquals(graph.nEdges(),nThreads*nPerThread+nThreads*(nPerThread-1));
+		assertEquals(hub.degree(Direction.OUT),nThreads*nPerThread);
+		Set<String> ids = new HashSet<>();
+		int nEdges = 0;
+		for (ALNode n:graph.nodes()) {
+			assertTrue(ids.add(n.id()));
+			assertSame(graph.findNode(n.id()),n);
+			for (ALEdge e:n.edges(Direction.OUT)) {
+				assertSame(graph.findEdge(e.id()),e);
+				assertTrue(e.endNode().edges(Direction.IN).contains(e));
+				nEdges++;
+			}
+		}
+		assertEquals(nEdges,graph.nEdges());
+	}
+
+	@Test
+	void testIterationDuringMutation() {
+		for (int i=0; i<20; i++)
+			hub.connectTo(Direction.OUT,f.makeNode("n"));
+		// iterations work on snapshots: no ConcurrentModificationException
+		int n = 0;
+		for (Edge e:hub.edges(Direction.OUT)) {
+			hub.connectTo(Direction.OUT,e.endNode().connectTo(Direction.OUT,f.makeNode("m")).endNode());
+			n++;
+		}
+		assertEquals(n,20);
+		assertEquals(hub.degree(Direction.OUT),40);
+		n = 0;
+		for (Edge e:hub.edges(Direction.OUT)) {
+			if (e.endNode().id().startsWith("m"))
+				e.disconnect();
+			n++;
+		}
+		assertEquals(n,40);
+		assertEquals(hub.degree(Direction.OUT),20);
+		assertEquals(graph.nEdges(),40);
+		// removal through the iterator of the edge list
+		ALNode n1 = hub.edges(Direction.OUT).iterator().next().endNode();
+		hub.disconnectFrom(n1);
+		assertEquals(hub.degree(Direction.OUT),19);
+		assertTrue(n1.edges(Direction.IN).isEmpty());
+		assertEquals(graph.nEdges(),39);
+	}
+
+	@Test
+	void testBatches() {
+		ALNode[] nodes = f.makeNodes(100,"b");
+		assertFalse(f.isBulkBuilding());
+		assertEquals(graph.nNodes(),101);
+		int[] start = new int[99];
+		int[] end = new int[99];
+		for (int i=0; i<99; i++) {
+			start[i] = i;
+			end[i] = i+1;
+		}
+		f.beginBulkBuild(0,99);
+		assertFalse(f.isBulkBuilding());
+		f.makeEdges(nodes,start,end,"e");
+		assertEquals(graph.nEdges(),99);
+		assertSame(graph.findNode(nodes[50].id()),nodes[50]);
+	}
+
+	@Test
+	void testSequentialBehaviour() {
+		ALNode n1 = f.makeNode("n1");
+		ALNode n2 = f.makeNode("n1");
+		assertNotEquals(n1.id(),n2.id());
+		Edge e = f.makeEdge(n1,n2);
+		assertEquals(graph.nEdges(),1);
+		e.disconnect();
+		assertEquals(graph.nEdges(),0);
+		graph.removeNode(n2);
+		assertFalse(graph.contains(n2));
+		assertTrue(graph.contains(n1));
+	}
+
+}
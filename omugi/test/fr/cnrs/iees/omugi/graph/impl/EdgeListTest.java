@@ -0,0 +1,156 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+
+class EdgeListTest {
+
+	ALGraphFactory f = null;
+	ALNode hub = null;
+	List<ALEdge> edges = null;
+	
+	// a star graph: hub --> 40 other nodes
+	@BeforeEach
+	void init() {
+		f = new ALGraphFactory("bzt");
+		hub = f.makeNode("hub");
+		edges = new ArrayList<>();
+		for (int i=0; i<40; i++)
+			edges.add((ALEdge) f.makeEdge(hub,f.makeNode("n"),"e"));
+	}
+
+	@Test
+	void testArrayStorage() {
+		EdgeList list = new EdgeList();
+		assertTrue(list.isEmpty());
+		for (int i=0; i<EdgeList.HASH_THRESHOLD; i++)
+			assertTrue(list.add(edges.get(i)));
+		// duplicates are rejected
+		assertFalse(list.add(edges.get(3)));
+		assertEquals(list.size(),EdgeList.HASH_THRESHOLD);
+		assertTrue(list.contains(edges.get(5)));
+		assertFalse(list.contains(edges.get(30)));
+		assertTrue(list.remove(edges.get(5)));
+		assertFalse(list.contains(edges.get(5)));
+		// removal while iterating
+		for (Iterator<ALEdge> it = list.iterator(); it.hasNext();)
+			if (it.next()==edges.get(0))
+				it.remove();
+		assertEquals(list.size(),EdgeList.HASH_THRESHOLD-2);
+		assertFalse(list.contains(edges.get(0)));
+		list.clear();
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	void testUncheckedStorage() {
+		EdgeList list = new EdgeList();
+		list.ensureCapacity(4);
+		for (int i=0; i<4; i++)
+			list.addUnchecked(edges.get(i));
+		assertEquals(list.size(),4);
+		assertTrue(list.contains(edges.get(3)));
+		// above the threshold, storage is hashed
+		list.ensureCapacity(30);
+		for (int i=4; i<34; i++)
+			list.addUnchecked(edges.get(i));
+		assertEquals(list.size(),34);
+		assertFalse(list.add(edges.get(20)));
+		assertTrue(list.remove(edges.get(20)));
+	}
+
+	@Test
+	void testPromotionDuringIteration() {
+		EdgeList list = new EdgeList();
+		for (int i=0; i<EdgeList.HASH_THRESHOLD; i++)
+			list.add(edges.get(i));
+		Iterator<ALEdge> it = list.iterator();
+		it.next();
+		list.add(edges.get(EdgeList.HASH_THRESHOLD));
+		assertTrue(it.hasNext());
+		assertThrows(ConcurrentModificationException.class,()->it.next());
+		assertThrows(ConcurrentModificationException.class,()->it.remove());
+		assertEquals(list.size(),EdgeList.HASH_THRESHOLD+1);
+		// bulk build promotion
+		EdgeList list2 = new EdgeList();
+		list2.add(edges.get(0));
+		list2.add(edges.get(1));
+		Iterator<ALEdge> it2 = list2.iterator();
+		it2.next();
+		list2.ensureCapacity(2*EdgeList.HASH_THRESHOLD);
+		assertThrows(ConcurrentModificationException.class,()->it2.next());
+		// through a node
+		ALNode n = f.makeNode("m");
+		for (int i=0; i<EdgeList.HASH_THRESHOLD; i++)
+			f.makeEdge(n,edges.get(i).endNode(),"e");
+		assertThrows(ConcurrentModificationException.class,()->{
+			for (ALEdge e:n.edges(Direction.OUT))
+				f.makeEdge(n,e.endNode(),"e");
+		});
+	}
+
+	@Test
+	void testHashedStorage() {
+		EdgeList list = new EdgeList();
+		for (ALEdge e:edges)
+			assertTrue(list.add(e));
+		assertFalse(list.add(edges.get(35)));
+		assertEquals(list.size(),edges.size());
+		for (ALEdge e:edges)
+			assertTrue(list.contains(e));
+		assertTrue(list.remove(edges.get(2)));
+		assertEquals(list.size(),edges.size()-1);
+	}
+
+	@Test
+	void testNodeStorage() {
+		assertEquals(hub.degree(Direction.OUT),40);
+		assertTrue(hub.edges(Direction.OUT).containsAll(edges));
+		for (int i=0; i<35; i++)
+			edges.get(i).disconnect();
+		assertEquals(hub.degree(Direction.OUT),5);
+		hub.disconnect();
+		assertTrue(hub.isLeaf());
+		assertTrue(edges.get(39).endNode().isRoot());
+	}
+
+}
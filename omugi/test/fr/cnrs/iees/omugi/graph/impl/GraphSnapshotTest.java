@@ -0,0 +1,162 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.graph.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.graph.Direction;
+import fr.cnrs.iees.omugi.graph.Node;
+
+class GraphSnapshotTest {
+
+	ALNode n1, n2, n3, n4;
+	ALEdge e1, e2, e3, e4, e5;
+	ALGraphFactory f = null;
+	ALGraph<ALNode,ALEdge> graph = null;
+	
+	// little test graph:
+	//
+	//              e3
+	//              ||
+	//              v|
+	//  n1 ---e1--> n2 ---e4--> n3 ---e5--> n4
+	//     <--e2--- 
+
+	@BeforeEach
+	void init() {
+		f = new ALGraphFactory("bzt");
+		n1 = f.makeNode("n1");
+		n2 = f.makeNode("n1");
+		n3 = f.makeNode("n1");
+		n4 = f.makeNode("n1");
+		e1 = (ALEdge) f.makeEdge(n1,n2,"e1");
+		e2 = (ALEdge) f.makeEdge(n2,n1,"e1");
+		e3 = (ALEdge) f.makeEdge(n2,n2,"e1");
+		e4 = (ALEdge) f.makeEdge(n2,n3,"e1");
+		e5 = (ALEdge) f.makeEdge(n3,n4,"e1");
+		graph = new ALGraph<ALNode,ALEdge>(f);
+		graph.addNode(n1);
+		graph.addNode(n2);
+		graph.addNode(n3);
+		graph.addNode(n4);
+	}
+	
+	// the nodes linked to node in the snapshot, as original nodes
+	private Set<Node> neighbours(GraphSnapshot<?,?> s, Node node, Direction direction) {
+		Set<Node> result = new HashSet<>();
+		@SuppressWarnings("unchecked")
+		int i = ((GraphSnapshot<Node,?>)s).indexOf(node);
+		for (int k=0; k<s.degree(i,direction); k++)
+			result.add(s.node(s.neighbour(i,k,direction)));
+		return result;
+	}
+
+	@Test
+	void testGraph() {
+		GraphSnapshot<ALNode,ALEdge> s = GraphSnapshot.of(graph);
+		assertEquals(s.nNodes(),4);
+		assertEquals(s.nEdges(),5);
+		for (ALNode n:graph.nodes()) {
+			assertEquals(s.node(s.indexOf(n)),n);
+			for (Direction d:Direction.values()) {
+				assertEquals(s.degree(s.indexOf(n),d),n.degree(d));
+				assertEquals(neighbours(s,n,d),new HashSet<>(n.nodes(d)));
+			}
+		}
+		int i2 = s.indexOf(n2);
+		for (int k=0; k<s.degree(i2,Direction.OUT); k++) {
+			ALEdge e = s.edge(s.edgeIndex(i2,k,Direction.OUT));
+			assertEquals(e.startNode(),n2);
+			assertEquals(s.node(s.neighbour(i2,k,Direction.OUT)),e.endNode());
+		}
+		int[] count = new int[1];
+		s.forEachNeighbour(i2,m->count[0]++);
+		assertEquals(count[0],5);
+		// the snapshot is not affected by later changes
+		e4.disconnect();
+		assertEquals(s.degree(i2,Direction.OUT),3);
+	}
+
+	@Test
+	void testComponentIds() {
+		ALNode n5 = f.makeNode("n5");
+		ALNode n6 = f.makeNode("n6");
+		ALNode n7 = f.makeNode("n7");
+		f.makeEdge(n7,n5,"e6");
+		graph.addNode(n5);
+		graph.addNode(n6);
+		graph.addNode(n7);
+		GraphSnapshot<ALNode,ALEdge> s = GraphSnapshot.of(graph);
+		int[] ids = s.componentIds(false);
+		assertArrayEquals(s.componentIds(true),ids);
+		assertArrayEquals(s.componentIds(ForkJoinPool.commonPool()),ids);
+		assertEquals(ids[s.indexOf(n1)],ids[s.indexOf(n4)]);
+		assertEquals(ids[s.indexOf(n5)],ids[s.indexOf(n7)]);
+		assertNotEquals(ids[s.indexOf(n5)],ids[s.indexOf(n6)]);
+		assertNotEquals(ids[s.indexOf(n1)],ids[s.indexOf(n6)]);
+		assertEquals(IntStream.of(ids).max().getAsInt(),2);
+	}
+
+	@Test
+	void testTreeGraph() {
+		TreeGraphFactory tf = new TreeGraphFactory("snapshot");
+		TreeGraphNode t1 = tf.makeNode("n1");
+		TreeGraphNode t2 = tf.makeNode("n1");
+		TreeGraphNode t3 = tf.makeNode("n1");
+		TreeGraphNode t4 = tf.makeNode("n1");
+		t1.connectChildren(t2,t3);
+		t4.connectParent(t2);
+		tf.makeEdge(t2, t3, "e1");
+		TreeGraph<TreeGraphNode,ALEdge> tg = new TreeGraph<>(tf);
+		tg.addNode(t1);
+		tg.addNode(t2);
+		tg.addNode(t3);
+		tg.addNode(t4);
+		GraphSnapshot<TreeGraphNode,ALEdge> s = GraphSnapshot.of(tg);
+		assertEquals(s.nEdges(),1);
+		int i2 = s.indexOf(t2);
+		assertEquals(s.degree(i2,Direction.OUT),2);
+		assertEquals(s.degree(i2,Direction.IN),1);
+		assertEquals(s.edgeIndex(i2,0,Direction.IN),GraphSnapshot.TREE_LINK);
+		assertEquals(s.node(s.neighbour(i2,0,Direction.IN)),t1);
+		assertEquals(neighbours(s,t2,Direction.OUT),Set.of(t3,t4));
+		assertEquals(s.degree(s.indexOf(t3),Direction.IN),2);
+	}
+
+}
@@ -111,6 +111,17 @@ class SimpleTreeNodeTest {
 		assertThrows(UnsupportedOperationException.class,()->tn2.edges());
 	}
 
+	@Test
+	void testForEach() {
+		List<Node> found = new ArrayList<>();
+		tn1.forEachNeighbour(Direction.IN,found::add);
+		assertTrue(found.isEmpty());
+		tn1.forEachNeighbour(Direction.OUT,found::add);
+		assertEquals(found.size(),2);
+		assertTrue(found.containsAll(tn1.getChildren()));
+		assertThrows(UnsupportedOperationException.class,()->tn1.forEachEdge(e->{}));
+	}
+
 	@Test
 	void testNodesDirection() {
 		int i=0;
@@ -177,6 +188,24 @@ class SimpleTreeNodeTest {
 		assertEquals(l.size(),4);
 	}
 
+	@Test
+	void testTraversal() {
+		// each node is found once, whatever the starting point
+		assertEquals(tn4.traversal().size(),4);
+		assertEquals(tn3.traversal(2).size(),3);
+		assertEquals(tn1.traversal(Direction.OUT).size(),4);
+		assertEquals(tn4.traversal(Direction.IN).size(),3);
+		// deep trees
+		TreeNode last = tn4;
+		for (int i=0; i<100000; i++) {
+			TreeNode n = f.makeNode("d"+i);
+			n.connectParent(last);
+			last = n;
+		}
+		assertEquals(last.traversal().size(),100004);
+		assertEquals(last.traversal(Direction.IN).size(),100003);
+	}
+
 	@Test
 	void testTraversalIntDirection() {
 		Collection<? extends Node> l = tn2.traversal(0,Direction.IN);
@@ -191,6 +220,50 @@ class SimpleTreeNodeTest {
 		assertEquals(l.size(),2);
 	}
 
+	@Test
+	void testWalk() {
+		List<TreeNode> pre = new ArrayList<>();
+		assertTrue(tn1.walk(TreeNode.walkOrder.preOrder,(n)->pre.add(n)));
+		assertEquals(pre.size(),4);
+		assertEquals(pre.get(0),tn1);
+		assertEquals(pre.indexOf(tn4),pre.indexOf(tn2)+1);
+		List<TreeNode> post = new ArrayList<>();
+		assertTrue(tn1.walk(TreeNode.walkOrder.postOrder,(n)->post.add(n)));
+		assertEquals(post.size(),4);
+		assertEquals(post.get(3),tn1);
+		assertEquals(post.indexOf(tn2),post.indexOf(tn4)+1);
+		List<TreeNode> bfs = new ArrayList<>();
+		assertTrue(tn1.walk(TreeNode.walkOrder.breadthFirst,(n)->bfs.add(n)));
+		assertEquals(bfs.get(0),tn1);
+		assertEquals(bfs.get(3),tn4);
+		assertEquals(new ArrayList<>(tn1.subTree()),pre);
+		// early termination
+		List<TreeNode> visited = new ArrayList<>();
+		for (TreeNode.walkOrder order:TreeNode.walkOrder.values()) {
+			visited.clear();
+			assertFalse(tn1.walk(order,(n)->visited.add(n) && n.hasChildren()));
+			assertTrue(visited.size()<4);
+		}
+		// a leaf
+		assertTrue(tn4.walk(TreeNode.walkOrder.postOrder,(n)->n==tn4));
+	}
+
+	@Test
+	void testDeepWalk() {
+		// a chain: no stack overflow
+		TreeNode last = tn4;
+		for (int i=0; i<200000; i++) {
+			SimpleTreeNode n = f.makeNode("c"+i);
+			n.connectParent(last);
+			last = n;
+		}
+		assertEquals(tn1.subTree().size(),200004);
+		int[] count = {0};
+		assertTrue(tn1.walk(TreeNode.walkOrder.postOrder,(n)->++count[0]>0));
+		assertEquals(count[0],200004);
+		assertTrue(tn1.walk(TreeNode.walkOrder.breadthFirst,(n)->true));
+	}
+
 	@Test
 	void testGetParent() {
 		assertEquals(tn1.getParent(),null);
@@ -32,10 +32,14 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import fr.cnrs.iees.omugi.graph.Node;
+import fr.cnrs.iees.omugi.graph.TreeNode;
 
 /**
  * 
@@ -105,12 +109,46 @@ class SimpleTreeTest {
 		assertEquals(i,2);
 	}
 
+	@Test
+	final void testWalk() {
+		List<SimpleTreeNode> visited = new ArrayList<>();
+		assertTrue(tree.walk(TreeNode.walkOrder.postOrder,(n)->visited.add(n)));
+		assertEquals(visited.size(),4);
+		assertEquals(visited.get(3),tn1);
+		// a second root
+		SimpleTreeNode tn = f.makeNode("tn5");
+		visited.clear();
+		assertTrue(tree.walk(TreeNode.walkOrder.breadthFirst,(n)->visited.add(n)));
+		assertEquals(visited.size(),5);
+		assertTrue(visited.contains(tn));
+		visited.clear();
+		assertFalse(tree.walk(TreeNode.walkOrder.preOrder,(n)->visited.add(n) && n!=tn2));
+		assertEquals(visited.get(visited.size()-1),tn2);
+	}
+
 	@Test
 	final void testContains() {
 		assertTrue(tree.contains(tn2));
 		// since tree is listening to f, the new nodes are automatically inserted in it
 		SimpleTreeNode tn = f.makeNode("tn1");
 		assertTrue(tree.contains(tn));
+		tree.removeNode(tn);
+		assertFalse(tree.contains(tn));
+		assertFalse(tree.contains(null));
+		assertTrue(tree.containsAll(List.of(tn1,tn2,tn3,tn4)));
+		assertFalse(tree.containsAll(List.of(tn1,tn)));
+		// nodes of another tree
+		SimpleTreeFactory f2 = new SimpleTreeFactory("cuckoo");
+		assertFalse(tree.contains(f2.makeNode("tn1")));
+	}
+
+	@Test
+	final void testLargeContainsAll() {
+		List<SimpleTreeNode> nodes = new ArrayList<>();
+		for (int i=0; i<100000; i++)
+			nodes.add(f.makeNode("x"+i));
+		assertTrue(tree.containsAll(nodes));
+		assertEquals(tree.nNodes(),100004);
 	}
 
 	@Test
@@ -156,6 +194,25 @@ class SimpleTreeTest {
 			i++;
 		}
 		assertEquals(i,2);
+		// disconnecting from the parent side must update the roots too
+		tn1.disconnectFrom(tn3);
+		assertEquals(tree.roots().size(),3);
+		assertTrue(tree.roots().contains(tn3));
+	}
+
+	@Test
+	final void testBulkBuild() {
+		tree.beginBulkBuild();
+		SimpleTreeNode tn5 = f.makeNode("tn1");
+		tn5.connectParent(tn3);
+		tn2.connectParent(null);
+		// roots are not updated while building
+		assertEquals(tree.root(),tn1);
+		tree.endBulkBuild();
+		assertEquals(tree.nNodes(),5);
+		assertNull(tree.root());
+		assertEquals(tree.roots().size(),2);
+		assertTrue(tree.roots().contains(tn2));
 	}
 
 	@Test
@@ -32,6 +32,7 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -274,6 +275,25 @@ class TreeGraphNodeTest {
 		assertEquals(i,1);
 	}
 
+	@Test
+	final void testForEach() {
+		List<Node> found = new ArrayList<>();
+		n1.forEachNeighbour(Direction.IN,found::add);
+		assertEquals(found.size(),1);
+		found.clear();
+		n1.forEachNeighbour(Direction.OUT,found::add);
+		assertEquals(found.size(),2);
+		assertTrue(found.containsAll(n1.getChildren()));
+		found.clear();
+		// parent (n1) + child (n4) + end of edge n2->n3 (n2 has no in-edge)
+		n2.forEachNeighbour(found::add);
+		assertEquals(found.size(),3);
+		assertTrue(found.containsAll(n2.nodes()));
+		List<Edge> edges = new ArrayList<>();
+		n2.forEachEdge(edges::add);
+		assertEquals(edges.size(),1);
+	}
+
 	@Test
 	final void testNodesDirection() {
 		int i=0;
@@ -32,11 +32,14 @@ package fr.cnrs.iees.omugi.graph.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import fr.cnrs.iees.omugi.graph.Edge;
 import fr.cnrs.iees.omugi.graph.Node;
+import fr.cnrs.iees.omugi.graph.TreeIndex;
 
 /**
  * 
@@ -116,6 +119,14 @@ class TreeGraphTest {
 		// since graph is listening to f, the new nodes are automatically inserted in it
 		TreeGraphNode n = f.makeNode("n1");
 		assertTrue(graph.contains(n));
+		graph.removeNode(n);
+		assertFalse(graph.contains(n));
+		assertFalse(graph.contains(null));
+		assertTrue(graph.containsAll(List.of(n1,n2,n3,n4)));
+		assertFalse(graph.containsAll(List.of(n1,n)));
+		// nodes of another graph
+		TreeGraphFactory f2 = new TreeGraphFactory("Brf");
+		assertFalse(graph.contains(f2.makeNode("n1")));
 	}
 
 	@Test
@@ -162,6 +173,20 @@ class TreeGraphTest {
 		assertEquals(graph.nEdges(),2);
 	}
 
+	@Test
+	final void testFindEdge() {
+		ALEdge e = (ALEdge) f.makeEdge(n3, n4, "e3");
+		assertEquals(graph.findEdge(e.id()),e);
+		assertEquals(graph.nEdges(),3);
+		// tree links are not edges
+		n3.connectParent(n4);
+		assertEquals(graph.nEdges(),3);
+		n3.disconnectFrom(n4);
+		assertNull(graph.findEdge(e.id()));
+		assertEquals(graph.nEdges(),2);
+		assertEquals(graph.nEdges(),graph.edges().size());
+	}
+
 	@Test
 	final void testRoot() {
 		assertEquals(graph.root(),n1);
@@ -190,6 +215,33 @@ class TreeGraphTest {
 			i++;
 		}
 		assertEquals(i,2);
+		// disconnecting from the parent side must update the roots too
+		n1.disconnectFrom(n3);
+		assertEquals(graph.roots().size(),3);
+		assertTrue(graph.roots().contains(n3));
+		n3.connectParent(n1);
+		assertEquals(graph.roots().size(),2);
+		assertFalse(graph.roots().contains(n3));
+	}
+
+	@Test
+	final void testBulkBuild() {
+		graph.beginBulkBuild();
+		TreeGraphNode n5 = f.makeNode("n1");
+		TreeGraphNode n6 = f.makeNode("n1");
+		n6.connectParent(n5);
+		n5.connectParent(n3);
+		// roots are not updated while building
+		assertEquals(graph.roots().size(),1);
+		assertFalse(graph.roots().contains(n5));
+		n1.disconnectFrom(n2);
+		assertEquals(graph.root(),n1);
+		graph.endBulkBuild();
+		assertEquals(graph.nNodes(),6);
+		assertNull(graph.root());
+		assertEquals(graph.roots().size(),2);
+		assertTrue(graph.roots().contains(n1));
+		assertTrue(graph.roots().contains(n2));
 	}
 
 	@Test
@@ -212,4 +264,36 @@ class TreeGraphTest {
 		show("testToString",graph.toString());
 	}
 
+	@Test
+	void testFactoryBulkBuild() {
+		f.beginBulkBuild(100,10);
+		TreeGraphNode[] nodes = f.makeNodes(100,"b");
+		for (int i=1; i<nodes.length; i++)
+			nodes[i].connectParent(nodes[(i-1)/2]);
+		Edge e = f.makeEdge(nodes[5],n1,"x");
+		assertEquals(graph.nNodes(),4);
+		f.endBulkBuild();
+		assertEquals(graph.nNodes(),104);
+		assertEquals(graph.findEdge(e.id()),e);
+		assertEquals(graph.nEdges(),3);
+		assertEquals(graph.roots().size(),2);
+		assertTrue(graph.roots().contains(nodes[0]));
+		assertTrue(graph.roots().contains(n1));
+	}
+
+	@Test
+	void testIndex() {
+		// n1 -> (n2 -> n4, n3)
+		TreeIndex<TreeGraphNode> index = graph.index();
+		assertSame(graph.index(),index);
+		assertEquals(index.depth(n4),2);
+		assertTrue(index.isAncestor(n1,n4));
+		assertEquals(index.lowestCommonAncestor(n4,n3),n1);
+		n4.connectParent(n3);
+		index = graph.index();
+		assertTrue(index.isAncestor(n3,n4));
+		assertFalse(index.isAncestor(n2,n4));
+		assertEquals(index.subTreeSize(n2),1);
+	}
+
 }
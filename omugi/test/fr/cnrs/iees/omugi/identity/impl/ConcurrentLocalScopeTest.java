@@ -0,0 +1,107 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.identity.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.identity.Identity;
+import fr.cnrs.iees.omugi.identity.IdentityScope;
+
+class ConcurrentLocalScopeTest {
+
+	@Test
+	void testNewId() {
+		IdentityScope scope = new ConcurrentLocalScope("clst");
+		assertEquals(scope.newId(true,"toto").toString(),"toto");
+		assertEquals(scope.newId(true,"toto").toString(),"toto1");
+		assertEquals(scope.newId(false,"toto").toString(),"toto2");
+		assertEquals(scope.newId(true,"toto").toString(),"toto2");
+		assertTrue(scope.contains("toto1"));
+		scope.removeId("toto1");
+		assertFalse(scope.contains("toto1"));
+		Identity[] ids = scope.newIds(3,"toto");
+		assertEquals(ids[0].toString(),"toto1");
+		assertEquals(ids[1].toString(),"toto3");
+		assertEquals(ids[2].toString(),"toto4");
+	}
+
+	@Test
+	void testParallelIds() throws Exception {
+		IdentityScope scope = new ConcurrentLocalScope("clst");
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<List<String>>> tasks = new ArrayList<>();
+		for (int t=0; t<8; t++) {
+			boolean batch = (t%2==0);
+			tasks.add(pool.submit(() -> {
+				List<String> result = new ArrayList<>();
+				if (batch)
+					for (Identity id:scope.newIds(1000,"x"))
+						result.add(id.id());
+				else
+					for (int i=0; i<1000; i++)
+						result.add(scope.newId(true,"x").id());
+				return result;
+			}));
+		}
+		Set<String> all = new HashSet<>();
+		for (Future<List<String>> task:tasks)
+			for (String id:task.get())
+				assertTrue(all.add(id));
+		pool.shutdown();
+		assertEquals(all.size(),8000);
+		for (String id:all)
+			assertTrue(scope.contains(id));
+	}
+
+	@Test
+	void testParallelScopes() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<String>> tasks = new ArrayList<>();
+		for (int t=0; t<800; t++)
+			tasks.add(pool.submit(() -> new ConcurrentLocalScope("pscope").id()));
+		Set<String> all = new HashSet<>();
+		for (Future<String> task:tasks)
+			assertTrue(all.add(task.get()));
+		pool.shutdown();
+		assertEquals(all.size(),800);
+	}
+
+}
@@ -0,0 +1,144 @@
+/**************************************************************************
+ *  OMUGI - One More Ultimate Graph Implementation                        *
+ *                                                                        *
+ *  Copyright 2018: Shayne FLint, Jacques Gignoux & Ian D. Davies         *
+ *       shayne.flint@anu.edu.au                                          * 
+ *       jacques.gignoux@upmc.fr                                          *
+ *       ian.davies@anu.edu.au                                            * 
+ *                                                                        *
+ *  OMUGI is an API to implement graphs, as described by graph theory,    *
+ *  but also as more commonly used in computing - e.g. dynamic graphs.    *
+ *  It interfaces with JGraphT, an API for mathematical graphs, and       *
+ *  GraphStream, an API for visual graphs.                                *
+ *                                                                        *
+ **************************************************************************                                       
+ *  This file is part of OMUGI (One More Ultimate Graph Implementation).  *
+ *                                                                        *
+ *  OMUGI is free software: you can redistribute it and/or modify         *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  OMUGI is distributed in the hope that it will be useful,              *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *                         
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with OMUGI.  If not, see <https://www.gnu.org/licenses/gpl.html>*
+ *                                                                        *
+ **************************************************************************/
+package fr.cnrs.iees.omugi.io.parsing.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.cnrs.iees.omugi.collections.tables.Dimensioner;
+import fr.cnrs.iees.omugi.collections.tables.DoubleTable;
+import fr.cnrs.iees.omugi.graph.impl.SimpleTree;
+import fr.cnrs.iees.omugi.graph.impl.SimpleTreeFactory;
+import fr.cnrs.iees.omugi.graph.impl.SimpleTreeNode;
+import fr.cnrs.iees.omugi.graph.property.Property;
+import fr.cnrs.iees.omugi.properties.impl.SimplePropertyListImpl;
+
+class TreeReferenceIndexTest {
+
+	SimpleTreeFactory f;
+	SimpleTree<SimpleTreeNode> tree;
+	SimpleTreeNode root, a, b, c, d;
+	DoubleTable table;
+	String label;
+
+	// root (no properties, hence another label)
+	// ├─a (x=1.5)
+	// │  └─c (x=1.5, t=table)
+	// └─b (x=2.0, s="blabla")
+	//    └─d (x=1.5)
+
+	@BeforeEach
+	void init() {
+		f = new SimpleTreeFactory("refs");
+		table = new DoubleTable(new Dimensioner(3));
+		table.setByInt(1.0,0);
+		table.setByInt(2.5,1);
+		table.setByInt(-3.0,2);
+		root = f.makeNode("root");
+		a = f.makeNode("a",new SimplePropertyListImpl(new Property("x",1.5)));
+		b = f.makeNode("b",new SimplePropertyListImpl(new Property("x",2.0),new Property("s","blabla")));
+		c = f.makeNode("c",new SimplePropertyListImpl(new Property("x",1.5),new Property("t",table)));
+		d = f.makeNode("d",new SimplePropertyListImpl(new Property("x",1.5)));
+		a.connectParent(root);
+		b.connectParent(root);
+		c.connectParent(a);
+		d.connectParent(b);
+		tree = new SimpleTree<>(f);
+		for (SimpleTreeNode n:List.of(root,a,b,c,d))
+			tree.addNode(n);
+		label = a.classId();
+	}
+
+	@Test
+	void testCandidates() {
+		TreeReferenceIndex<SimpleTreeNode> index = new TreeReferenceIndex<>(tree);
+		assertEquals(index.size(),5);
+		assertEquals(index.candidates("","c"),List.of(c));
+		assertEquals(index.candidates(label,"c"),List.of(c));
+		assertTrue(index.candidates("otherLabel","c").isEmpty());
+		assertTrue(index.candidates("","e").isEmpty());
+		assertEquals(index.candidates(label,""),List.of(a,b,c,d));
+		assertEquals(index.candidates(root.classId(),"root"),List.of(root));
+		assertEquals(index.candidates("","").size(),5);
+		assertTrue(index.candidates("otherLabel","").isEmpty());
+	}
+
+	@Test
+	void testResolveByName() {
+		TreeReferenceIndex<SimpleTreeNode> index = new TreeReferenceIndex<>(tree);
+		assertEquals(index.resolve(":c"),List.of(c));
+		assertEquals(index.resolve(label+":c"),List.of(c));
+		assertEquals(index.resolve(":a/:c"),List.of(c));
+		assertEquals(index.resolve(":root/:a/:c"),List.of(c));
+		assertTrue(index.resolve(":b/:c").isEmpty());
+		assertTrue(index.resolve(":root/:root/:a/:c").isEmpty());
+		assertTrue(index.resolve(":e").isEmpty());
+		assertTrue(index.resolve((String)null).isEmpty());
+	}
+
+	@Test
+	void testResolveByProperties() {
+		TreeReferenceIndex<SimpleTreeNode> index = new TreeReferenceIndex<>(tree);
+		assertEquals(index.resolve(label+":+x=1.5"),List.of(a,c,d));
+		assertEquals(index.resolve(":a/+x=1.5"),List.of(c));
+		assertEquals(index.resolve("+s=\"blabla\"/+x=1.5"),List.of(d));
+		assertEquals(index.resolve("+x=2.0"),List.of(b));
+		// same rule as before: values are compared through their text form
+		assertTrue(index.resolve("+x=2").isEmpty());
+		assertTrue(index.resolve("+y=1.5").isEmpty());
+		assertTrue(index.resolve("+x=blabla").isEmpty());
+	}
+
+	@Test
+	void testResolveTable() {
+		TreeReferenceIndex<SimpleTreeNode> index = new TreeReferenceIndex<>(tree);
+		String ref = "+t=([3]1.0,2.5,-3.0)";
+		assertTrue(NodeReference.matchesRef(c,ref));
+		assertEquals(index.resolve(ref),List.of(c));
+		assertTrue(index.resolve("+t=([3]1.0,2.5,-2.0)").isEmpty());
+	}
+
+	@Test
+	void testReuseParsedReference() {
+		ReferenceParser p = new ReferenceTokenizer(label+":+x=1.5").parser();
+		assertEquals(p.resolve(tree),List.of(a,c,d));
+		// the reference is parsed only once
+		assertEquals(p.resolve(tree),List.of(a,c,d));
+		assertTrue(p.matches(a));
+		assertFalse(p.matches(b));
+		assertEquals(NodeReference.findNodes(tree,":b/:d"),List.of(d));
+	}
+
+}